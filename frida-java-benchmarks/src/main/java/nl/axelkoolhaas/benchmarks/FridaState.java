@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.benchmarks;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Frida runtime and local device shared by all benchmarks of a fork.
+ */
+@State(Scope.Benchmark)
+public class FridaState {
+
+    DeviceManager deviceManager;
+    Device device;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Frida.init();
+        deviceManager = new DeviceManager();
+        device = deviceManager.getLocalDevice();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        device.close();
+        deviceManager.close();
+        Frida.deinit();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.benchmarks;
+
+import nl.axelkoolhaas.frida_java.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages from {@code send()} in the target to a {@link Script.MessageHandler}.
+ * Throughput is measured on bursts sent by the agent; latency on a single
+ * post/reply round trip.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MessageBenchmark {
+
+    static final int BURST = 1000;
+
+    /** Answers a burst request with that many messages and a ping with one */
+    static final String SOURCE =
+        "function next() {" +
+        "  recv(function (m) {" +
+        "    if (m.type === 'burst') { for (var i = 0; i < m.count; i++) send(i); }" +
+        "    else send('pong');" +
+        "    next();" +
+        "  });" +
+        "}" +
+        "next();";
+
+    @State(Scope.Benchmark)
+    public static class EchoState {
+        Script script;
+        final Semaphore received = new Semaphore(0);
+
+        @Setup(Level.Trial)
+        public void setUp(SessionState session) {
+            script = session.session.createScript(SOURCE);
+            script.setMessageHandler((message, data) -> received.release());
+            script.load();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            script.close();
+        }
+
+        void await(int messages) throws InterruptedException {
+            if (!received.tryAcquire(messages, 30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for script messages");
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST)
+    public void sendThroughput(EchoState echo) throws InterruptedException {
+        echo.script.post("{\"type\":\"burst\",\"count\":" + BURST + "}");
+        echo.await(BURST);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void roundTripLatency(EchoState echo) throws InterruptedException {
+        echo.script.post("{\"type\":\"ping\"}");
+        echo.await(1);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.benchmarks;
+
+import nl.axelkoolhaas.frida_java.Process;
+import nl.axelkoolhaas.frida_java.ProcessList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enumerating the processes of the local device and reading every entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessEnumerationBenchmark {
+
+    @Benchmark
+    public int enumerate(FridaState frida) {
+        try (ProcessList processes = frida.device.enumerateProcesses()) {
+            return processes.size();
+        }
+    }
+
+    @Benchmark
+    public void enumerateAndIterate(FridaState frida, Blackhole blackhole) {
+        try (ProcessList processes = frida.device.enumerateProcesses()) {
+            int size = processes.size();
+            for (int i = 0; i < size; i++) {
+                try (Process process = processes.get(i)) {
+                    blackhole.consume(process.getPid());
+                    blackhole.consume(process.getName());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.benchmarks;
+
+import nl.axelkoolhaas.frida_java.Script;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating and loading scripts, and posting messages to a loaded script.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ScriptBenchmark {
+
+    static final String EMPTY_SOURCE = "// empty";
+
+    /** Script that receives every posted message and does nothing with it */
+    static final String SINK_SOURCE = "function next() { recv(function () { next(); }); } next();";
+
+    private static final byte[] PAYLOAD = new byte[1024];
+
+    @State(Scope.Benchmark)
+    public static class SinkState {
+        Script script;
+
+        @Setup(Level.Trial)
+        public void setUp(SessionState session) {
+            script = session.session.createScript(SINK_SOURCE);
+            script.load();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            script.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void createAndLoad(SessionState session) {
+        try (Script script = session.session.createScript(EMPTY_SOURCE)) {
+            script.load();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void post(SinkState sink) {
+        sink.script.post("{\"type\":\"tick\"}");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void postWithData(SinkState sink) {
+        sink.script.post("{\"type\":\"tick\"}", PAYLOAD);
+    }
+}
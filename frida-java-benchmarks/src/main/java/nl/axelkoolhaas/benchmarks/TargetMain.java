@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.benchmarks;
+
+import java.io.IOException;
+
+/**
+ * Idle process attached to by the benchmarks. Exits when its stdin is closed.
+ */
+public final class TargetMain {
+
+    private TargetMain() {}
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("ready");
+        System.out.flush();
+        while (System.in.read() != -1) {
+            // Wait for the benchmark to close stdin
+        }
+    }
+}
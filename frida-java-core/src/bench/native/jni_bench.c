@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+// Microbenchmarks for the JNI glue, without the JVM-side call overhead of JMH.
+//
+// The harness compiles the whole native layer into itself (it includes the unity
+// build), embeds a JVM through the invocation API and calls the JNI entry points
+// directly with wrapper objects around frida-core objects it owns. Each entry
+// point is timed as shipped and next to a variant that caches its class, method
+// and field IDs, which separates the lookup overhead from the frida-core work.
+//
+// Usage: frida-java-jni-bench.bin [benchmark|all] [iterations]
+// Set FRIDA_JAVA_CLASSPATH to the frida-java classes (default: target/classes).
+
+#include "_frida_java.c"
+
+#include <stdio.h>
+#include <stdlib.h>
+#include <time.h>
+#include <unistd.h>
+
+#define DEFAULT_ITERATIONS 1000000
+#define MESSAGE_PAYLOAD_SIZE 256
+
+typedef struct {
+  JavaVM *jvm;
+  JNIEnv *env;
+  FridaDeviceManager *manager;
+  FridaDevice *device;
+  FridaSession *session;
+  jobject device_obj;
+  jobject session_obj;
+  jobject script_obj;
+  ScriptMessageHandlerData handler_data;
+  GBytes *payload;
+} BenchContext;
+
+// Runs a benchmark and returns the time spent in the measured calls, in nanoseconds
+typedef gint64 (*BenchFunc)(BenchContext *ctx, gint64 iterations);
+
+typedef struct {
+  const char *name;
+  BenchFunc func;
+  gint64 divisor; // iterations are divided by this, for benchmarks with expensive operations
+} Benchmark;
+
+static gint64 now_ns(void) {
+  struct timespec ts;
+  clock_gettime(CLOCK_MONOTONIC, &ts);
+  return (gint64) ts.tv_sec * 1000000000 + ts.tv_nsec;
+}
+
+static void check_exception(JNIEnv *env, const char *where) {
+  if ((*env)->ExceptionCheck(env)) {
+    fprintf(stderr, "Java exception in %s\n", where);
+    (*env)->ExceptionDescribe(env);
+    exit(1);
+  }
+}
+
+static jobject new_wrapper(JNIEnv *env, const char *class_name, jlong native_ptr) {
+  jclass cls = (*env)->FindClass(env, class_name);
+  check_exception(env, class_name);
+  jmethodID ctor = (*env)->GetMethodID(env, cls, "<init>", "(J)V");
+  jobject obj = (*env)->NewObject(env, cls, ctor, native_ptr);
+  check_exception(env, class_name);
+  jobject global = (*env)->NewGlobalRef(env, obj);
+  (*env)->DeleteLocalRef(env, obj);
+  (*env)->DeleteLocalRef(env, cls);
+  return global;
+}
+
+// Device.getName
+
+static gint64 bench_device_get_name(BenchContext *ctx, gint64 iterations) {
+  JNIEnv *env = ctx->env;
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    jstring name = Java_nl_axelkoolhaas_frida_1java_Device_getNameNative(env, ctx->device_obj);
+    (*env)->DeleteLocalRef(env, name);
+  }
+  gint64 elapsed = now_ns() - start;
+  return elapsed;
+}
+
+static gint64 bench_device_get_name_cached(BenchContext *ctx, gint64 iterations) {
+  JNIEnv *env = ctx->env;
+  jclass cls = (*env)->GetObjectClass(env, ctx->device_obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    FridaDevice *device = (FridaDevice *) (*env)->CallLongMethod(env, ctx->device_obj, get_native_ptr_method);
+    jstring name = (*env)->NewStringUTF(env, frida_device_get_name(device));
+    (*env)->DeleteLocalRef(env, name);
+  }
+  gint64 elapsed = now_ns() - start;
+  (*env)->DeleteLocalRef(env, cls);
+  return elapsed;
+}
+
+// Session.getPid
+
+static gint64 bench_session_get_pid(BenchContext *ctx, gint64 iterations) {
+  JNIEnv *env = ctx->env;
+  volatile jint sink = 0;
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    sink += Java_nl_axelkoolhaas_frida_1java_Session_getPid(env, ctx->session_obj);
+  }
+  gint64 elapsed = now_ns() - start;
+  return elapsed;
+}
+
+static gint64 bench_session_get_pid_cached(BenchContext *ctx, gint64 iterations) {
+  JNIEnv *env = ctx->env;
+  jclass cls = (*env)->GetObjectClass(env, ctx->session_obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  volatile jint sink = 0;
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    FridaSession *session = (FridaSession *) (*env)->CallLongMethod(env, ctx->session_obj, get_native_ptr_method);
+    sink += (jint) frida_session_get_pid(session);
+  }
+  gint64 elapsed = now_ns() - start;
+  (*env)->DeleteLocalRef(env, cls);
+  return elapsed;
+}
+
+// Script message trampoline, with a synthetic GBytes payload
+
+static gint64 bench_script_message(BenchContext *ctx, gint64 iterations) {
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    on_frida_script_message(NULL, "{\"type\":\"send\",\"payload\":1}", ctx->payload, &ctx->handler_data);
+  }
+  gint64 elapsed = now_ns() - start;
+  return elapsed;
+}
+
+static gint64 bench_script_message_cached(BenchContext *ctx, gint64 iterations) {
+  JNIEnv *env = NULL;
+  (*ctx->jvm)->GetEnv(ctx->jvm, (void **) &env, JNI_VERSION_1_8);
+  jclass cls = (*env)->GetObjectClass(env, ctx->script_obj);
+  jmethodID dispatch = (*env)->GetMethodID(env, cls, "dispatchMessage", "(Ljava/lang/String;[BJ)V");
+  gint64 start = now_ns();
+  for (gint64 i = 0; i < iterations; i++) {
+    const gchar *message = "{\"type\":\"send\",\"payload\":1}";
+    jstring jmsg = (*env)->NewStringUTF(env, message);
+    gsize size = 0;
+    const guint8 *bytes = g_bytes_get_data(ctx->payload, &size);
+    jbyteArray jdata = (*env)->NewByteArray(env, (jsize) size);
+    (*env)->SetByteArrayRegion(env, jdata, 0, (jsize) size, (const jbyte *) bytes);
+    (*env)->CallVoidMethod(env, ctx->script_obj, dispatch, jmsg, jdata, (jlong) strlen(message));
+    (*env)->DeleteLocalRef(env, jmsg);
+    (*env)->DeleteLocalRef(env, jdata);
+  }
+  gint64 elapsed = now_ns() - start;
+  (*env)->DeleteLocalRef(env, cls);
+  return elapsed;
+}
+
+// ProcessList.toArray
+
+static jobject new_process_list(BenchContext *ctx) {
+  GError *error = NULL;
+  FridaProcessList *list = frida_device_enumerate_processes_sync(ctx->device, NULL, NULL, &error);
+  if (error != NULL) {
+    fprintf(stderr, "Failed to enumerate processes: %s\n", error->message);
+    exit(1);
+  }
+  return new_wrapper(ctx->env, "nl/axelkoolhaas/frida_java/ProcessList", (jlong) list);
+}
+
+static void close_all(JNIEnv *env, jobjectArray array) {
+  jclass cls = (*env)->FindClass(env, "java/lang/AutoCloseable");
+  jmethodID close = (*env)->GetMethodID(env, cls, "close", "()V");
+  jsize length = (*env)->GetArrayLength(env, array);
+  for (jsize i = 0; i < length; i++) {
+    jobject element = (*env)->GetObjectArrayElement(env, array, i);
+    if (element != NULL) {
+      (*env)->CallVoidMethod(env, element, close);
+      (*env)->DeleteLocalRef(env, element);
+    }
+  }
+  (*env)->DeleteLocalRef(env, cls);
+}
+
+static jobjectArray process_list_to_array_cached(JNIEnv *env, jobject list_obj, jfieldID native_ptr_field,
+    jclass process_class, jmethodID process_ctor) {
+  FridaProcessList *list = (FridaProcessList *) (*env)->GetLongField(env, list_obj, native_ptr_field);
+  gint count = frida_process_list_size(list);
+  jobjectArray array = (*env)->NewObjectArray(env, count, process_class, NULL);
+  for (gint i = 0; i < count; i++) {
+    jobject process_obj = (*env)->NewObject(env, process_class, process_ctor, (jlong) frida_process_list_get(list, i));
+    (*env)->SetObjectArrayElement(env, array, i, process_obj);
+    (*env)->DeleteLocalRef(env, process_obj);
+  }
+  return array;
+}
+
+static gint64 run_process_list_to_array(BenchContext *ctx, gint64 iterations, gboolean cached) {
+  JNIEnv *env = ctx->env;
+  jobject list_obj = new_process_list(ctx);
+  jclass list_class = (*env)->GetObjectClass(env, list_obj);
+  jfieldID native_ptr_field = (*env)->GetFieldID(env, list_class, "nativePtr", "J");
+  jclass process_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Process");
+  jmethodID process_ctor = (*env)->GetMethodID(env, process_class, "<init>", "(J)V");
+  gint64 elapsed = 0;
+  for (gint64 i = 0; i < iterations; i++) {
+    // The shipped entry point keeps a local reference per process alive, so give each call its own frame
+    (*env)->PushLocalFrame(env, 16);
+    gint64 start = now_ns();
+    jobjectArray array = cached
+        ? process_list_to_array_cached(env, list_obj, native_ptr_field, process_class, process_ctor)
+        : Java_nl_axelkoolhaas_frida_1java_ProcessList_toArray(env, list_obj);
+    elapsed += now_ns() - start;
+    check_exception(env, "ProcessList.toArray");
+    // Closing the processes is not part of the measurement
+    close_all(env, array);
+    (*env)->PopLocalFrame(env, NULL);
+  }
+  (*env)->DeleteLocalRef(env, process_class);
+  (*env)->DeleteLocalRef(env, list_class);
+  (*env)->DeleteGlobalRef(env, list_obj);
+  return elapsed;
+}
+
+static gint64 bench_process_list_to_array(BenchContext *ctx, gint64 iterations) {
+  return run_process_list_to_array(ctx, iterations, FALSE);
+}
+
+static gint64 bench_process_list_to_array_cached(BenchContext *ctx, gint64 iterations) {
+  return run_process_list_to_array(ctx, iterations, TRUE);
+}
+
+static const Benchmark benchmarks[] = {
+  { "device_get_name", bench_device_get_name, 1 },
+  { "device_get_name_cached", bench_device_get_name_cached, 1 },
+  { "session_get_pid", bench_session_get_pid, 1 },
+  { "session_get_pid_cached", bench_session_get_pid_cached, 1 },
+  { "script_message", bench_script_message, 1 },
+  { "script_message_cached", bench_script_message_cached, 1 },
+  { "process_list_to_array", bench_process_list_to_array, 10000 },
+  { "process_list_to_array_cached", bench_process_list_to_array_cached, 10000 },
+};
+
+static void run_benchmark(BenchContext *ctx, const Benchmark *benchmark, gint64 iterations) {
+  iterations = MAX(iterations / benchmark->divisor, 1);
+  // Warm up with a tenth of the iterations
+  benchmark->func(ctx, MAX(iterations / 10, 1));
+  gint64 elapsed = benchmark->func(ctx, iterations);
+  check_exception(ctx->env, benchmark->name);
+  printf("%-32s %12.1f ns/op  (%" G_GINT64_FORMAT " ops)\n", benchmark->name, (double) elapsed / iterations, iterations);
+  fflush(stdout);
+}
+
+static JNINativeMethod native_cleaner_methods[] = {
+  { "unref", "(J)V", (void *) Java_nl_axelkoolhaas_frida_1java_NativeCleaner_unref },
+  { "unrefAll", "([JI)V", (void *) Java_nl_axelkoolhaas_frida_1java_NativeCleaner_unrefAll },
+};
+
+static void create_jvm(BenchContext *ctx) {
+  const char *classpath = g_getenv("FRIDA_JAVA_CLASSPATH");
+  gchar *classpath_option = g_strconcat("-Djava.class.path=", classpath != NULL ? classpath : "target/classes", NULL);
+  JavaVMOption options[] = {
+    { .optionString = classpath_option },
+    { .optionString = "-Xss8m" },
+  };
+  JavaVMInitArgs args = {
+    .version = JNI_VERSION_1_8,
+    .nOptions = G_N_ELEMENTS(options),
+    .options = options,
+    .ignoreUnrecognized = JNI_FALSE,
+  };
+  if (JNI_CreateJavaVM(&ctx->jvm, (void **) &ctx->env, &args) != JNI_OK) {
+    fprintf(stderr, "Failed to create the JVM\n");
+    exit(1);
+  }
+  g_free(classpath_option);
+
+  // The wrappers release their objects through NativeCleaner; bind it to the copy compiled in here
+  JNIEnv *env = ctx->env;
+  jclass cleaner_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/NativeCleaner");
+  check_exception(env, "NativeCleaner");
+  (*env)->RegisterNatives(env, cleaner_class, native_cleaner_methods, G_N_ELEMENTS(native_cleaner_methods));
+  (*env)->DeleteLocalRef(env, cleaner_class);
+}
+
+static void open_targets(BenchContext *ctx) {
+  GError *error = NULL;
+  ctx->manager = frida_device_manager_new();
+  FridaDeviceList *devices = frida_device_manager_enumerate_devices_sync(ctx->manager, NULL, &error);
+  if (error != NULL) {
+    fprintf(stderr, "Failed to enumerate devices: %s\n", error->message);
+    exit(1);
+  }
+  gint count = frida_device_list_size(devices);
+  for (gint i = 0; i < count && ctx->device == NULL; i++) {
+    FridaDevice *device = frida_device_list_get(devices, i);
+    if (frida_device_get_dtype(device) == FRIDA_DEVICE_TYPE_LOCAL) {
+      ctx->device = device;
+    } else {
+      g_object_unref(device);
+    }
+  }
+  frida_unref(devices);
+  if (ctx->device == NULL) {
+    fprintf(stderr, "No local device\n");
+    exit(1);
+  }
+
+  // Attach to the harness itself, so no other process is needed
+  ctx->session = frida_device_attach_sync(ctx->device, (guint) getpid(), NULL, NULL, &error);
+  if (error != NULL) {
+    fprintf(stderr, "Failed to attach to self: %s\n", error->message);
+    exit(1);
+  }
+
+  JNIEnv *env = ctx->env;
+  ctx->device_obj = new_wrapper(env, "nl/axelkoolhaas/frida_java/Device", (jlong) g_object_ref(ctx->device));
+  ctx->session_obj = new_wrapper(env, "nl/axelkoolhaas/frida_java/Session", (jlong) g_object_ref(ctx->session));
+  // Messages land in the pending queue of a script without handler, which has a constant cost
+  ctx->script_obj = new_wrapper(env, "nl/axelkoolhaas/frida_java/Script", 0);
+  ctx->handler_data.jvm = ctx->jvm;
+  ctx->handler_data.script_weak = (*env)->NewWeakGlobalRef(env, ctx->script_obj);
+  guint8 payload[MESSAGE_PAYLOAD_SIZE] = { 0 };
+  ctx->payload = g_bytes_new(payload, sizeof(payload));
+}
+
+static void close_targets(BenchContext *ctx) {
+  JNIEnv *env = ctx->env;
+  g_bytes_unref(ctx->payload);
+  (*env)->DeleteWeakGlobalRef(env, ctx->handler_data.script_weak);
+  (*env)->DeleteGlobalRef(env, ctx->script_obj);
+  (*env)->DeleteGlobalRef(env, ctx->session_obj);
+  (*env)->DeleteGlobalRef(env, ctx->device_obj);
+  frida_session_detach_sync(ctx->session, NULL, NULL);
+  frida_unref(ctx->session);
+  frida_unref(ctx->device);
+  frida_device_manager_close_sync(ctx->manager, NULL, NULL);
+  frida_unref(ctx->manager);
+}
+
+int main(int argc, char **argv) {
+  const char *filter = argc > 1 ? argv[1] : NULL;
+  gint64 iterations = argc > 2 ? g_ascii_strtoll(argv[2], NULL, 10) : DEFAULT_ITERATIONS;
+  if (iterations <= 0) {
+    fprintf(stderr, "Usage: %s [benchmark] [iterations]\n", argv[0]);
+    return 1;
+  }
+
+  BenchContext ctx = { 0 };
+  frida_init();
+  create_jvm(&ctx);
+  open_targets(&ctx);
+
+  gboolean found = FALSE;
+  for (gsize i = 0; i < G_N_ELEMENTS(benchmarks); i++) {
+    if (filter == NULL || strcmp(filter, "all") == 0 || strcmp(filter, benchmarks[i].name) == 0) {
+      run_benchmark(&ctx, &benchmarks[i], iterations);
+      found = TRUE;
+    }
+  }
+
+  close_targets(&ctx);
+  (*ctx.jvm)->DestroyJavaVM(ctx.jvm);
+  frida_deinit();
+  if (!found) {
+    fprintf(stderr, "Unknown benchmark: %s\n", filter);
+    return 1;
+  }
+  return 0;
+}
@@ -23,11 +23,17 @@ package nl.axelkoolhaas.frida_java;
  * Represents a Frida Application.
  */
 public class Application implements AutoCloseable {
-    private long nativePtr;
+    private volatile long nativePtr;
     private volatile boolean closed = false;
+    private final NativeCleaner.Ref cleanable;
 
     Application(long nativePtr) {
         this.nativePtr = nativePtr;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        FridaScope.adopt(cleanable, () -> {
+            this.closed = true;
+            this.nativePtr = 0;
+        });
     }
 
     /**
@@ -50,10 +56,19 @@ public class Application implements AutoCloseable {
 
     /**
      * Get the parameters of the application.
+     * Values are converted by type: dictionaries to {@code Map}, byte arrays to
+     * {@code byte[]}, other arrays and tuples to {@code List}, integers to {@code Long},
+     * booleans to {@code Boolean}, doubles to {@code Double} and strings to {@code String}.
      * @return Map of parameters
      */
     public native java.util.Map<String, Object> getParameters();
 
+    /**
+     * Copy identifier, name and pid into an immutable snapshot in a single native call.
+     * @return Application snapshot
+     */
+    public native ApplicationInfo getInfo();
+
     /**
      * Close this application and release native resources.
      * This method is idempotent and safe to call multiple times.
@@ -62,8 +77,10 @@ public class Application implements AutoCloseable {
     @Override
     public void close() {
         if (!closed && nativePtr != 0) {
-            disposeNative(nativePtr);
             closed = true;
+            // Prevent use-after-free
+            nativePtr = 0;
+            cleanable.clean();
         }
     }
 
@@ -74,9 +91,4 @@ public class Application implements AutoCloseable {
     long getNativePtr() {
         return nativePtr;
     }
-
-    /**
-     * Native method to release native resources.
-     */
-    private native void disposeNative(long nativePtr);
-}
\ No newline at end of file
+}
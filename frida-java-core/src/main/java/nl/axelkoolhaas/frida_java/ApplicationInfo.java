@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of an application.
+ *
+ * <p>All fields are copied when the snapshot is made, so it holds no native
+ * resources, needs no closing and can be cached, shared between threads and
+ * used as a map key or set element.</p>
+ */
+public final class ApplicationInfo {
+    private final String identifier;
+    private final String name;
+    private final int pid;
+
+    /**
+     * Create an application snapshot. Also called from native code.
+     * @param identifier Application identifier
+     * @param name Application name
+     * @param pid Process ID, or 0 if not running
+     */
+    public ApplicationInfo(String identifier, String name, int pid) {
+        this.identifier = identifier;
+        this.name = name;
+        this.pid = pid;
+    }
+
+    /**
+     * Get the application identifier.
+     * @return Application identifier, e.g. a bundle ID
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Get the application name.
+     * @return Application name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the process ID of the application.
+     * @return Process ID, or 0 if not running
+     */
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Check whether the application was running when the snapshot was made.
+     * @return true if running
+     */
+    public boolean isRunning() {
+        return pid != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ApplicationInfo)) return false;
+        ApplicationInfo other = (ApplicationInfo) o;
+        return pid == other.pid && Objects.equals(identifier, other.identifier) && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Objects.hashCode(identifier) + Objects.hashCode(name)) + pid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ApplicationInfo{identifier='%s', name='%s', pid=%d}", identifier, name, pid);
+    }
+}
@@ -23,11 +23,17 @@ package nl.axelkoolhaas.frida_java;
  * Represents a list of Frida Applications.
  */
 public class ApplicationList implements AutoCloseable {
-    private long nativePtr;
+    private volatile long nativePtr;
     private volatile boolean closed = false;
+    private final NativeCleaner.Ref cleanable;
 
     ApplicationList(long nativePtr) {
         this.nativePtr = nativePtr;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        FridaScope.adopt(cleanable, () -> {
+            this.closed = true;
+            this.nativePtr = 0;
+        });
     }
 
     /**
@@ -47,6 +53,13 @@ public class ApplicationList implements AutoCloseable {
      */
     public native Application[] toArray();
 
+    /**
+     * Copy all applications into immutable snapshots in a single native call.
+     * Unlike {@link #toArray()}, the result holds no native resources.
+     * @return Array of application snapshots
+     */
+    public native ApplicationInfo[] toInfoArray();
+
     // Async/sync/finish variants for size
     /**
      * Asynchronously get the number of applications in the list.
@@ -99,8 +112,10 @@ public class ApplicationList implements AutoCloseable {
     @Override
     public void close() {
         if (!closed && nativePtr != 0) {
-            disposeNative(nativePtr);
             closed = true;
+            // Prevent use-after-free
+            nativePtr = 0;
+            cleanable.clean();
         }
     }
 
@@ -111,9 +126,4 @@ public class ApplicationList implements AutoCloseable {
     long getNativePtr() {
         return nativePtr;
     }
-
-    /**
-     * Native method to release native resources.
-     */
-    private native void disposeNative(long nativePtr);
 }
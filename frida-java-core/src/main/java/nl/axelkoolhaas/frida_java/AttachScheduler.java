@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs attach and script-load jobs with a bounded number in flight per device.
+ *
+ * <p>Each job attaches to a process, creates a script, installs the job's message
+ * handler and loads the script. Jobs for the same device run at most
+ * {@code maxInFlightPerDevice} at a time; higher priority jobs run first and
+ * jobs of equal priority run in submission order. A job is only handed to a
+ * worker once one is free. When several devices have work waiting, devices are
+ * served round-robin so one busy device cannot starve the others; priorities
+ * only order the jobs of one device.</p>
+ *
+ * <p>Use with try-with-resources or call {@link #close()} to stop the workers.</p>
+ */
+public class AttachScheduler implements AutoCloseable {
+
+    /**
+     * An attach and script-load job.
+     */
+    public static class Job {
+        private final Device device;
+        private final int pid;
+        private final String source;
+        private final byte[] bytes;
+        private String name;
+        private int priority;
+        private Script.MessageHandler messageHandler;
+
+        /**
+         * Create a job.
+         * @param device Device the process runs on
+         * @param pid Process ID to attach to
+         * @param source JavaScript source code to load, or null to only attach
+         */
+        public Job(Device device, int pid, String source) {
+            this(device, pid, source, null);
+        }
+
+        private Job(Device device, int pid, String source, byte[] bytes) {
+            if (device == null) {
+                throw new IllegalArgumentException("Device must not be null");
+            }
+            this.device = device;
+            this.pid = pid;
+            this.source = source;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Create a job that loads a script compiled with {@link Session#compileScript(String)}.
+         * @param device Device the process runs on
+         * @param pid Process ID to attach to
+         * @param bytes Compiled script
+         * @return New job
+         */
+        public static Job compiled(Device device, int pid, byte[] bytes) {
+            if (bytes == null) {
+                throw new IllegalArgumentException("Bytes must not be null");
+            }
+            return new Job(device, pid, null, bytes);
+        }
+
+        /**
+         * Set the script name.
+         * @param name Script name
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Set the priority. Higher values run first, the default is 0.
+         * @param priority Job priority
+         */
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * Set the handler installed on the script before it is loaded,
+         * so no message sent during load is missed.
+         * @param messageHandler Message handler
+         */
+        public void setMessageHandler(Script.MessageHandler messageHandler) {
+            this.messageHandler = messageHandler;
+        }
+
+        public Device getDevice() {
+            return device;
+        }
+
+        public int getPid() {
+            return pid;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+    }
+
+    /**
+     * Outcome and timings of a completed job.
+     */
+    public static class Result {
+        private final int pid;
+        private final Session session;
+        private final Script script;
+        private final long queuedNanos;
+        private final long attachNanos;
+        private final long loadNanos;
+
+        Result(int pid, Session session, Script script, long queuedNanos, long attachNanos, long loadNanos) {
+            this.pid = pid;
+            this.session = session;
+            this.script = script;
+            this.queuedNanos = queuedNanos;
+            this.attachNanos = attachNanos;
+            this.loadNanos = loadNanos;
+        }
+
+        public int getPid() {
+            return pid;
+        }
+
+        /**
+         * Get the session. The caller owns it and must close it.
+         * @return Session
+         */
+        public Session getSession() {
+            return session;
+        }
+
+        /**
+         * Get the loaded script, or null if the job had no script.
+         * @return Script
+         */
+        public Script getScript() {
+            return script;
+        }
+
+        /**
+         * Time spent waiting for a free slot.
+         * @return Queue time in nanoseconds
+         */
+        public long getQueuedNanos() {
+            return queuedNanos;
+        }
+
+        /**
+         * Time spent attaching.
+         * @return Attach time in nanoseconds
+         */
+        public long getAttachNanos() {
+            return attachNanos;
+        }
+
+        /**
+         * Time spent creating and loading the script.
+         * @return Load time in nanoseconds
+         */
+        public long getLoadNanos() {
+            return loadNanos;
+        }
+
+        /**
+         * Time from submission to completion.
+         * @return Latency in nanoseconds
+         */
+        public long getLatencyNanos() {
+            return queuedNanos + attachNanos + loadNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result{pid=%d, queued=%dus, attach=%dus, load=%dus}", pid,
+                TimeUnit.NANOSECONDS.toMicros(queuedNanos), TimeUnit.NANOSECONDS.toMicros(attachNanos),
+                TimeUnit.NANOSECONDS.toMicros(loadNanos));
+        }
+    }
+
+    /**
+     * A job waiting in a device queue.
+     */
+    private static final class Pending implements Comparable<Pending> {
+        final Job job;
+        final int priority;
+        final long sequence;
+        final long submittedAt = System.nanoTime();
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        Pending(Job job, long sequence) {
+            this.job = job;
+            this.priority = job.priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Pending other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Waiting jobs and in-flight count of one device.
+     */
+    private static final class DeviceQueue {
+        final PriorityQueue<Pending> pending = new PriorityQueue<>();
+        int inFlight;
+        long lastServed;
+    }
+
+    private final int maxInFlightPerDevice;
+    private final int workerThreads;
+    private final ExecutorService workers;
+    private final Map<String, DeviceQueue> queues = new LinkedHashMap<>();
+    private int running;
+    private long sequence;
+    private long served;
+    private boolean closed = false;
+
+    /**
+     * Create a scheduler.
+     * @param maxInFlightPerDevice Maximum number of jobs running at once per device
+     * @param workerThreads Number of worker threads shared by all devices
+     */
+    public AttachScheduler(int maxInFlightPerDevice, int workerThreads) {
+        if (maxInFlightPerDevice <= 0 || workerThreads <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.maxInFlightPerDevice = maxInFlightPerDevice;
+        this.workerThreads = workerThreads;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "frida-attach-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submit a job for attaching to a process and loading a script into it.
+     * @param device Device the process runs on
+     * @param pid Process ID
+     * @param source JavaScript source code
+     * @return Future completed with the job result
+     */
+    public CompletableFuture<Result> submit(Device device, int pid, String source) {
+        return submit(new Job(device, pid, source));
+    }
+
+    /**
+     * Submit a job. Cancelling the returned future before the job starts removes it from the queue.
+     * @param job Job to run
+     * @return Future completed with the job result
+     * @throws IllegalStateException if the scheduler is closed
+     */
+    public CompletableFuture<Result> submit(Job job) {
+        String deviceId = job.device.getId();
+        Pending pending;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("AttachScheduler is closed");
+            }
+            pending = new Pending(job, sequence++);
+            queues.computeIfAbsent(deviceId, id -> new DeviceQueue()).pending.add(pending);
+            dispatch();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Get the number of jobs waiting for a slot.
+     * @return Number of queued jobs
+     */
+    public synchronized int getQueuedCount() {
+        int count = 0;
+        for (DeviceQueue queue : queues.values()) {
+            count += queue.pending.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of jobs currently running.
+     * @return Number of running jobs
+     */
+    public synchronized int getInFlightCount() {
+        return running;
+    }
+
+    /**
+     * Start waiting jobs while workers are free, taking the next device round-robin
+     * and the highest priority job of that device. Called with the lock held.
+     */
+    private void dispatch() {
+        while (running < workerThreads) {
+            DeviceQueue next = null;
+            Pending head = null;
+            for (DeviceQueue queue : queues.values()) {
+                Pending candidate = queue.pending.peek();
+                while (candidate != null && candidate.future.isDone()) {
+                    // Cancelled while waiting
+                    queue.pending.poll();
+                    candidate = queue.pending.peek();
+                }
+                if (candidate == null || queue.inFlight >= maxInFlightPerDevice) {
+                    continue;
+                }
+                // Least recently served first
+                if (next == null || queue.lastServed < next.lastServed) {
+                    next = queue;
+                    head = candidate;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            next.pending.poll();
+            next.inFlight++;
+            running++;
+            next.lastServed = ++served;
+            DeviceQueue queue = next;
+            Pending job = head;
+            try {
+                workers.execute(() -> run(queue, job));
+            } catch (RejectedExecutionException e) {
+                queue.inFlight--;
+                running--;
+                job.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void run(DeviceQueue queue, Pending pending) {
+        try {
+            if (!pending.future.isDone()) {
+                pending.future.complete(execute(pending));
+            }
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                queue.inFlight--;
+                running--;
+                if (!closed) {
+                    dispatch();
+                }
+            }
+        }
+    }
+
+    private Result execute(Pending pending) {
+        Job job = pending.job;
+        long started = System.nanoTime();
+        Session session = job.device.attach(job.pid);
+        long attached = System.nanoTime();
+        Script script = null;
+        try {
+            if (job.bytes != null) {
+                script = session.createScriptFromBytes(job.bytes);
+            } else if (job.source != null) {
+                script = job.name != null ? session.createScript(job.source, job.name) : session.createScript(job.source);
+            }
+            if (script != null) {
+                if (job.messageHandler != null) {
+                    script.setMessageHandler(job.messageHandler);
+                }
+                script.load();
+            }
+        } catch (RuntimeException e) {
+            if (script != null) {
+                script.close();
+            }
+            session.close();
+            throw e;
+        }
+        long loaded = System.nanoTime();
+        Result result = new Result(job.pid, session, script, started - pending.submittedAt, attached - started, loaded - attached);
+        if (pending.future.isCancelled()) {
+            // Nobody will receive the session or script; do not leak them
+            if (script != null) {
+                script.close();
+            }
+            session.close();
+        }
+        return result;
+    }
+
+    /**
+     * Stop accepting jobs, cancel queued jobs and stop the workers.
+     * Jobs already running complete normally.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public void close() {
+        List<Pending> cancelled = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (DeviceQueue queue : queues.values()) {
+                cancelled.addAll(queue.pending);
+                queue.pending.clear();
+            }
+        }
+        for (Pending pending : cancelled) {
+            pending.future.cancel(false);
+        }
+        workers.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AttachScheduler{maxInFlightPerDevice=%d, queued=%d, inFlight=%d}",
+            maxInFlightPerDevice, getQueuedCount(), getInFlightCount());
+    }
+}
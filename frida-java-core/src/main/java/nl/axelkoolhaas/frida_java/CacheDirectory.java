@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory of immutable, content-addressed cache entries.
+ *
+ * <p>Entries are written to a temporary file and moved into place atomically, so
+ * readers in this or another process never see a partial entry. Entries are read
+ * back as memory-mapped files, and mappings are kept for the lifetime of the directory object.</p>
+ */
+final class CacheDirectory {
+
+    /** System property overriding the root of the frida-java cache directories */
+    static final String CACHE_DIR_PROPERTY = "frida.java.cache.dir";
+
+    private static final String SUFFIX = ".bin";
+
+    private final Path path;
+    private final Map<String, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+    CacheDirectory(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Directory must not be null");
+        }
+        this.path = path;
+    }
+
+    /**
+     * Get the root directory for frida-java caches: the value of the
+     * {@value #CACHE_DIR_PROPERTY} system property or {@code ~/.cache/frida-java}.
+     */
+    static Path getCacheRoot() {
+        String root = System.getProperty(CACHE_DIR_PROPERTY);
+        if (root != null && !root.isEmpty()) {
+            return Paths.get(root);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "frida-java");
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Get a read-only view of an entry with its own position, or null if there is no such entry.
+     */
+    ByteBuffer lookup(String key) {
+        MappedByteBuffer buffer = mapped.get(key);
+        if (buffer == null) {
+            try (FileChannel channel = FileChannel.open(path.resolve(key + SUFFIX), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                System.err.println("Warning: Failed to read cache entry " + key + ": " + e.getMessage());
+                return null;
+            }
+            MappedByteBuffer existing = mapped.putIfAbsent(key, buffer);
+            if (existing != null) {
+                buffer = existing;
+            }
+        }
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Store an entry. Failures are reported as warnings, as a cache that cannot be written only costs time.
+     * @return true if the entry was stored
+     */
+    boolean store(String key, byte[] data) {
+        try {
+            Files.createDirectories(path);
+            Path temp = Files.createTempFile(path, key, ".tmp");
+            try {
+                Files.write(temp, data);
+                try {
+                    Files.move(temp, path.resolve(key + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to store cache entry " + key + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    boolean contains(String key) {
+        return mapped.containsKey(key) || Files.isRegularFile(path.resolve(key + SUFFIX));
+    }
+
+    /**
+     * Remove all entries.
+     * @throws UncheckedIOException if the directory cannot be read
+     */
+    void clear() {
+        mapped.clear();
+        if (!Files.isDirectory(path)) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(path, "*" + SUFFIX)) {
+            for (Path entry : entries) {
+                Files.deleteIfExists(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copy a buffer into a new direct buffer, for data that could not be stored.
+     */
+    static ByteBuffer direct(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        return buffer;
+    }
+
+    /**
+     * Compute the hex SHA-256 over key parts. Parts are separated so that
+     * ("ab", "c") and ("a", "bc") differ; null parts differ from empty ones.
+     */
+    static String key(String... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+        for (String part : parts) {
+            if (part == null) {
+                digest.update((byte) 1);
+            } else {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * Immutable details of a crash that ended a session.
+ *
+ * <p>All fields are copied from frida-core when the session detaches, so a
+ * crash holds no native resources and can be kept after the session is closed.</p>
+ */
+public final class Crash {
+    private final int pid;
+    private final String processName;
+    private final String summary;
+    private final String report;
+
+    /**
+     * Create a crash snapshot.
+     * @param pid Process ID of the crashed process
+     * @param processName Name of the crashed process
+     * @param summary One-line summary of the crash
+     * @param report Full crash report
+     */
+    Crash(int pid, String processName, String summary, String report) {
+        this.pid = pid;
+        this.processName = processName;
+        this.summary = summary;
+        this.report = report;
+    }
+
+    /**
+     * Get the process ID of the crashed process.
+     * @return Process ID
+     */
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Get the name of the crashed process.
+     * @return Process name
+     */
+    public String getProcessName() {
+        return processName;
+    }
+
+    /**
+     * Get a one-line summary of the crash.
+     * @return Crash summary
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    /**
+     * Get the full crash report.
+     * @return Crash report
+     */
+    public String getReport() {
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Crash{pid=%d, process='%s', summary='%s'}", pid, processName, summary);
+    }
+}
@@ -26,8 +26,12 @@ package nl.axelkoolhaas.frida_java;
 public class Device implements AutoCloseable {
 
     /** Native pointer to the FridaDevice object */
-    private final long nativePtr;
+    private volatile long nativePtr;
     private volatile boolean closed = false;
+    private final NativeCleaner.Ref cleanable;
+
+    /** Lazily created process name index used by {@link #attach(ProcessSelector)} */
+    private volatile ProcessIndex processIndex;
 
     /**
      * Device types supported by Frida
@@ -44,19 +48,32 @@ public class Device implements AutoCloseable {
      */
     Device(long nativePtr) {
         this.nativePtr = nativePtr;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        FridaScope.adopt(cleanable, () -> {
+            this.closed = true;
+            this.nativePtr = 0;
+        });
     }
 
     /**
      * Get the device ID.
      * @return Device identifier string
      */
-    public native String getId();
+    public String getId() {
+        return NativeBackend.get().getDeviceId(this);
+    }
+
+    native String getIdNative();
 
     /**
      * Get the device name.
      * @return Human-readable device name
      */
-    public native String getName();
+    public String getName() {
+        return NativeBackend.get().getDeviceName(this);
+    }
+
+    native String getNameNative();
 
     /**
      * Get the device type.
@@ -72,19 +89,141 @@ public class Device implements AutoCloseable {
 
     /**
      * Attach to a process on this device.
+     *
+     * <p>If this device already holds a session with the process, or another thread is
+     * attaching to it, no new session is created: the caller receives its own handle
+     * onto the shared session. See {@link SessionRegistry}.</p>
+     *
+     * @param pid Process ID to attach to
+     * @return Session object for the attached process
+     * @throws RuntimeException if attachment fails
+     */
+    public Session attach(int pid) {
+        return attach(pid, null);
+    }
+
+    /**
+     * Attach to a process on this device with session options, e.g. a persist timeout.
+     * A session attached with options is never shared through the session registry,
+     * so the options always apply to the returned session.
      * @param pid Process ID to attach to
+     * @param options Session options, or null for a shared session with the defaults, like {@link #attach(int)}
      * @return Session object for the attached process
      * @throws RuntimeException if attachment fails
      */
-    public native Session attach(int pid);
+    public Session attach(int pid, SessionOptions options) {
+        if (options != null) {
+            return attachTimed(pid, options.getNativePtr());
+        }
+        return getSessionRegistry().acquire(pid, this, target -> attachTimed(target, 0));
+    }
+
+    /**
+     * Get the registry of sessions this device holds.
+     * @return Session registry shared by all device objects with this device's ID
+     */
+    public SessionRegistry getSessionRegistry() {
+        return SessionRegistry.of(this);
+    }
+
+    /**
+     * Create a new frida-core session with a process, bypassing the session registry.
+     */
+    private native Session attachNative(int pid, long optionsPtr);
+
+    private Session attachTimed(int pid, long optionsPtr) {
+        FridaEvents.Attach event = new FridaEvents.Attach();
+        NativeCall call = NativeCall.begin("Device.attach", event, FridaMetrics.ATTACH,
+            Tracing.ENABLED ? getId() : null, pid, null);
+        Session session;
+        try {
+            session = attachNative(pid, optionsPtr);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        if (call.succeeded()) {
+            event.pid = pid;
+            event.commit();
+        }
+        session.setDevice(this);
+        return session;
+    }
 
     /**
      * Attach to a process on this device by name.
+     * The name must match exactly; use {@link #attach(ProcessSelector)} for other match modes.
      * @param processName Name of the process to attach to
      * @return Session object for the attached process
-     * @throws RuntimeException if attachment fails
+     * @throws RuntimeException if no such process exists or attachment fails
+     */
+    public Session attachByName(String processName) {
+        return attach(ProcessSelector.exact(processName));
+    }
+
+    /**
+     * Attach to the first process selected by a selector.
+     *
+     * <p>Exact names are resolved by frida-core itself. All other modes are resolved
+     * through this device's {@link #getProcessIndex() process index}, so repeated
+     * attaches do not enumerate the process table each time. If there are several
+     * matches the process with the lowest pid is tried first.</p>
+     *
+     * @param selector Process selector
+     * @return Session object for the attached process
+     * @throws RuntimeException if no matching process exists or attachment fails
+     */
+    public Session attach(ProcessSelector selector) {
+        if (selector.getMode() == ProcessSelector.Mode.EXACT) {
+            int pid;
+            try (Process process = getProcessByNameSync(selector.getPattern(), null, null)) {
+                pid = process.getPid();
+            }
+            return attach(pid);
+        }
+        ProcessIndex index = getProcessIndex();
+        int[] pids = index.lookup(selector);
+        RuntimeException failure = null;
+        for (int pid : pids) {
+            try {
+                return attach(pid);
+            } catch (RuntimeException e) {
+                // Most likely the process exited after the index was refreshed
+                index.remove(pid);
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        throw new RuntimeException("Process not found: " + selector.getPattern());
+    }
+
+    /**
+     * Get the process name index of this device.
+     * The index is created on first use and shared by all callers of this device object.
+     * @return Process index
+     */
+    public ProcessIndex getProcessIndex() {
+        ProcessIndex index = processIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = processIndex;
+                if (index == null) {
+                    index = new ProcessIndex(this);
+                    processIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Copy pid, name and optionally parent pid of every process in a single native call.
+     * @param withParents true to enumerate with metadata scope so parent pids are available
+     * @return Process snapshot
+     * @throws RuntimeException if enumeration fails
      */
-    public native Session attachByName(String processName);
+    native ProcessSnapshot snapshotProcesses(boolean withParents);
 
     /**
      * Spawn a new process on this device.
@@ -92,7 +231,17 @@ public class Device implements AutoCloseable {
      * @return Process ID of the spawned process
      * @throws RuntimeException if spawning fails
      */
-    public native int spawn(String program);
+    public int spawn(String program) {
+        FridaEvents.Spawn event = new FridaEvents.Spawn();
+        NativeCall call = beginSpawn(event, program);
+        int pid;
+        try {
+            pid = spawnNative(program);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        return spawned(call, event, program, pid);
+    }
 
     /**
      * Spawn a new process on this device with arguments.
@@ -101,21 +250,76 @@ public class Device implements AutoCloseable {
      * @return Process ID of the spawned process
      * @throws RuntimeException if spawning fails
      */
-    public native int spawn(String program, String[] args);
+    public int spawn(String program, String[] args) {
+        FridaEvents.Spawn event = new FridaEvents.Spawn();
+        NativeCall call = beginSpawn(event, program);
+        int pid;
+        try {
+            pid = spawnNative(program, args);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        return spawned(call, event, program, pid);
+    }
+
+    private NativeCall beginSpawn(FridaEvents.Spawn event, String program) {
+        return NativeCall.begin("Device.spawn", event, FridaMetrics.SPAWN, Tracing.ENABLED ? getId() : null, 0, program);
+    }
+
+    private static int spawned(NativeCall call, FridaEvents.Spawn event, String program, int pid) {
+        if (call.succeeded()) {
+            event.program = program;
+            event.pid = pid;
+            event.commit();
+        }
+        return pid;
+    }
+
+    private native int spawnNative(String program);
+
+    private native int spawnNative(String program, String[] args);
 
     /**
      * Resume a previously spawned process.
      * @param pid Process ID to resume
      * @throws RuntimeException if resume fails
      */
-    public native void resume(int pid);
+    public void resume(int pid) {
+        FridaEvents.Resume event = new FridaEvents.Resume();
+        NativeCall call = NativeCall.begin("Device.resume", event, null, Tracing.ENABLED ? getId() : null, pid, null);
+        try {
+            resumeNative(pid);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        if (call.succeeded()) {
+            event.pid = pid;
+            event.commit();
+        }
+    }
+
+    private native void resumeNative(int pid);
 
     /**
      * Kill a process on this device.
      * @param pid Process ID to kill
      * @throws RuntimeException if kill fails
      */
-    public native void kill(int pid);
+    public void kill(int pid) {
+        FridaEvents.Kill event = new FridaEvents.Kill();
+        NativeCall call = NativeCall.begin("Device.kill", event, null, Tracing.ENABLED ? getId() : null, pid, null);
+        try {
+            killNative(pid);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        if (call.succeeded()) {
+            event.pid = pid;
+            event.commit();
+        }
+    }
+
+    private native void killNative(int pid);
 
     /**
      * Query system parameters asynchronously.
@@ -132,6 +336,9 @@ public class Device implements AutoCloseable {
     public native java.util.Map<String, Object> querySystemParametersFinish(Object asyncResult);
     /**
      * Query system parameters synchronously.
+     * Nested values are converted by type: dictionaries to {@code Map}, byte arrays to
+     * {@code byte[]}, other arrays and tuples to {@code List}, integers to {@code Long},
+     * booleans to {@code Boolean}, doubles to {@code Double} and strings to {@code String}.
      * @param cancellable Optional cancellable object
      * @return Map of system parameters
      */
@@ -595,11 +802,6 @@ public class Device implements AutoCloseable {
         return nativePtr;
     }
 
-    /**
-     * Native method to release native resources.
-     */
-    private native void disposeNative(long nativePtr);
-
     /**
      * Close this device and release native resources.
      * This method is idempotent and safe to call multiple times.
@@ -608,8 +810,10 @@ public class Device implements AutoCloseable {
     @Override
     public void close() {
         if (!closed && nativePtr != 0) {
-            disposeNative(nativePtr);
             closed = true;
+            // Prevent use-after-free
+            nativePtr = 0;
+            cleanable.clean();
         }
     }
 
@@ -625,8 +829,40 @@ public class Device implements AutoCloseable {
      * @return ProcessList of running processes
      */
     public ProcessList enumerateProcesses() {
-        return enumerateProcessesSync(null);
+        NativeCall call = NativeCall.begin("Device.enumerateProcesses", null, null,
+            Tracing.ENABLED ? getId() : null, 0, null);
+        ProcessList processes;
+        try {
+            processes = enumerateProcessesSync(null);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        call.succeeded();
+        return processes;
     }
 
+    /**
+     * Enumerate processes on this device as immutable snapshots.
+     * Nothing needs to be closed afterwards.
+     * @return Process snapshots, including parent pids where the device reports them
+     */
+    public ProcessInfo[] enumerateProcessInfos() {
+        ProcessSnapshot snapshot = snapshotProcesses(true);
+        ProcessInfo[] infos = new ProcessInfo[snapshot.size()];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = new ProcessInfo(snapshot.pids[i], snapshot.names[i], snapshot.parentPid(i));
+        }
+        return infos;
+    }
 
+    /**
+     * Enumerate applications on this device as immutable snapshots.
+     * Nothing needs to be closed afterwards.
+     * @return Application snapshots
+     */
+    public ApplicationInfo[] enumerateApplicationInfos() {
+        try (ApplicationList applications = enumerateApplicationsSync(null, null)) {
+            return applications.toInfoArray();
+        }
+    }
 }
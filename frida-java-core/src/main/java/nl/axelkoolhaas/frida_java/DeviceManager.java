@@ -37,6 +37,7 @@ public class DeviceManager implements AutoCloseable {
      * Create a new DeviceManager instance.
      */
     public DeviceManager() {
+        NativeLibrary.load();
         this.nativePtr = createNative();
     }
 
@@ -57,7 +58,19 @@ public class DeviceManager implements AutoCloseable {
      * @return Array of available devices
      * @throws RuntimeException if enumeration fails
      */
-    public native Device[] enumerateDevices();
+    public Device[] enumerateDevices() {
+        NativeCall call = NativeCall.begin("DeviceManager.enumerateDevices", null, null, null, 0, null);
+        Device[] devices;
+        try {
+            devices = enumerateDevicesNative();
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        call.succeeded();
+        return devices;
+    }
+
+    private native Device[] enumerateDevicesNative();
 
     /**
      * Get the local device.
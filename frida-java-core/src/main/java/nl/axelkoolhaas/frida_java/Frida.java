@@ -19,103 +19,108 @@
 
 package nl.axelkoolhaas.frida_java;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main Frida class providing version information and core initialization.
  */
 public class Frida {
 
-    static {
-        loadNativeLibrary();
-    }
-
-    /**
-     * Load the native library from JAR resources or fall back to system library.
-     */
-    private static void loadNativeLibrary() {
-        String osName = System.getProperty("os.name").toLowerCase();
-        String arch = System.getProperty("os.arch").toLowerCase();
-        String libName = getLibraryName(osName, arch);
-
-        // Try to load the platform-specific library from JAR resources
-        String resourcePath = "/native/" + libName;
-        try (InputStream is = Frida.class.getResourceAsStream(resourcePath)) {
-            if (is != null) {
-                // Extract the platform-specific library to temporary file
-                String extension = libName.substring(libName.lastIndexOf('.'));
-                Path tempFile = Files.createTempFile("libfrida-java", extension);
-                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
-                tempFile.toFile().deleteOnExit();
-                
-                // Load the extracted library
-                System.load(tempFile.toAbsolutePath().toString());
-                return;
-            }
-        } catch (IOException e) {
-            // Fall through to system library loading
-            System.err.println("Warning: Failed to load native library from JAR (" + resourcePath + "): " + e.getMessage());
-        }
-        
-        // Fallback to system library loading
-        try {
-            System.loadLibrary("frida-java");
-        } catch (UnsatisfiedLinkError e) {
-            throw new UnsatisfiedLinkError("Failed to load native library 'frida-java' for " + osName + "/" + arch + ". " +
-                "Make sure the library is available in java.library.path or bundled in the JAR as " + resourcePath + ". " +
-                "Original error: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Get the platform and architecture-specific library name.
-     */
-    private static String getLibraryName(String osName, String arch) {
-        if (osName.contains("mac")) {
-            return "libfrida-java.dylib"; // Universal fat binary for macOS
-        }
-        if (osName.contains("linux")) {
-            if (arch.contains("amd64") || arch.contains("x86_64")) {
-                return "libfrida-java-x86_64.so";
-            } else if (arch.contains("aarch64") || arch.contains("arm64")) {
-                return "libfrida-java-arm64.so";
-            }
-            throw new UnsatisfiedLinkError("Unsupported Linux architecture: " + arch);
-        }
-        if (osName.contains("windows")) {
-            throw new UnsatisfiedLinkError("Windows is currently not supported.");
-//            return "frida-java.dll";
-        }
-        throw new UnsatisfiedLinkError("Unsupported operating system: " + osName);
-    }
+    private static CompletableFuture<Void> runtimeWarmup;
 
     /**
      * Get the Frida version as a string.
      * @return Version string (e.g., "17.5.1")
      */
-    public static native String getVersionString();
+    public static String getVersionString() {
+        NativeLibrary.load();
+        return getVersionStringNative();
+    }
 
     /**
      * Get the Frida version components.
      * @return Array containing [major, minor, micro, nano] version numbers
      */
-    public static native int[] getVersion();
+    public static int[] getVersion() {
+        NativeLibrary.load();
+        return getVersionNative();
+    }
 
     /**
      * Initialize Frida core.
      * Must be called before using any other Frida functionality.
+     * Loads the native library first if needed.
      */
-    public static native void init();
+    public static void init() {
+        NativeLibrary.load();
+        initNative();
+    }
 
     /**
      * Deinitialize Frida core.
      * Should be called when done using Frida.
      */
-    public static native void deinit();
+    public static void deinit() {
+        NativeLibrary.load();
+        deinitNative();
+    }
+
+    /**
+     * Warm up the Frida runtime on a background thread.
+     *
+     * <p>Loads the native library, initializes frida-core, then creates a
+     * {@link DeviceManager} and enumerates its devices so the backends are
+     * started. Call this early during application startup and wait on the
+     * returned future right before the first real use, so that the cold start
+     * overlaps with other startup work. The library load and frida-core
+     * initialization happen once; every call returns a new warmed-up device
+     * manager.</p>
+     *
+     * <p>Frida core stays initialized after warm-up, as if {@link #init()} had
+     * been called once more.</p>
+     *
+     * @return Future completing with a device manager whose backends are started;
+     *         the caller owns it and must close it
+     */
+    public static CompletableFuture<DeviceManager> prewarm() {
+        CompletableFuture<Void> runtime;
+        synchronized (Frida.class) {
+            if (runtimeWarmup == null || runtimeWarmup.isCompletedExceptionally()) {
+                runtimeWarmup = CompletableFuture.runAsync(Frida::init, Frida::startPrewarmThread);
+            }
+            runtime = runtimeWarmup;
+        }
+        return runtime.thenApplyAsync(ignored -> {
+            DeviceManager manager = new DeviceManager();
+            try {
+                // Adopts the device list and devices of the warm-up enumeration and releases them in one batch
+                FridaScope scope = FridaScope.open();
+                try {
+                    manager.enumerateDevices();
+                } finally {
+                    scope.close();
+                }
+            } catch (RuntimeException | Error e) {
+                manager.close();
+                throw e;
+            }
+            return manager;
+        }, Frida::startPrewarmThread);
+    }
+
+    private static void startPrewarmThread(Runnable task) {
+        Thread thread = new Thread(task, "frida-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static native String getVersionStringNative();
+
+    private static native int[] getVersionNative();
+
+    private static native void initNative();
+
+    private static native void deinitNative();
 
     /**
      * Get the major version number.
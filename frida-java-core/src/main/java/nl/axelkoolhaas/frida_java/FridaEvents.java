@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events of Frida operations.
+ *
+ * <p>Every event measures one call into frida-core, so a recording shows
+ * instrumentation stalls next to GC and safepoint activity. Events are only
+ * committed while they are enabled in the running recording and last longer
+ * than their threshold, e.g. {@code jfr configure} or a {@code .jfc} setting
+ * {@code nl.axelkoolhaas.frida_java.ScriptPost#threshold=1 ms}. The message
+ * events fire at message rate and default to a 1 ms threshold; the other
+ * events record every call.</p>
+ *
+ * <p>Callers create an event, {@code begin()} it, run the operation and fill in
+ * the fields only if {@code shouldCommit()} holds, so nothing beyond the event
+ * object itself is computed while recording is off.</p>
+ */
+final class FridaEvents {
+
+    private FridaEvents() {}
+
+    @Name("nl.axelkoolhaas.frida_java.Attach")
+    @Label("Attach")
+    @Category({"Frida", "Device"})
+    @Description("Attaching to a process")
+    static final class Attach extends Event {
+        @Label("Process ID")
+        int pid;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.Spawn")
+    @Label("Spawn")
+    @Category({"Frida", "Device"})
+    @Description("Spawning a process")
+    static final class Spawn extends Event {
+        @Label("Program")
+        String program;
+
+        @Label("Process ID")
+        int pid;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.Resume")
+    @Label("Resume")
+    @Category({"Frida", "Device"})
+    @Description("Resuming a spawned process")
+    static final class Resume extends Event {
+        @Label("Process ID")
+        int pid;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.Kill")
+    @Label("Kill")
+    @Category({"Frida", "Device"})
+    @Description("Killing a process")
+    static final class Kill extends Event {
+        @Label("Process ID")
+        int pid;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.Detach")
+    @Label("Detach")
+    @Category({"Frida", "Session"})
+    @Description("Detaching a session or releasing a shared session handle")
+    static final class Detach extends Event {
+        @Label("Process ID")
+        int pid;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.CreateScript")
+    @Label("Create Script")
+    @Category({"Frida", "Session"})
+    @Description("Creating a script from source")
+    static final class CreateScript extends Event {
+        @Label("Process ID")
+        int pid;
+
+        @Label("Script Name")
+        String scriptName;
+
+        @Label("Source Size")
+        @DataAmount
+        long sourceSize;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.ScriptLoad")
+    @Label("Script Load")
+    @Category({"Frida", "Script"})
+    @Description("Loading a script into its process")
+    static final class ScriptLoad extends Event {
+        @Label("Process ID")
+        int pid;
+
+        @Label("Script Name")
+        String scriptName;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.ScriptPost")
+    @Label("Script Post")
+    @Category({"Frida", "Script"})
+    @Description("Posting a message to a script")
+    @Threshold("1 ms")
+    static final class ScriptPost extends Event {
+        @Label("Process ID")
+        int pid;
+
+        @Label("Script Name")
+        String scriptName;
+
+        @Label("Message Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("nl.axelkoolhaas.frida_java.ScriptMessage")
+    @Label("Script Message")
+    @Category({"Frida", "Script"})
+    @Description("Delivering a message of a script to its handler")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class ScriptMessage extends Event {
+        @Label("Process ID")
+        int pid;
+
+        @Label("Script Name")
+        String scriptName;
+
+        @Label("Message Size")
+        @DataAmount
+        long bytes;
+    }
+}
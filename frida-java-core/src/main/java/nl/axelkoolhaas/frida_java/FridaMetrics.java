@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide metrics of the bindings, published through JMX.
+ *
+ * <p>Covers the durations of attach, spawn and script load, message counts and
+ * sizes in both directions, the depth of the message queues of scripts without
+ * a handler, handler latency, live handle counts and errors of native calls.
+ * Counters are striped {@link LongAdder}s and durations go into a
+ * {@link Histogram}, so recording on the message path neither locks nor
+ * allocates.</p>
+ *
+ * <p>The totals are registered as {@code nl.axelkoolhaas.frida_java:type=Frida}
+ * and every loaded script as {@code nl.axelkoolhaas.frida_java:type=Script,pid=<pid>,id=<id>}.
+ * Scripts are registered on their first successful load, so scripts created
+ * ahead of time, e.g. by a {@link ScriptPool}, cost no MBean until used.
+ * Run with {@code -D}{@value #ENABLED_PROPERTY}{@code =false} to record nothing
+ * and register no MBeans.</p>
+ */
+public final class FridaMetrics implements FridaMetricsMXBean {
+
+    /** System property disabling metrics when set to false */
+    public static final String ENABLED_PROPERTY = "frida.java.metrics";
+
+    /** JMX domain of the MBeans */
+    public static final String DOMAIN = "nl.axelkoolhaas.frida_java";
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    static final Histogram ATTACH = new Histogram();
+    static final Histogram SPAWN = new Histogram();
+    static final Histogram LOAD = new Histogram();
+    static final Histogram HANDLER_LATENCY = new Histogram();
+    static final LongAdder MESSAGES_IN = new LongAdder();
+    static final LongAdder BYTES_IN = new LongAdder();
+    static final LongAdder MESSAGES_OUT = new LongAdder();
+    static final LongAdder BYTES_OUT = new LongAdder();
+    static final LongAdder QUEUE_DEPTH = new LongAdder();
+    static final LongAdder JNI_ERRORS = new LongAdder();
+
+    private static final FridaMetrics INSTANCE = new FridaMetrics();
+    private static volatile boolean registered = false;
+
+    private FridaMetrics() {}
+
+    /**
+     * Get the process-wide metrics, registering them with the platform MBean
+     * server on first use.
+     * @return Metrics
+     */
+    public static FridaMetrics get() {
+        if (ENABLED && !registered) {
+            synchronized (FridaMetrics.class) {
+                if (!registered) {
+                    registered = true;
+                    register(INSTANCE, DOMAIN + ":type=Frida");
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether metrics are recorded.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Count an exception raised by a native call.
+     */
+    static void nativeError() {
+        JNI_ERRORS.increment();
+    }
+
+    /**
+     * Create the metrics of a new script, if enabled.
+     * @param pid Process ID of the session, or 0 if unknown
+     * @return Metrics, or null if disabled
+     */
+    static ScriptMetrics newScript(int pid) {
+        if (!ENABLED) {
+            return null;
+        }
+        get();
+        return new ScriptMetrics(pid);
+    }
+
+    /**
+     * Register the metrics of a script once it is loaded. Later calls do nothing.
+     */
+    static void registerScript(ScriptMetrics metrics) {
+        if (metrics.markRegistered()) {
+            register(metrics, scriptName(metrics));
+        }
+    }
+
+    /**
+     * Unregister the metrics of a script that is closed or unreachable.
+     */
+    static void releaseScript(ScriptMetrics metrics) {
+        metrics.queueDepth(0);
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(scriptName(metrics)));
+        } catch (InstanceNotFoundException e) {
+            // Never registered or already gone
+        } catch (JMException | RuntimeException | LinkageError e) {
+            System.err.println("Warning: Failed to unregister script metrics: " + e.getMessage());
+        }
+    }
+
+    private static String scriptName(ScriptMetrics metrics) {
+        return DOMAIN + ":type=Script,pid=" + metrics.getPid() + ",id=" + metrics.getId();
+    }
+
+    private static void register(Object mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(mbean, new ObjectName(name));
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered by another copy of the library in this JVM
+        } catch (JMException | RuntimeException | LinkageError e) {
+            System.err.println("Warning: Failed to register metrics MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Histogram.Snapshot getAttachDurations() {
+        return ATTACH.snapshot();
+    }
+
+    @Override
+    public Histogram.Snapshot getSpawnDurations() {
+        return SPAWN.snapshot();
+    }
+
+    @Override
+    public Histogram.Snapshot getLoadDurations() {
+        return LOAD.snapshot();
+    }
+
+    @Override
+    public Histogram.Snapshot getHandlerLatency() {
+        return HANDLER_LATENCY.snapshot();
+    }
+
+    @Override
+    public long getMessagesIn() {
+        return MESSAGES_IN.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return BYTES_IN.sum();
+    }
+
+    @Override
+    public long getMessagesOut() {
+        return MESSAGES_OUT.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return BYTES_OUT.sum();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return QUEUE_DEPTH.sum();
+    }
+
+    @Override
+    public long getJniErrors() {
+        return JNI_ERRORS.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLiveHandles() {
+        Map<String, Long> live = new TreeMap<>();
+        if (HandleCensus.isEnabled()) {
+            HandleCensus.Snapshot snapshot = HandleCensus.snapshot();
+            for (String type : snapshot.getTypes()) {
+                live.put(type, snapshot.getLive(type));
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FridaMetrics{attach=%s, load=%s, in=%d, out=%d, queued=%d, errors=%d}",
+            ATTACH.snapshot(), LOAD.snapshot(), getMessagesIn(), getMessagesOut(), getQueueDepth(), getJniErrors());
+    }
+}
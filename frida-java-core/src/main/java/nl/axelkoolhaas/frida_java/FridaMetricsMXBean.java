@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Map;
+
+/**
+ * JMX view of the process-wide metrics, registered as
+ * {@code nl.axelkoolhaas.frida_java:type=Frida}.
+ */
+public interface FridaMetricsMXBean {
+
+    /** Durations of attaching to processes, including failed attempts */
+    Histogram.Snapshot getAttachDurations();
+
+    /** Durations of spawning processes, including failed attempts */
+    Histogram.Snapshot getSpawnDurations();
+
+    /** Durations of loading scripts, including failed attempts */
+    Histogram.Snapshot getLoadDurations();
+
+    /** Time spent in script message handlers */
+    Histogram.Snapshot getHandlerLatency();
+
+    /** Messages received from all scripts */
+    long getMessagesIn();
+
+    /** Size of the messages received from all scripts: JSON characters plus data bytes */
+    long getBytesIn();
+
+    /** Messages posted to all scripts */
+    long getMessagesOut();
+
+    /** Size of the messages posted to all scripts: JSON characters plus data bytes */
+    long getBytesOut();
+
+    /** Messages queued by all scripts without a handler */
+    long getQueueDepth();
+
+    /** Exceptions raised by instrumented native calls */
+    long getJniErrors();
+
+    /** Live native handles by type; empty unless the {@link HandleCensus} is enabled */
+    Map<String, Long> getLiveHandles();
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Arrays;
+
+/**
+ * Arena that closes all wrappers created within it in one shot.
+ *
+ * <p>While a scope is open on a thread, every {@link Device}, {@link Process},
+ * {@link ProcessList}, {@link Application} and {@link ApplicationList} created
+ * on that thread, for example by {@link ProcessList#toArray()}, is adopted by
+ * the scope. Closing the scope closes all of them and drops their native
+ * references with a single native call, instead of one call per wrapper.
+ * Wrappers may still be closed individually before that.</p>
+ *
+ * <p>Sessions and scripts are never adopted, since closing them detaches or
+ * unloads them. Scopes nest: closing an inner scope makes the outer one
+ * current again. A scope must be closed on the thread that opened it.</p>
+ *
+ * <pre>{@code
+ * try (FridaScope scope = FridaScope.open();
+ *      ProcessList processes = device.enumerateProcesses()) {
+ *     for (Process process : processes.toArray()) {
+ *         ...
+ *     }
+ * } // every process is released here
+ * }</pre>
+ */
+public final class FridaScope implements AutoCloseable {
+
+    private static final ThreadLocal<FridaScope> CURRENT = new ThreadLocal<>();
+
+    private final FridaScope parent;
+    private final Thread owner;
+    private NativeCleaner.Ref[] refs = new NativeCleaner.Ref[16];
+    private Runnable[] releasers = new Runnable[16];
+    private int count;
+    private boolean closed = false;
+
+    private FridaScope(FridaScope parent) {
+        this.parent = parent;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Open a scope and make it the current scope of the calling thread.
+     * @return New scope
+     */
+    public static FridaScope open() {
+        FridaScope scope = new FridaScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Get the current scope of the calling thread.
+     * @return Innermost open scope, or null if none is open
+     */
+    public static FridaScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Hand a wrapper's reference to the current scope of the calling thread, if any.
+     * @param ref Native reference of the wrapper
+     * @param releaser Marks the wrapper closed without releasing its reference
+     */
+    static void adopt(NativeCleaner.Ref ref, Runnable releaser) {
+        FridaScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.add(ref, releaser);
+        }
+    }
+
+    private synchronized void add(NativeCleaner.Ref ref, Runnable releaser) {
+        if (closed) {
+            return;
+        }
+        if (count == refs.length) {
+            refs = Arrays.copyOf(refs, count * 2);
+            releasers = Arrays.copyOf(releasers, count * 2);
+        }
+        refs[count] = ref;
+        releasers[count] = releaser;
+        count++;
+    }
+
+    /**
+     * Get the number of wrappers adopted by this scope.
+     * @return Number of wrappers, including those already closed individually
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Close every adopted wrapper and release their native references in one batch.
+     * This method is idempotent and safe to call multiple times.
+     * @throws IllegalStateException if called on a different thread than the one that opened the scope
+     */
+    @Override
+    public void close() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("FridaScope must be closed on the thread that opened it");
+        }
+        long[] nativePtrs;
+        int pending = 0;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            nativePtrs = new long[count];
+            for (int i = 0; i < count; i++) {
+                releasers[i].run();
+                long nativePtr = refs[i].take();
+                if (nativePtr != 0) {
+                    nativePtrs[pending++] = nativePtr;
+                }
+            }
+            refs = null;
+            releasers = null;
+        }
+        if (CURRENT.get() == this) {
+            // Skip outer scopes that were closed out of order
+            FridaScope next = parent;
+            while (next != null && next.isClosed()) {
+                next = next.parent;
+            }
+            if (next != null) {
+                CURRENT.set(next);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        if (pending > 0) {
+            NativeCleaner.unrefAll(nativePtrs, pending);
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("FridaScope{wrappers=%d, closed=%s}", count, closed);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * Service interface for tracing the native operations of the bindings.
+ *
+ * <p>Implementations are discovered once with {@link java.util.ServiceLoader},
+ * so registering one in {@code META-INF/services/nl.axelkoolhaas.frida_java.FridaTracer}
+ * is enough to receive a begin and an end callback around every traced call
+ * into frida-core: {@code DeviceManager.enumerateDevices}, {@code Device.attach},
+ * {@code Device.spawn}, {@code Device.resume}, {@code Device.kill},
+ * {@code Device.enumerateProcesses}, {@code Session.detach},
+ * {@code Session.resume}, {@code Session.createScript}, {@code Script.load}, {@code Script.unload}
+ * and {@code Script.post}. Several tracers are called in discovery order.
+ * Without a tracer the call sites reduce to a check of a static final flag.</p>
+ *
+ * <p>Callbacks run on the calling thread, must be thread-safe and should
+ * return quickly. Exceptions thrown by a tracer are reported and ignored.</p>
+ */
+public interface FridaTracer {
+
+    /**
+     * Called before a native operation starts.
+     * @param operation Operation name, e.g. {@code Device.attach}
+     * @param deviceId ID of the device, or null if not known at the call site
+     * @param pid Target process ID, or 0 if the operation has none
+     * @param name Script name for script operations, program for spawn, otherwise null
+     * @return Span handed back to {@link #end(Object, String, Throwable)}, may be null
+     */
+    Object begin(String operation, String deviceId, int pid, String name);
+
+    /**
+     * Called after a native operation completed or failed.
+     * @param span Value returned by the matching {@link #begin(String, String, int, String)}
+     * @param operation Operation name
+     * @param error Exception the operation failed with, or null on success
+     */
+    void end(Object span, String operation, Throwable error);
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnostic census of live native handles, with sampled leak detection.
+ *
+ * <p>The census is off unless the JVM is started with {@value #ENABLED_PROPERTY}
+ * set to {@code true}. When enabled, every native reference owned by a wrapper
+ * such as {@link Device}, {@link Session}, {@link Script}, {@link Process} or
+ * {@link ProcessList} is counted per type, named after the native type
+ * ({@code FridaDevice}, {@code FridaSession}, ...). One in every N handles
+ * records the stack trace of its allocation, where N is set with
+ * {@value #SAMPLE_PROPERTY} and defaults to {@value #DEFAULT_SAMPLE_RATE}. A wrapper that is garbage
+ * collected without being closed is counted as leaked and reported on
+ * System.err, with its allocation stack if it was sampled.</p>
+ *
+ * <p>Bookkeeping uses striped counters and an allocation counter for sampling,
+ * so the overhead is low enough to leave enabled in canary deployments. When
+ * disabled, the census costs a single static final check per handle.</p>
+ */
+public final class HandleCensus {
+
+    /** System property that enables the census */
+    public static final String ENABLED_PROPERTY = "frida.java.census";
+
+    /** System property with the sampling interval of allocation stacks; 0 disables stacks */
+    public static final String SAMPLE_PROPERTY = "frida.java.census.sample";
+
+    /** Default sampling interval of allocation stacks */
+    public static final int DEFAULT_SAMPLE_RATE = 64;
+
+    /** Maximum number of leak reports retained for {@link #snapshot()} */
+    static final int MAX_LEAK_REPORTS = 256;
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final int SAMPLE_RATE = Math.max(0, Integer.getInteger(SAMPLE_PROPERTY, DEFAULT_SAMPLE_RATE));
+
+    private static final ConcurrentHashMap<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+    private static final AtomicLong ALLOCATIONS = new AtomicLong();
+    private static final ArrayDeque<LeakReport> LEAKS = new ArrayDeque<>();
+
+    private HandleCensus() {}
+
+    /**
+     * Check whether the census is enabled.
+     * @return true if {@value #ENABLED_PROPERTY} was set at startup
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Take a snapshot of the census.
+     * @return Current counts and retained leak reports, empty if the census is disabled
+     */
+    public static Snapshot snapshot() {
+        Map<String, long[]> counts = new TreeMap<>();
+        COUNTERS.forEach((type, counters) -> counts.put(type, new long[] {
+            counters.live.sum(), counters.created.sum(), counters.leaked.sum()
+        }));
+        List<LeakReport> leaks;
+        synchronized (LEAKS) {
+            leaks = new ArrayList<>(LEAKS);
+        }
+        return new Snapshot(counts, leaks);
+    }
+
+    /**
+     * Start tracking a native handle owned by a wrapper.
+     * @param owner Wrapper owning the handle
+     * @return Tracking state, to be released exactly once
+     */
+    static Handle track(Object owner) {
+        String type = "Frida" + owner.getClass().getSimpleName();
+        Counters counters = COUNTERS.computeIfAbsent(type, key -> new Counters());
+        counters.created.increment();
+        counters.live.increment();
+        Throwable site = null;
+        if (SAMPLE_RATE > 0 && ALLOCATIONS.getAndIncrement() % SAMPLE_RATE == 0) {
+            site = new Throwable(type + " allocated here");
+        }
+        return new Handle(type, counters, site);
+    }
+
+    /**
+     * Tracking state of one native handle
+     */
+    static final class Handle {
+        private final String type;
+        private final Counters counters;
+        private final Throwable allocationSite;
+        private volatile boolean closed = false;
+
+        private Handle(String type, Counters counters, Throwable allocationSite) {
+            this.type = type;
+            this.counters = counters;
+            this.allocationSite = allocationSite;
+        }
+
+        /**
+         * Mark the handle as released through an explicit close.
+         */
+        void closed() {
+            closed = true;
+        }
+
+        /**
+         * Called when the handle is released, explicitly or by the cleaner.
+         */
+        void released() {
+            counters.live.decrement();
+            if (closed) {
+                return;
+            }
+            counters.leaked.increment();
+            LeakReport report = new LeakReport(type, allocationSite);
+            synchronized (LEAKS) {
+                if (LEAKS.size() >= MAX_LEAK_REPORTS) {
+                    LEAKS.poll();
+                }
+                LEAKS.add(report);
+            }
+            if (allocationSite != null) {
+                System.err.println("Warning: " + type + " was garbage collected without close()");
+                allocationSite.printStackTrace();
+            }
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder live = new LongAdder();
+        final LongAdder created = new LongAdder();
+        final LongAdder leaked = new LongAdder();
+    }
+
+    /**
+     * A wrapper that was garbage collected without being closed
+     */
+    public static final class LeakReport {
+        private final String type;
+        private final Throwable allocationSite;
+
+        LeakReport(String type, Throwable allocationSite) {
+            this.type = type;
+            this.allocationSite = allocationSite;
+        }
+
+        /**
+         * Get the native type of the leaked handle.
+         * @return Type name, e.g. {@code FridaSession}
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Get the allocation site of the leaked handle.
+         * @return Throwable whose stack trace is the allocation site, or null if the handle was not sampled
+         */
+        public Throwable getAllocationSite() {
+            return allocationSite;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LeakReport{type=%s, sampled=%s}", type, allocationSite != null);
+        }
+    }
+
+    /**
+     * Point-in-time view of the census
+     */
+    public static final class Snapshot {
+        private final Map<String, long[]> counts;
+        private final List<LeakReport> leaks;
+
+        Snapshot(Map<String, long[]> counts, List<LeakReport> leaks) {
+            this.counts = counts;
+            this.leaks = Collections.unmodifiableList(leaks);
+        }
+
+        /**
+         * Get the native types seen so far.
+         * @return Type names in alphabetical order
+         */
+        public List<String> getTypes() {
+            return new ArrayList<>(counts.keySet());
+        }
+
+        /**
+         * Get the number of live handles of a type.
+         * @param type Type name, e.g. {@code FridaProcess}
+         * @return Handles created and not yet released
+         */
+        public long getLive(String type) {
+            long[] values = counts.get(type);
+            return values != null ? values[0] : 0;
+        }
+
+        /**
+         * Get the number of handles of a type created since startup.
+         * @param type Type name
+         * @return Handles created
+         */
+        public long getCreated(String type) {
+            long[] values = counts.get(type);
+            return values != null ? values[1] : 0;
+        }
+
+        /**
+         * Get the number of handles of a type released by garbage collection instead of close().
+         * @param type Type name
+         * @return Handles leaked
+         */
+        public long getLeaked(String type) {
+            long[] values = counts.get(type);
+            return values != null ? values[2] : 0;
+        }
+
+        /**
+         * Get the total number of live handles over all types.
+         * @return Live handles
+         */
+        public long getTotalLive() {
+            long total = 0;
+            for (long[] values : counts.values()) {
+                total += values[0];
+            }
+            return total;
+        }
+
+        /**
+         * Get the most recent leak reports, oldest first.
+         * @return Up to {@value HandleCensus#MAX_LEAK_REPORTS} leak reports
+         */
+        public List<LeakReport> getLeakReports() {
+            return leaks;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("HandleCensus{");
+            boolean first = true;
+            for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(entry.getKey()).append("=live:").append(entry.getValue()[0])
+                    .append("/leaked:").append(entry.getValue()[2]);
+            }
+            return builder.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ *
+ * <p>Values are counted in power-of-two buckets, each a striped {@link LongAdder},
+ * so {@link #record(long)} neither locks nor allocates. Percentiles are
+ * therefore approximate: they report the upper bound of the bucket the
+ * percentile falls in, which is at most twice the true value.</p>
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a duration.
+     * @param nanos Duration in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        // Bucket i holds values below 2^i
+        buckets[Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1)].increment();
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} timestamp.
+     * @param startNanos Start timestamp
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Take a point-in-time copy of this histogram.
+     * Concurrent recording may make the copy slightly inconsistent.
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        return new Snapshot(total, total > 0 ? sum.sum() / 1000.0 / total : 0, max.get() / 1000.0,
+            percentile(counts, total, 0.50), percentile(counts, total, 0.90), percentile(counts, total, 0.99));
+    }
+
+    private static double percentile(long[] counts, long total, double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (i == 0 ? 0 : (double) (1L << Math.min(i, 62))) / 1000.0;
+            }
+        }
+        return Long.MAX_VALUE / 1000.0;
+    }
+
+    /**
+     * Read-only copy of a histogram. Durations are in microseconds.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final double meanMicros;
+        private final double maxMicros;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+
+        Snapshot(long count, double meanMicros, double maxMicros, double p50Micros, double p90Micros, double p99Micros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.maxMicros = maxMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP90Micros() {
+            return p90Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Histogram{count=%d, mean=%.1fus, p50=%.1fus, p99=%.1fus, max=%.1fus}",
+                count, meanMicros, p50Micros, p99Micros, maxMicros);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code int} keys to objects.
+ * Avoids boxing of pids on hot lookup paths. Not thread-safe; callers synchronize.
+ * Null values are not supported, a null slot marks an empty bucket.
+ *
+ * @param <V> Value type
+ */
+final class IntHashMap<V> {
+
+    /**
+     * Visitor for {@link #forEach(Visitor)}
+     * @param <V> Value type
+     */
+    interface Visitor<V> {
+        void visit(int key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    IntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntHashMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean containsKey(int key) {
+        return values[indexOf(key)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        return (V) values[indexOf(key)];
+    }
+
+    /**
+     * Associate a value with a key.
+     * @return The previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int index = indexOf(key);
+        Object previous = values[index];
+        if (previous == null) {
+            keys[index] = key;
+            values[index] = value;
+            if (++size > (mask + 1) * 3 / 4) {
+                resize();
+            }
+        } else {
+            values[index] = value;
+        }
+        return (V) previous;
+    }
+
+    /**
+     * Remove a key from the map.
+     * @return The removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int index = indexOf(key);
+        Object previous = values[index];
+        if (previous == null) {
+            return null;
+        }
+        values[index] = null;
+        size--;
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                values[next] = null;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return (V) previous;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Copy the keys of this map into a new array.
+     */
+    int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(Visitor<? super V> visitor) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null) {
+                visitor.visit(keys[i], (V) value);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int index = hash(key) & mask;
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
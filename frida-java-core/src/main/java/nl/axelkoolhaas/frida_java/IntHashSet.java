@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing hash set of primitive {@code int} values.
+ * Used to diff pid sets without boxing. Not thread-safe; callers synchronize.
+ */
+final class IntHashSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    IntHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntHashSet(int expectedSize) {
+        int capacity = IntHashMap.tableSizeFor(expectedSize);
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int key) {
+        return used[indexOf(key)];
+    }
+
+    /**
+     * Add a value to the set.
+     * @return true if the value was not already present
+     */
+    boolean add(int key) {
+        int index = indexOf(key);
+        if (used[index]) {
+            return false;
+        }
+        keys[index] = key;
+        used[index] = true;
+        if (++size > (mask + 1) * 3 / 4) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * Remove a value from the set.
+     * @return true if the value was present
+     */
+    boolean remove(int key) {
+        int index = indexOf(key);
+        if (!used[index]) {
+            return false;
+        }
+        used[index] = false;
+        size--;
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (used[next]) {
+            int home = IntHashMap.hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                used[gap] = true;
+                used[next] = false;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Copy the values of this set into a new array.
+     */
+    int[] toArray() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(int key) {
+        int index = IntHashMap.hash(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        int capacity = oldKeys.length << 1;
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                used[index] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * Backend that goes through the JNI layer.
+ */
+final class JniBackend implements NativeBackend {
+
+    @Override
+    public String getName() {
+        return "jni";
+    }
+
+    @Override
+    public String getDeviceId(Device device) {
+        return device.getIdNative();
+    }
+
+    @Override
+    public String getDeviceName(Device device) {
+        return device.getNameNative();
+    }
+
+    @Override
+    public int getProcessPid(Process process) {
+        return process.getPidNative();
+    }
+
+    @Override
+    public String getProcessName(Process process) {
+        return process.getNameNative();
+    }
+
+    @Override
+    public long connectMessages(Script script) {
+        return script.connectMessagesNative();
+    }
+
+    @Override
+    public void disconnectMessages(Script script, long signalId) {
+        script.disconnectMessagesNative(signalId);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * Native call paths that have more than one implementation.
+ *
+ * <p>The default backend goes through the JNI layer in {@code src/main/native}.
+ * On Java 22 and later, {@code -D}{@value #BACKEND_PROPERTY}{@code =ffm} selects a
+ * backend that calls frida-core directly through {@code java.lang.foreign}
+ * downcalls and an upcall stub for script messages. It ships in the
+ * {@code META-INF/versions/22} part of the multi-release jar; on older
+ * runtimes, or if it cannot be initialized, the JNI backend is used.</p>
+ *
+ * <p>Only the hot paths are routed through the backend: device and process
+ * getters and script message delivery. Everything else always uses JNI.</p>
+ */
+interface NativeBackend {
+
+    /** System property selecting the backend: {@code jni} (default) or {@code ffm} */
+    String BACKEND_PROPERTY = "frida.java.backend";
+
+    /**
+     * Get the backend selected for this JVM.
+     */
+    static NativeBackend get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Get the name of this backend.
+     * @return {@code jni} or {@code ffm}
+     */
+    String getName();
+
+    String getDeviceId(Device device);
+
+    String getDeviceName(Device device);
+
+    int getProcessPid(Process process);
+
+    String getProcessName(Process process);
+
+    /**
+     * Route the message signal of a script to {@link Script#dispatchMessage(String, byte[], long)}.
+     * @return Signal handler ID
+     */
+    long connectMessages(Script script);
+
+    void disconnectMessages(Script script, long signalId);
+
+    final class Holder {
+        static final NativeBackend INSTANCE = select(System.getProperty(BACKEND_PROPERTY, "jni"));
+
+        private Holder() {}
+
+        private static NativeBackend select(String name) {
+            if (name.equalsIgnoreCase("ffm")) {
+                try {
+                    return (NativeBackend) Class.forName("nl.axelkoolhaas.frida_java.FfmBackend")
+                        .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                    System.err.println("Warning: FFM backend unavailable (requires Java 22+), using JNI: " + e);
+                }
+            } else if (!name.equalsIgnoreCase("jni")) {
+                System.err.println("Warning: Unknown " + BACKEND_PROPERTY + " '" + name + "', using JNI");
+            }
+            return new JniBackend();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import jdk.jfr.Event;
+
+/**
+ * Instruments one call into frida-core: the tracer span, the Flight Recorder
+ * event, the latency histogram and the native error count.
+ *
+ * <p>Call sites pass the target identifiers as {@code Tracing.ENABLED ? id : null},
+ * so they are only computed while a tracer is installed:</p>
+ * <pre>{@code
+ * NativeCall call = NativeCall.begin("Device.kill", event, null, Tracing.ENABLED ? getId() : null, pid, null);
+ * try {
+ *     killNative(pid);
+ * } catch (RuntimeException e) {
+ *     throw call.failed(e);
+ * }
+ * if (call.succeeded()) {
+ *     event.pid = pid;
+ *     event.commit();
+ * }
+ * }</pre>
+ */
+final class NativeCall {
+
+    private final String operation;
+    private final Object span;
+    private final Event event;
+    private final Histogram latency;
+    private final long start;
+
+    private NativeCall(String operation, Object span, Event event, Histogram latency, long start) {
+        this.operation = operation;
+        this.span = span;
+        this.event = event;
+        this.latency = latency;
+        this.start = start;
+    }
+
+    /**
+     * Start instrumenting a call.
+     * @param operation Operation name reported to tracers, e.g. "Device.attach"
+     * @param event Flight Recorder event timing the call, or null
+     * @param latency Histogram receiving the duration, or null
+     * @param deviceId Device ID for tracers, or null
+     * @param pid Process ID for tracers, or 0
+     * @param name Script name or program for tracers, or null
+     * @return Call to finish with {@link #failed(RuntimeException)} or {@link #succeeded()}
+     */
+    static NativeCall begin(String operation, Event event, Histogram latency,
+                            String deviceId, int pid, String name) {
+        Object span = Tracing.ENABLED ? Tracing.begin(operation, deviceId, pid, name) : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = latency != null && FridaMetrics.ENABLED ? System.nanoTime() : 0;
+        return new NativeCall(operation, span, event, latency, start);
+    }
+
+    /**
+     * Record a failed call.
+     * @param error Exception thrown by the call
+     * @return The same exception, for the caller to rethrow
+     */
+    RuntimeException failed(RuntimeException error) {
+        FridaMetrics.nativeError();
+        if (Tracing.ENABLED) {
+            Tracing.end(span, operation, error);
+        }
+        return error;
+    }
+
+    /**
+     * Record a successful call and end its event.
+     * @return true if the event should be committed; the caller fills in its fields first
+     */
+    boolean succeeded() {
+        if (Tracing.ENABLED) {
+            Tracing.end(span, operation, null);
+        }
+        if (latency != null && FridaMetrics.ENABLED) {
+            latency.recordSince(start);
+        }
+        if (event == null) {
+            return false;
+        }
+        event.end();
+        return event.shouldCommit();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Releases the native objects of wrappers that become unreachable without being closed.
+ *
+ * <p>Every wrapper that owns a GObject reference registers it here. Closing the
+ * wrapper releases the reference right away; otherwise it is released once the
+ * wrapper has been garbage collected. References are dropped with
+ * {@code frida_unref}, which performs the unref on the Frida main context, so
+ * the cleaner thread never touches Frida objects directly.</p>
+ *
+ * <p>When the {@link HandleCensus} is enabled, registered references are
+ * counted and references released by the cleaner are reported as leaks.
+ * A {@link FridaScope} takes over the references of the wrappers created in it
+ * and releases them together with {@link #unrefAll(long[], int)}.</p>
+ */
+final class NativeCleaner {
+
+    private static final Cleaner CLEANER = Cleaner.create(runnable -> {
+        Thread thread = new Thread(runnable, "frida-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private NativeCleaner() {}
+
+    /**
+     * Register the native object owned by a wrapper.
+     * @param owner Wrapper owning the reference
+     * @param nativePtr Native pointer to the GObject, may be 0
+     * @return Reference that is released at most once
+     */
+    static Ref register(Object owner, long nativePtr) {
+        HandleCensus.Handle census = HandleCensus.ENABLED && nativePtr != 0 ? HandleCensus.track(owner) : null;
+        return new Ref(owner, new State(nativePtr, null, census));
+    }
+
+    /**
+     * Register an arbitrary release action for a wrapper.
+     * The action must not reference the owner, or the owner never becomes unreachable.
+     * @param owner Wrapper owning the resource
+     * @param action Action releasing the resource
+     * @return Reference that runs the action at most once
+     */
+    static Ref register(Object owner, Runnable action) {
+        return new Ref(owner, new State(0, action, null));
+    }
+
+    /**
+     * Drop one reference to a native object on the Frida main context.
+     * @param nativePtr Native pointer, ignored if 0
+     */
+    static native void unref(long nativePtr);
+
+    /**
+     * Drop one reference to each of a batch of native objects with a single
+     * native call and a single dispatch to the Frida main context.
+     * @param nativePtrs Native pointers, entries that are 0 are ignored
+     * @param count Number of leading entries to release
+     */
+    static native void unrefAll(long[] nativePtrs, int count);
+
+    /**
+     * A registered native reference
+     */
+    static final class Ref {
+        private final State state;
+        private final Cleaner.Cleanable cleanable;
+
+        private Ref(Object owner, State state) {
+            this.state = state;
+            this.cleanable = CLEANER.register(owner, state);
+        }
+
+        /**
+         * Release the reference now, as part of an explicit close.
+         */
+        void clean() {
+            if (state.census != null) {
+                state.census.closed();
+            }
+            cleanable.clean();
+        }
+
+        /**
+         * Take over the reference without releasing it, e.g. to release it in a batch.
+         * @return Native pointer to release, or 0 if it was already released
+         */
+        long take() {
+            long nativePtr = state.take();
+            // Deregister from the cleaner; the state is already spent
+            cleanable.clean();
+            return nativePtr;
+        }
+
+        /**
+         * Deregister without running the release action, so the owner can release on its own thread.
+         * @return true if the action had not run yet and is now up to the caller
+         */
+        boolean cancel() {
+            boolean claimed = state.claim();
+            cleanable.clean();
+            return claimed;
+        }
+    }
+
+    private static final class State implements Runnable {
+        private final long nativePtr;
+        private final Runnable action;
+        private final HandleCensus.Handle census;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        State(long nativePtr, Runnable action, HandleCensus.Handle census) {
+            this.nativePtr = nativePtr;
+            this.action = action;
+            this.census = census;
+        }
+
+        long take() {
+            return claim() ? nativePtr : 0;
+        }
+
+        boolean claim() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            if (census != null) {
+                census.closed();
+                census.released();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (census != null) {
+                    census.released();
+                }
+            } finally {
+                if (action != null) {
+                    action.run();
+                } else if (nativePtr != 0) {
+                    unref(nativePtr);
+                }
+            }
+        }
+    }
+}
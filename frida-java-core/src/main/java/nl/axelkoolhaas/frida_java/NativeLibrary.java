@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Loads the frida-java native library.
+ *
+ * <p>Loading is deferred until the first call into {@link Frida}, so that
+ * {@link Frida#prewarm()} can move it off the calling thread.</p>
+ */
+final class NativeLibrary {
+
+    private static volatile boolean loaded = false;
+
+    private NativeLibrary() {}
+
+    /**
+     * Load the native library once. Threads calling this while another thread is
+     * loading the library wait for it to finish.
+     * @throws UnsatisfiedLinkError if the library cannot be loaded
+     */
+    static void load() {
+        if (!loaded) {
+            synchronized (NativeLibrary.class) {
+                if (!loaded) {
+                    loadNativeLibrary();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Load the native library from JAR resources or fall back to system library.
+     */
+    private static void loadNativeLibrary() {
+        String osName = System.getProperty("os.name").toLowerCase();
+        String arch = System.getProperty("os.arch").toLowerCase();
+        String libName = getLibraryName(osName, arch);
+
+        // Try to load the platform-specific library from JAR resources
+        String resourcePath = "/native/" + libName;
+        URL resource = NativeLibrary.class.getResource(resourcePath);
+        if (resource != null) {
+            try {
+                // Reuse the library extracted by an earlier start if it is still intact
+                System.load(NativeLibraryCache.extract(resource, libName).toAbsolutePath().toString());
+                return;
+            } catch (IOException | RuntimeException | UnsatisfiedLinkError e) {
+                System.err.println("Warning: Failed to use native library cache (" + NativeLibraryCache.getRoot() + "): " + e.getMessage());
+            }
+            try (InputStream is = resource.openStream()) {
+                // Extract the platform-specific library to temporary file
+                String extension = libName.substring(libName.lastIndexOf('.'));
+                Path tempFile = Files.createTempFile("libfrida-java", extension);
+                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                tempFile.toFile().deleteOnExit();
+
+                // Load the extracted library
+                System.load(tempFile.toAbsolutePath().toString());
+                return;
+            } catch (IOException e) {
+                // Fall through to system library loading
+                System.err.println("Warning: Failed to load native library from JAR (" + resourcePath + "): " + e.getMessage());
+            }
+        }
+
+        // Fallback to system library loading
+        try {
+            System.loadLibrary("frida-java");
+        } catch (UnsatisfiedLinkError e) {
+            throw new UnsatisfiedLinkError("Failed to load native library 'frida-java' for " + osName + "/" + arch + ". " +
+                "Make sure the library is available in java.library.path or bundled in the JAR as " + resourcePath + ". " +
+                "Original error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the platform and architecture-specific library name.
+     */
+    private static String getLibraryName(String osName, String arch) {
+        if (osName.contains("mac")) {
+            return "libfrida-java.dylib"; // Universal fat binary for macOS
+        }
+        if (osName.contains("linux")) {
+            if (arch.contains("amd64") || arch.contains("x86_64")) {
+                return "libfrida-java-x86_64.so";
+            } else if (arch.contains("aarch64") || arch.contains("arm64")) {
+                return "libfrida-java-arm64.so";
+            }
+            throw new UnsatisfiedLinkError("Unsupported Linux architecture: " + arch);
+        }
+        if (osName.contains("windows")) {
+            throw new UnsatisfiedLinkError("Windows is currently not supported.");
+//            return "frida-java.dll";
+        }
+        throw new UnsatisfiedLinkError("Unsupported operating system: " + osName);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * Extracts the bundled native library once and reuses it on later starts.
+ *
+ * <p>The library is extracted into a directory named after the frida-java version
+ * and the CRC-32 and size of the bundled library, under the
+ * {@value #NATIVE_DIR_PROPERTY} system property or {@code native/} in the
+ * {@link CacheDirectory#getCacheRoot() cache root}. For a library inside a jar
+ * the CRC-32 and size come from the jar entry, so identifying it costs no I/O.
+ * An extracted library is only used if its size and CRC-32 match; extraction
+ * happens under a file lock and ends with an atomic move, so concurrent JVMs
+ * neither extract twice nor load a partial file.</p>
+ */
+final class NativeLibraryCache {
+
+    /** System property overriding the directory of extracted native libraries */
+    static final String NATIVE_DIR_PROPERTY = "frida.java.native.dir";
+
+    private static final String LOCK_FILE = ".lock";
+
+    private NativeLibraryCache() {}
+
+    /**
+     * Get the directory under which native libraries are extracted.
+     */
+    static Path getRoot() {
+        String root = System.getProperty(NATIVE_DIR_PROPERTY);
+        if (root != null && !root.isEmpty()) {
+            return Paths.get(root);
+        }
+        return CacheDirectory.getCacheRoot().resolve("native");
+    }
+
+    /**
+     * Get the extracted copy of a bundled library, extracting it if needed.
+     * @param url Location of the bundled library
+     * @param libName File name of the library
+     * @return Path of the extracted library
+     * @throws IOException if the library cannot be extracted
+     */
+    static Path extract(URL url, String libName) throws IOException {
+        long[] identity = identify(url);
+        long crc = identity[0];
+        long size = identity[1];
+        String version = Frida.class.getPackage().getImplementationVersion();
+        if (version == null || version.isEmpty()) {
+            version = "dev";
+        }
+        String dirName = version.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + String.format("%08x-%d", crc, size);
+        Path dir = getRoot().resolve(dirName);
+        Path target = dir.resolve(libName);
+
+        // Extracted libraries are never modified in place, so the fast path needs no lock
+        if (matches(target, crc, size)) {
+            return target;
+        }
+        Files.createDirectories(dir);
+        try (FileChannel lockChannel = FileChannel.open(dir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                // Another JVM may have extracted it while we waited for the lock
+                if (!matches(target, crc, size)) {
+                    extractLocked(url, dir, target, libName, crc, size);
+                }
+            } finally {
+                lock.release();
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Copy a bundled library next to its target and move it into place once verified.
+     * The caller holds the lock of the directory.
+     */
+    private static void extractLocked(URL url, Path dir, Path target, String libName, long crc, long size)
+            throws IOException {
+        Path temp = Files.createTempFile(dir, libName, ".tmp");
+        try {
+            try (InputStream in = url.openStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (!matches(temp, crc, size)) {
+                throw new IOException("Extracted library does not match the bundled library");
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Get the CRC-32 and size of a bundled library.
+     * @return Array of {crc, size}
+     */
+    private static long[] identify(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection) {
+            JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+            if (entry != null && entry.getCrc() != -1 && entry.getSize() != -1) {
+                return new long[] { entry.getCrc(), entry.getSize() };
+            }
+        }
+        // Not in a jar, e.g. when running from a build directory: checksum the stream
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = connection.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return new long[] { crc.getValue(), size };
+    }
+
+    private static boolean matches(Path file, long crc, long size) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != size) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 actual = new CRC32();
+            actual.update(buffer);
+            return actual.getValue() == crc;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
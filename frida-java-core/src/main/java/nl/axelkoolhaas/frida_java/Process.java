@@ -27,8 +27,9 @@ package nl.axelkoolhaas.frida_java;
  * </p>
  */
 public class Process implements AutoCloseable {
-    private long nativePtr;
+    private volatile long nativePtr;
     private volatile boolean closed = false;
+    private final NativeCleaner.Ref cleanable;
 
     /**
      * Internal constructor for native use.
@@ -36,19 +37,32 @@ public class Process implements AutoCloseable {
      */
     Process(long nativePtr) {
         this.nativePtr = nativePtr;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        FridaScope.adopt(cleanable, () -> {
+            this.closed = true;
+            this.nativePtr = 0;
+        });
     }
 
     /**
      * Get the process ID.
      * @return Process ID
      */
-    public native int getPid();
+    public int getPid() {
+        return NativeBackend.get().getProcessPid(this);
+    }
+
+    native int getPidNative();
 
     /**
      * Get the process name.
      * @return Process name
      */
-    public native String getName();
+    public String getName() {
+        return NativeBackend.get().getProcessName(this);
+    }
+
+    native String getNameNative();
 
     /**
      * Get the parent process ID.
@@ -62,6 +76,19 @@ public class Process implements AutoCloseable {
      */
     public native String getIdentifier();
 
+    /**
+     * Copy pid, name and parent pid into an immutable snapshot in a single native call.
+     * @return Process snapshot
+     */
+    public native ProcessInfo getInfo();
+
+    /**
+     * Get the parameters reported for the process, such as its path, user and icons.
+     * Values are typed as described for {@link Device#querySystemParametersSync(Object)}.
+     * @return Map of parameters, or null if the process is closed
+     */
+    public native java.util.Map<String, Object> getParameters();
+
     /**
      * Asynchronously get the process ID.
      * @param cancellable Optional cancellable object
@@ -142,6 +169,14 @@ public class Process implements AutoCloseable {
      */
     public native String getIdentifierSync(Object cancellable);
 
+    /**
+     * Get the native pointer (for internal use).
+     * @return Native pointer value, 0 once closed
+     */
+    long getNativePtr() {
+        return nativePtr;
+    }
+
     /**
      * Close this process and release native resources.
      * This method is idempotent and safe to call multiple times.
@@ -150,13 +185,10 @@ public class Process implements AutoCloseable {
     @Override
     public void close() {
         if (!closed && nativePtr != 0) {
-            disposeNative(nativePtr);
-            nativePtr = 0; // Prevent use-after-free
             closed = true;
+            // Prevent use-after-free
+            nativePtr = 0;
+            cleanable.clean();
         }
     }
-    /**
-     * Native method to release native resources.
-     */
-    private native void disposeNative(long nativePtr);
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name index over the process table of a device.
+ *
+ * <p>The index is filled from process snapshots taken with a single native call
+ * and is updated incrementally: only processes that appeared, exited or changed
+ * name touch the name index. Lookups refresh the index at most once per
+ * {@link #setMaxAge(long, TimeUnit) max age}, so bursts of lookups against the
+ * same names do not enumerate the process table each time.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public class ProcessIndex {
+
+    private static final int[] NO_PIDS = new int[0];
+
+    private final Device device;
+    private IntHashMap<String> namesByPid = new IntHashMap<>();
+    private final TreeMap<String, int[]> pidsByName = new TreeMap<>();
+    private long maxAgeNanos = TimeUnit.SECONDS.toNanos(1);
+    private long refreshedAt;
+    private boolean populated = false;
+
+    /**
+     * Create an empty index for the processes of a device.
+     * @param device Device whose processes are indexed
+     */
+    public ProcessIndex(Device device) {
+        this.device = device;
+    }
+
+    /**
+     * Set how old the index may become before a lookup refreshes it.
+     * @param maxAge Maximum age, zero to refresh on every lookup
+     * @param unit Unit of maxAge
+     */
+    public synchronized void setMaxAge(long maxAge, TimeUnit unit) {
+        if (maxAge < 0) {
+            throw new IllegalArgumentException("Max age must not be negative");
+        }
+        this.maxAgeNanos = unit.toNanos(maxAge);
+    }
+
+    /**
+     * Re-enumerate the processes of the device and apply the differences to the index.
+     * @throws RuntimeException if enumeration fails
+     */
+    public void refresh() {
+        update(device.snapshotProcesses(false));
+    }
+
+    /**
+     * Find the pids of all processes selected by a selector.
+     * Refreshes the index first if it is older than the configured max age.
+     * @param selector Process selector
+     * @return Pids of the matching processes, in ascending order
+     */
+    public int[] lookup(ProcessSelector selector) {
+        refreshIfStale();
+        synchronized (this) {
+            switch (selector.getMode()) {
+                case EXACT: {
+                    int[] pids = pidsByName.get(selector.getPattern());
+                    return pids != null ? pids.clone() : NO_PIDS;
+                }
+                case PREFIX:
+                    return collect(prefixRange(selector.getPattern()), selector);
+                default:
+                    return collect(pidsByName, selector);
+            }
+        }
+    }
+
+    /**
+     * Find the lowest pid selected by a selector.
+     * @param selector Process selector
+     * @return Pid, or -1 if no process matches
+     */
+    public int findFirst(ProcessSelector selector) {
+        int[] pids = lookup(selector);
+        return pids.length > 0 ? pids[0] : -1;
+    }
+
+    /**
+     * Get the name of an indexed process.
+     * @param pid Process ID
+     * @return Process name, or null if the pid is not indexed
+     */
+    public synchronized String getName(int pid) {
+        return namesByPid.get(pid);
+    }
+
+    /**
+     * Get the number of indexed processes.
+     * @return Number of processes
+     */
+    public synchronized int size() {
+        return namesByPid.size();
+    }
+
+    /**
+     * Drop a process from the index, e.g. after attaching to it failed because it exited.
+     * @param pid Process ID
+     */
+    public synchronized void remove(int pid) {
+        String name = namesByPid.remove(pid);
+        if (name != null) {
+            removeName(name, pid);
+        }
+    }
+
+    /**
+     * Apply a process snapshot to the index.
+     */
+    synchronized void update(ProcessSnapshot snapshot) {
+        IntHashMap<String> current = new IntHashMap<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            int pid = snapshot.pids[i];
+            String name = snapshot.names[i];
+            if (name == null) {
+                continue;
+            }
+            current.put(pid, name);
+            String previous = namesByPid.remove(pid);
+            if (previous == null) {
+                addName(name, pid);
+            } else if (!previous.equals(name)) {
+                removeName(previous, pid);
+                addName(name, pid);
+            }
+        }
+        // Whatever is left has exited since the previous snapshot
+        namesByPid.forEach(this::removeNameOfExited);
+        namesByPid = current;
+        refreshedAt = snapshot.timestamp;
+        populated = true;
+    }
+
+    private void removeNameOfExited(int pid, String name) {
+        removeName(name, pid);
+    }
+
+    private synchronized void refreshIfStale() {
+        if (!populated || System.nanoTime() - refreshedAt > maxAgeNanos) {
+            // Enumerate under the lock so concurrent lookups share one snapshot
+            update(device.snapshotProcesses(false));
+        }
+    }
+
+    private NavigableMap<String, int[]> prefixRange(String prefix) {
+        if (prefix.isEmpty()) {
+            return pidsByName;
+        }
+        return pidsByName.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static int[] collect(Map<String, int[]> candidates, ProcessSelector selector) {
+        int[] result = NO_PIDS;
+        int count = 0;
+        for (Map.Entry<String, int[]> entry : candidates.entrySet()) {
+            if (!selector.matches(entry.getKey())) {
+                continue;
+            }
+            int[] pids = entry.getValue();
+            if (count + pids.length > result.length) {
+                result = Arrays.copyOf(result, Math.max(count + pids.length, result.length * 2));
+            }
+            System.arraycopy(pids, 0, result, count, pids.length);
+            count += pids.length;
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void addName(String name, int pid) {
+        int[] pids = pidsByName.get(name);
+        if (pids == null) {
+            pidsByName.put(name, new int[] { pid });
+            return;
+        }
+        int position = Arrays.binarySearch(pids, pid);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        int[] grown = new int[pids.length + 1];
+        System.arraycopy(pids, 0, grown, 0, position);
+        grown[position] = pid;
+        System.arraycopy(pids, position, grown, position + 1, pids.length - position);
+        pidsByName.put(name, grown);
+    }
+
+    private void removeName(String name, int pid) {
+        int[] pids = pidsByName.get(name);
+        if (pids == null) {
+            return;
+        }
+        int position = Arrays.binarySearch(pids, pid);
+        if (position < 0) {
+            return;
+        }
+        if (pids.length == 1) {
+            pidsByName.remove(name);
+            return;
+        }
+        int[] shrunk = new int[pids.length - 1];
+        System.arraycopy(pids, 0, shrunk, 0, position);
+        System.arraycopy(pids, position + 1, shrunk, position, pids.length - position - 1);
+        pidsByName.put(name, shrunk);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ProcessIndex{processes=%d, names=%d}", namesByPid.size(), pidsByName.size());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of a process.
+ *
+ * <p>All fields are copied when the snapshot is made, so it holds no native
+ * resources, needs no closing and can be cached, shared between threads and
+ * used as a map key or set element.</p>
+ */
+public final class ProcessInfo {
+    private final int pid;
+    private final String name;
+    private final int parentPid;
+
+    /**
+     * Create a process snapshot. Also called from native code.
+     * @param pid Process ID
+     * @param name Process name
+     * @param parentPid Parent process ID, or 0 if unknown
+     */
+    public ProcessInfo(int pid, String name, int parentPid) {
+        this.pid = pid;
+        this.name = name;
+        this.parentPid = parentPid;
+    }
+
+    /**
+     * Get the process ID.
+     * @return Process ID
+     */
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Get the process name.
+     * @return Process name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the parent process ID.
+     * @return Parent process ID, or 0 if unknown
+     */
+    public int getParentPid() {
+        return parentPid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProcessInfo)) return false;
+        ProcessInfo other = (ProcessInfo) o;
+        return pid == other.pid && parentPid == other.parentPid && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * pid + Objects.hashCode(name)) + parentPid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProcessInfo{pid=%d, name='%s', parentPid=%d}", pid, name, parentPid);
+    }
+}
@@ -23,8 +23,9 @@ package nl.axelkoolhaas.frida_java;
  * Represents a list of Frida Processes.
  */
 public class ProcessList implements AutoCloseable {
-    private long nativePtr;
+    private volatile long nativePtr;
     private volatile boolean closed = false;
+    private final NativeCleaner.Ref cleanable;
 
     /**
      * Internal constructor for native use only.
@@ -32,6 +33,11 @@ public class ProcessList implements AutoCloseable {
      */
     ProcessList(long nativePtr) {
         this.nativePtr = nativePtr;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        FridaScope.adopt(cleanable, () -> {
+            this.closed = true;
+            this.nativePtr = 0;
+        });
     }
 
     /**
@@ -56,6 +62,13 @@ public class ProcessList implements AutoCloseable {
      */
     public native Process[] toArray();
 
+    /**
+     * Copy all processes into immutable snapshots in a single native call.
+     * Unlike {@link #toArray()}, the result holds no native resources.
+     * @return Array of process snapshots
+     */
+    public native ProcessInfo[] toInfoArray();
+
     /**
      * Asynchronously gets the number of processes in this list.
      * @param cancellable Optional cancellable object
@@ -106,16 +119,10 @@ public class ProcessList implements AutoCloseable {
     @Override
     public void close() {
         if (!closed && nativePtr != 0) {
-            disposeNative(nativePtr);
-            // Set nativePtr to 0 to prevent use-after-free
-            nativePtr = 0;
             closed = true;
+            // Prevent use-after-free
+            nativePtr = 0;
+            cleanable.clean();
         }
     }
-
-    /**
-     * Native method to release native resources.
-     * @param nativePtr Native pointer to the process list
-     */
-    private native void disposeNative(long nativePtr);
 }
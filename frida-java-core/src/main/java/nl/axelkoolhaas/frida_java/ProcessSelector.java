@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.regex.Pattern;
+
+/**
+ * Selects processes by name.
+ *
+ * <p>Selectors are immutable and can be shared between threads. Use one of the
+ * factory methods to create a selector for the desired match mode.</p>
+ */
+public final class ProcessSelector {
+
+    /**
+     * Supported name match modes
+     */
+    public enum Mode {
+        /** The name must be equal to the pattern */
+        EXACT,
+        /** The name must start with the pattern */
+        PREFIX,
+        /** The name must match a shell-style glob ({@code *}, {@code ?} and {@code [...]}) */
+        GLOB,
+        /** The name must fully match a regular expression */
+        REGEX
+    }
+
+    private final Mode mode;
+    private final String pattern;
+    private final Pattern compiled;
+
+    private ProcessSelector(Mode mode, String pattern, Pattern compiled) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern must not be null");
+        }
+        this.mode = mode;
+        this.pattern = pattern;
+        this.compiled = compiled;
+    }
+
+    /**
+     * Select processes whose name is exactly the given name.
+     * @param name Process name
+     * @return Process selector
+     */
+    public static ProcessSelector exact(String name) {
+        return new ProcessSelector(Mode.EXACT, name, null);
+    }
+
+    /**
+     * Select processes whose name starts with the given prefix.
+     * @param prefix Process name prefix
+     * @return Process selector
+     */
+    public static ProcessSelector prefix(String prefix) {
+        return new ProcessSelector(Mode.PREFIX, prefix, null);
+    }
+
+    /**
+     * Select processes whose name matches a shell-style glob.
+     * @param glob Glob pattern, e.g. {@code "com.example.*"}
+     * @return Process selector
+     */
+    public static ProcessSelector glob(String glob) {
+        if (glob == null) {
+            throw new IllegalArgumentException("Pattern must not be null");
+        }
+        return new ProcessSelector(Mode.GLOB, glob, Pattern.compile(globToRegex(glob)));
+    }
+
+    /**
+     * Select processes whose name fully matches a regular expression.
+     * @param regex Regular expression
+     * @return Process selector
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+     */
+    public static ProcessSelector regex(String regex) {
+        if (regex == null) {
+            throw new IllegalArgumentException("Pattern must not be null");
+        }
+        return new ProcessSelector(Mode.REGEX, regex, Pattern.compile(regex));
+    }
+
+    /**
+     * Get the match mode of this selector.
+     * @return Match mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the pattern of this selector as it was given.
+     * @return Pattern string
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Check whether a process name is selected.
+     * @param name Process name
+     * @return true if the name matches this selector
+     */
+    public boolean matches(String name) {
+        if (name == null) {
+            return false;
+        }
+        switch (mode) {
+            case EXACT:
+                return name.equals(pattern);
+            case PREFIX:
+                return name.startsWith(pattern);
+            default:
+                return compiled.matcher(name).matches();
+        }
+    }
+
+    /**
+     * Translate a glob into an equivalent regular expression.
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                    regex.append(']');
+                } else if (c == '\\') {
+                    regex.append("\\\\");
+                } else {
+                    regex.append(c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                case '[':
+                    inClass = true;
+                    regex.append('[');
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '!') {
+                        regex.append('^');
+                        i++;
+                    }
+                    break;
+                default:
+                    if ("\\.^$|+(){}".indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+                    break;
+            }
+        }
+        if (inClass) {
+            throw new IllegalArgumentException("Unterminated character class in glob: " + glob);
+        }
+        return regex.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProcessSelector)) return false;
+        ProcessSelector other = (ProcessSelector) o;
+        return mode == other.mode && pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mode.hashCode() + pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProcessSelector{mode=%s, pattern='%s'}", mode, pattern);
+    }
+}
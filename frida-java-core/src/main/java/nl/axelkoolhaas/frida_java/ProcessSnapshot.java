@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * Flat copy of a device process table, filled in by a single native call.
+ * Holds no native resources. Index {@code i} of every array describes the same process.
+ */
+final class ProcessSnapshot {
+
+    final int[] pids;
+    final String[] names;
+    /** Parent pids, or null if the snapshot was taken without metadata */
+    final int[] parentPids;
+    final long timestamp;
+
+    /**
+     * Internal constructor called from native code.
+     */
+    ProcessSnapshot(int[] pids, String[] names, int[] parentPids) {
+        this.pids = pids;
+        this.names = names;
+        this.parentPids = parentPids;
+        this.timestamp = System.nanoTime();
+    }
+
+    int size() {
+        return pids.length;
+    }
+
+    int parentPid(int index) {
+        return parentPids != null ? parentPids[index] : 0;
+    }
+}
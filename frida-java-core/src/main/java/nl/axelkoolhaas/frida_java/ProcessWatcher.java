@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the process table of a device and reports processes that start or exit.
+ *
+ * <p>The watcher polls the process table of the device at a fixed interval.
+ * Each poll copies pids, names and parent pids in a single native call and diffs it
+ * against the previous one using primitive pid sets, so short intervals remain
+ * affordable on hosts with many processes.</p>
+ *
+ * <p>Listeners are invoked on the watcher thread and must not block for long.
+ * Use with try-with-resources or call {@link #close()} to stop polling.</p>
+ */
+public class ProcessWatcher implements AutoCloseable {
+
+    /**
+     * Process lifecycle listener
+     */
+    public interface Listener {
+        /**
+         * Called when a process appeared since the previous poll.
+         * @param pid Process ID
+         * @param name Process name
+         * @param parentPid Parent process ID, or 0 if unknown
+         */
+        void started(int pid, String name, int parentPid);
+
+        /**
+         * Called when a process disappeared since the previous poll.
+         * @param pid Process ID
+         */
+        void exited(int pid);
+    }
+
+    private final Device device;
+    private final long intervalNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private IntHashSet previous = new IntHashSet();
+    private IntHashSet spare = new IntHashSet();
+    private boolean baselined = false;
+    private volatile boolean reportExisting = false;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed = false;
+
+    /**
+     * Create a watcher for a device. Polling starts with {@link #start()}.
+     * @param device Device whose processes are watched
+     * @param interval Poll interval
+     * @param unit Unit of interval
+     */
+    public ProcessWatcher(Device device, long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.device = device;
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Set whether processes already running at the first poll are reported as started.
+     * By default the first poll only establishes the baseline.
+     * @param reportExisting true to report existing processes
+     */
+    public void setReportExisting(boolean reportExisting) {
+        this.reportExisting = reportExisting;
+    }
+
+    /**
+     * Register a listener.
+     * @param listener Listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener.
+     * @param listener Listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start polling on a background thread. The first poll runs immediately.
+     * @throws IllegalStateException if the watcher is closed or already started
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("ProcessWatcher is closed");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("ProcessWatcher is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frida-process-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, 0, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Poll once on the calling thread and notify listeners of the differences.
+     * @throws RuntimeException if enumeration fails
+     */
+    public void poll() {
+        apply(device.snapshotProcesses(true));
+    }
+
+    /**
+     * Diff a snapshot against the previous one and notify listeners.
+     */
+    synchronized void apply(ProcessSnapshot snapshot) {
+        IntHashSet current = spare;
+        current.clear();
+        for (int i = 0; i < snapshot.size(); i++) {
+            current.add(snapshot.pids[i]);
+        }
+        boolean notifyStarted = baselined || reportExisting;
+        if (baselined) {
+            previous.forEach(pid -> {
+                if (!current.contains(pid)) {
+                    fireExited(pid);
+                }
+            });
+        }
+        if (notifyStarted) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                int pid = snapshot.pids[i];
+                if (!baselined || !previous.contains(pid)) {
+                    fireStarted(pid, snapshot.names[i], snapshot.parentPid(i));
+                }
+            }
+        }
+        spare = previous;
+        previous = current;
+        baselined = true;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Process poll failed: " + e.getMessage());
+        }
+    }
+
+    private void fireStarted(int pid, String name, int parentPid) {
+        for (Listener listener : listeners) {
+            try {
+                listener.started(pid, name, parentPid);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Exception in process listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fireExited(int pid) {
+        for (Listener listener : listeners) {
+            try {
+                listener.exited(pid);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Exception in process listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop polling. Listeners are not notified of anything after this returns,
+     * except by a poll that is already running.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProcessWatcher{interval=%dms, closed=%s}",
+            TimeUnit.NANOSECONDS.toMillis(intervalNanos), closed);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a session recovers when its connection to the agent is lost.
+ *
+ * <p>With a policy set through {@link Session#setResumePolicy(ResumePolicy)}, a
+ * session attached with a non-zero {@linkplain SessionOptions#setPersistTimeout(int)
+ * persist timeout} that detaches with {@link Session.DetachReason#CONNECTION_TERMINATED}
+ * is resumed instead of reported as detached. The first attempt is made right
+ * away; every further attempt waits twice as long as the previous one, up to
+ * the maximum delay. Scripts and their message handlers stay in place while the
+ * session resumes. Only when every attempt has failed are the detached
+ * handlers called.</p>
+ *
+ * <p>Instances are immutable and can be shared between sessions.</p>
+ */
+public final class ResumePolicy {
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final int maxAttempts;
+
+    private ResumePolicy(long initialDelayNanos, long maxDelayNanos, int maxAttempts) {
+        this.initialDelayNanos = initialDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Create a policy with exponential backoff between attempts.
+     * @param initialDelay Delay before the second attempt
+     * @param maxDelay Upper bound of the delay between attempts
+     * @param unit Unit of initialDelay and maxDelay
+     * @param maxAttempts Number of attempts before giving up
+     * @return Resume policy
+     */
+    public static ResumePolicy exponentialBackoff(long initialDelay, long maxDelay, TimeUnit unit, int maxAttempts) {
+        if (initialDelay <= 0 || maxDelay < initialDelay) {
+            throw new IllegalArgumentException("Delays must be positive and maxDelay must not be below initialDelay");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        return new ResumePolicy(unit.toNanos(initialDelay), unit.toNanos(maxDelay), maxAttempts);
+    }
+
+    /**
+     * Get the number of attempts before giving up.
+     * @return Maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Get the delay before an attempt.
+     * @param attempt Attempt number, starting at 0
+     * @return Delay in nanoseconds
+     */
+    long delayNanos(int attempt) {
+        if (attempt == 0) {
+            return 0;
+        }
+        int doublings = Math.min(attempt - 1, 62);
+        long delay = initialDelayNanos << doublings;
+        return delay <= 0 || delay > maxDelayNanos || (delay >> doublings) != initialDelayNanos
+            ? maxDelayNanos : delay;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResumePolicy{initial=%dms, max=%dms, attempts=%d}",
+            TimeUnit.NANOSECONDS.toMillis(initialDelayNanos), TimeUnit.NANOSECONDS.toMillis(maxDelayNanos), maxAttempts);
+    }
+}
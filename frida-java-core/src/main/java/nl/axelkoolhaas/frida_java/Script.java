@@ -19,6 +19,10 @@
 
 package nl.axelkoolhaas.frida_java;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents a Frida script that can be injected into a process.
  * Scripts are written in JavaScript and can interact with the target process.
@@ -29,12 +33,54 @@ package nl.axelkoolhaas.frida_java;
  */
 public class Script implements AutoCloseable {
 
-    /** Native pointer to the FridaScript object */
-    private final long nativePtr;
+    /** Native pointer to the FridaScript object, 0 once released */
+    private volatile long nativePtr;
 
     /** Closed flag to prevent double unload */
     private volatile boolean closed = false;
 
+    /** Drops the native script reference at most once */
+    private final NativeCleaner.Ref cleanable;
+
+    /** Maximum number of messages kept while no handler is set */
+    static final int MAX_QUEUED_MESSAGES = 4096;
+
+    /** Session the script was created in, or null if unknown */
+    private final Session session;
+
+    /** Process ID of the session, or 0 if unknown */
+    private final int pid;
+
+    /** Name given at creation, reported by events when the SDK cannot look it up */
+    private volatile String createdName;
+
+    /** Message counters, or null if metrics are disabled */
+    private final ScriptMetrics metrics;
+
+    /** Unregisters the metrics of a script that is never closed */
+    private final NativeCleaner.Ref metricsCleanable;
+
+    /** Guards the handler, the queue and the message signal connection */
+    private final Object messageLock = new Object();
+    private MessageHandler messageHandler;
+    private final ArrayDeque<Object[]> queuedMessages = new ArrayDeque<>();
+    private boolean draining = false;
+    private boolean loaded = false;
+    private boolean droppedWarning = false;
+    private long messageSignalId;
+
+    /**
+     * JavaScript runtimes a script can run on
+     */
+    public enum Runtime {
+        /** The default runtime of the agent */
+        DEFAULT,
+        /** QuickJS */
+        QJS,
+        /** V8 */
+        V8
+    }
+
     /**
      * Script message handler interface
      */
@@ -52,32 +98,119 @@ public class Script implements AutoCloseable {
      * @param nativePtr Native pointer to FridaScript
      */
     Script(long nativePtr) {
+        this(nativePtr, null);
+    }
+
+    /**
+     * Internal constructor called from native code.
+     * @param nativePtr Native pointer to FridaScript
+     * @param session Session the script was created in
+     */
+    Script(long nativePtr, Session session) {
         this.nativePtr = nativePtr;
+        this.session = session;
+        this.cleanable = NativeCleaner.register(this, nativePtr);
+        this.pid = session != null ? session.getPid() : 0;
+        this.metrics = FridaMetrics.newScript(pid);
+        if (metrics != null) {
+            ScriptMetrics unreachable = metrics;
+            this.metricsCleanable = NativeCleaner.register(this, () -> FridaMetrics.releaseScript(unreachable));
+        } else {
+            this.metricsCleanable = null;
+        }
     }
 
     /**
      * Load the script into the target process.
      * @throws RuntimeException if loading fails
      */
-    public native void load();
+    public void load() {
+        FridaEvents.ScriptLoad event = new FridaEvents.ScriptLoad();
+        NativeCall call = NativeCall.begin("Script.load", event, FridaMetrics.LOAD, null, pid,
+            Tracing.ENABLED ? eventName() : null);
+        try {
+            loadNative();
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        boolean commit = call.succeeded();
+        if (metrics != null) {
+            FridaMetrics.registerScript(metrics);
+        }
+        synchronized (messageLock) {
+            loaded = true;
+            updateActiveLocked();
+        }
+        if (commit) {
+            event.pid = pid;
+            event.scriptName = eventName();
+            event.commit();
+        }
+    }
+
+    private native void loadNative();
 
     /**
      * Unload this script from the target process.
      * @throws RuntimeException if unloading fails
      */
-    public native void unload();
+    public void unload() {
+        NativeCall call = NativeCall.begin("Script.unload", null, null, null, pid, Tracing.ENABLED ? eventName() : null);
+        try {
+            unloadNative();
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        call.succeeded();
+        markUnloaded();
+    }
+
+    private void markUnloaded() {
+        synchronized (messageLock) {
+            loaded = false;
+            updateActiveLocked();
+        }
+    }
+
+    /**
+     * Let the session keep this script reachable while it is loaded and has a
+     * handler, so its messages are delivered even if the caller dropped it.
+     */
+    private void updateActiveLocked() {
+        if (session != null) {
+            session.setScriptActive(this, loaded && messageHandler != null);
+        }
+    }
+
+    private native void unloadNative();
 
     /**
      * Closes this script and releases any system resources associated with it.
-     * This method calls unload() if the script is not already destroyed.
+     * This method calls unload() if the script is not already destroyed, then
+     * drops the native script reference.
      * This method is idempotent and safe to call multiple times.
      * <b>Warning:</b> Always call close() explicitly or use try-with-resources.
+     * A loaded script with a message handler is kept reachable by its session
+     * until it is unloaded or closed, or the session is closed or detached.
      */
     @Override
     public void close() {
-        if (!closed && !isDestroyed()) {
-            unload();
+        if (nativePtr == 0) {
+            return;
+        }
+        try {
+            if (!closed && !isDestroyed()) {
+                unload();
+            }
+        } finally {
             closed = true;
+            markUnloaded();
+            disconnectMessageSignal();
+            nativePtr = 0;
+            cleanable.clean();
+            if (metricsCleanable != null) {
+                metricsCleanable.clean();
+            }
         }
     }
 
@@ -90,23 +223,311 @@ public class Script implements AutoCloseable {
     /**
      * Post a message to the script.
      * @param message JSON message to send
+     * @throws IllegalStateException if the session of this script has detached
      * @throws RuntimeException if posting fails
      */
-    public native void post(String message);
+    public void post(String message) {
+        checkSessionAttached();
+        FridaEvents.ScriptPost event = new FridaEvents.ScriptPost();
+        NativeCall call = beginPost(event);
+        try {
+            postNative(message);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        if (metrics != null) {
+            metrics.messageOut(message, null);
+        }
+        commitPost(call, event, message, null);
+    }
 
     /**
      * Post a message to the script with binary data.
      * @param message JSON message to send
      * @param data Binary data to send
+     * @throws IllegalStateException if the session of this script has detached
      * @throws RuntimeException if posting fails
      */
-    public native void post(String message, byte[] data);
+    public void post(String message, byte[] data) {
+        checkSessionAttached();
+        FridaEvents.ScriptPost event = new FridaEvents.ScriptPost();
+        NativeCall call = beginPost(event);
+        try {
+            postNative(message, data);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        if (metrics != null) {
+            metrics.messageOut(message, data);
+        }
+        commitPost(call, event, message, data);
+    }
+
+    private void checkSessionAttached() {
+        if (session != null && session.isSessionGone()) {
+            throw new IllegalStateException("Session detached: " + session.getDetachReason());
+        }
+    }
+
+    private NativeCall beginPost(FridaEvents.ScriptPost event) {
+        return NativeCall.begin("Script.post", event, null, null, pid, Tracing.ENABLED ? eventName() : null);
+    }
+
+    private void commitPost(NativeCall call, FridaEvents.ScriptPost event, String message, byte[] data) {
+        if (call.succeeded()) {
+            event.pid = pid;
+            event.scriptName = eventName();
+            event.bytes = ScriptMetrics.size(message, data);
+            event.commit();
+        }
+    }
+
+    /**
+     * Get the script name for an event, tolerating a concurrent close.
+     */
+    private String eventName() {
+        String name = nativePtr != 0 ? getName() : null;
+        return name != null ? name : createdName;
+    }
+
+    void setCreatedName(String name) {
+        this.createdName = name;
+    }
+
+    private native void postNative(String message);
+
+    private native void postNative(String message, byte[] data);
 
     /**
-     * Set the message handler for this script.
-     * @param handler Message handler to receive script messages
+     * Get the message counters of this script.
+     * @return Metrics, or null if disabled with {@value FridaMetrics#ENABLED_PROPERTY}
      */
-    public native void setMessageHandler(MessageHandler handler);
+    public ScriptMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set the message handler for this script. Messages that arrived while no
+     * handler was set are delivered to the new handler first, in order.
+     * @param handler Message handler to receive script messages, or null to queue messages
+     */
+    public void setMessageHandler(MessageHandler handler) {
+        connectMessageSignal();
+        synchronized (messageLock) {
+            if (handler == null) {
+                messageHandler = null;
+                updateActiveLocked();
+                return;
+            }
+            // Keep new messages queued until the backlog is delivered
+            draining = true;
+        }
+        while (true) {
+            Object[][] backlog;
+            synchronized (messageLock) {
+                if (queuedMessages.isEmpty()) {
+                    updateQueueDepthLocked();
+                    messageHandler = handler;
+                    draining = false;
+                    updateActiveLocked();
+                    return;
+                }
+                backlog = queuedMessages.toArray(new Object[0][]);
+                queuedMessages.clear();
+                updateQueueDepthLocked();
+            }
+            for (Object[] message : backlog) {
+                deliver(handler, (String) message[0], (byte[]) message[1]);
+            }
+        }
+    }
+
+    /**
+     * Get the message handler of this script.
+     * @return Message handler, or null if messages are queued
+     */
+    public MessageHandler getMessageHandler() {
+        synchronized (messageLock) {
+            return messageHandler;
+        }
+    }
+
+    /**
+     * Replace this script with a new one without missing messages.
+     * The new script is created and loaded while this one keeps running, its
+     * early messages are held back, then the message handler and any queued
+     * messages move to the new script and this script is unloaded. Both scripts
+     * are briefly loaded at the same time.
+     * @param newSource JavaScript source code of the replacement
+     * @return The loaded replacement script
+     * @throws IllegalStateException if the session of this script is unknown
+     * @throws RuntimeException if creating or loading the replacement fails, or if unloading this
+     *         script fails while its session is attached; this script is then left in place
+     */
+    public Script replaceWith(String newSource) {
+        if (session == null) {
+            throw new IllegalStateException("Script was not created through a session");
+        }
+        return replaceWith(session.createScript(newSource));
+    }
+
+    /**
+     * Replace this script with a created but not yet loaded script, e.g. one
+     * compiled ahead of time, without missing messages.
+     * @param replacement Script to load in place of this one
+     * @return The loaded replacement script
+     * @throws RuntimeException if loading the replacement fails, or if unloading this script fails
+     *         while its session is attached; the replacement is then closed and this script left in place
+     * @see #replaceWith(String)
+     */
+    public Script replaceWith(Script replacement) {
+        // Hold back messages of the replacement until the switch
+        replacement.setMessageHandler(null);
+        try {
+            replacement.load();
+        } catch (RuntimeException e) {
+            replacement.close();
+            throw e;
+        }
+        MessageHandler handler;
+        Object[][] backlog;
+        synchronized (messageLock) {
+            handler = messageHandler;
+            backlog = queuedMessages.toArray(new Object[0][]);
+            queuedMessages.clear();
+            updateQueueDepthLocked();
+        }
+        synchronized (replacement.messageLock) {
+            // Messages of this script not yet handled go before the replacement's own
+            for (int i = backlog.length - 1; i >= 0; i--) {
+                replacement.queuedMessages.addFirst(backlog[i]);
+            }
+            replacement.updateQueueDepthLocked();
+        }
+        if (handler != null) {
+            replacement.setMessageHandler(handler);
+        }
+        // This script keeps its handler, so messages sent while it unloads are not lost
+        try {
+            if (!isDestroyed()) {
+                unload();
+            }
+        } catch (RuntimeException e) {
+            if (session == null || !session.isSessionGone()) {
+                // Still loaded; keep this script rather than leave both hooked in
+                restoreBacklog(replacement, handler == null ? backlog.length : 0);
+                replacement.close();
+                throw e;
+            }
+            // The session is gone, and this script with it
+        }
+        close();
+        return replacement;
+    }
+
+    /**
+     * Take back the first messages of a replacement that was given this script's backlog.
+     */
+    private void restoreBacklog(Script replacement, int count) {
+        List<Object[]> restored = new ArrayList<>(count);
+        synchronized (replacement.messageLock) {
+            for (int i = 0; i < count && !replacement.queuedMessages.isEmpty(); i++) {
+                restored.add(replacement.queuedMessages.poll());
+            }
+            replacement.updateQueueDepthLocked();
+        }
+        synchronized (messageLock) {
+            for (int i = restored.size() - 1; i >= 0; i--) {
+                queuedMessages.addFirst(restored.get(i));
+            }
+            updateQueueDepthLocked();
+        }
+    }
+
+    /**
+     * Called from native code for every message of this script.
+     * @param messageBytes Length of the message in UTF-8 bytes, known to the caller without a scan
+     */
+    void dispatchMessage(String message, byte[] data, long messageBytes) {
+        if (metrics != null) {
+            metrics.messageIn(messageBytes + (data != null ? data.length : 0));
+        }
+        MessageHandler handler;
+        synchronized (messageLock) {
+            handler = messageHandler;
+            if (handler == null || draining) {
+                enqueueLocked(message, data);
+                return;
+            }
+        }
+        deliver(handler, message, data);
+    }
+
+    private void enqueueLocked(String message, byte[] data) {
+        if (queuedMessages.size() >= MAX_QUEUED_MESSAGES) {
+            queuedMessages.poll();
+            if (!droppedWarning) {
+                droppedWarning = true;
+                System.err.println("Warning: Script message queue full, dropping oldest messages");
+            }
+        }
+        queuedMessages.add(new Object[] { message, data });
+        updateQueueDepthLocked();
+    }
+
+    private void updateQueueDepthLocked() {
+        if (metrics != null) {
+            metrics.queueDepth(queuedMessages.size());
+        }
+    }
+
+    private void deliver(MessageHandler handler, String message, byte[] data) {
+        FridaEvents.ScriptMessage event = new FridaEvents.ScriptMessage();
+        event.begin();
+        long start = metrics != null ? System.nanoTime() : 0;
+        try {
+            handler.onMessage(message, data);
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Exception in script message handler: " + e.getMessage());
+        }
+        if (metrics != null) {
+            metrics.handled(start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.pid = pid;
+            event.scriptName = eventName();
+            event.bytes = ScriptMetrics.size(message, data);
+            event.commit();
+        }
+    }
+
+    private void connectMessageSignal() {
+        synchronized (messageLock) {
+            if (messageSignalId == 0) {
+                messageSignalId = NativeBackend.get().connectMessages(this);
+            }
+        }
+    }
+
+    private void disconnectMessageSignal() {
+        long signalId;
+        synchronized (messageLock) {
+            signalId = messageSignalId;
+            messageSignalId = 0;
+        }
+        if (signalId != 0) {
+            NativeBackend.get().disconnectMessages(this, signalId);
+        }
+    }
+
+    /**
+     * Route the message signal of the native script to {@link #dispatchMessage(String, byte[], long)}.
+     * @return Signal handler ID
+     */
+    native long connectMessagesNative();
+
+    native void disconnectMessagesNative(long signalId);
 
     /**
      * Get the name of the script.
@@ -126,7 +547,9 @@ public class Script implements AutoCloseable {
 
     // Event registration (signals)
     public native void onDestroyed(Runnable callback);
-    public native void onMessage(MessageHandler handler);
+    public void onMessage(MessageHandler handler) {
+        setMessageHandler(handler);
+    }
 
     /**
      * Get the native pointer (for internal use).
@@ -138,7 +561,7 @@ public class Script implements AutoCloseable {
 
     @Override
     public String toString() {
-        return String.format("Script{destroyed=%s}", isDestroyed());
+        return String.format("Script{destroyed=%s}", nativePtr == 0 || isDestroyed());
     }
 
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache of compiled scripts.
+ *
+ * <p>Compiled scripts are stored in a directory, keyed by the SHA-256 of the source,
+ * the Frida version and the script runtime, and read back as memory-mapped files.
+ * Entries survive JVM restarts, so attaching with a script that was compiled before,
+ * by any session, skips compilation. Entries of other Frida versions are never used
+ * and can be removed with {@link #clear()}.</p>
+ *
+ * <p>This class is thread-safe. Several processes may share a cache directory.</p>
+ */
+public class ScriptCache {
+
+    /** System property overriding the root of the frida-java cache directories */
+    public static final String CACHE_DIR_PROPERTY = CacheDirectory.CACHE_DIR_PROPERTY;
+
+    private static volatile ScriptCache defaultCache;
+
+    private final CacheDirectory directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache stored in a directory. The directory is created when the first entry is stored.
+     * @param directory Cache directory
+     */
+    public ScriptCache(Path directory) {
+        this.directory = new CacheDirectory(directory);
+    }
+
+    /**
+     * Get the shared cache in {@code <root>/scripts}, where root is the value of the
+     * {@value #CACHE_DIR_PROPERTY} system property or {@code ~/.cache/frida-java}.
+     * @return Default script cache
+     */
+    public static ScriptCache getDefault() {
+        ScriptCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (ScriptCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    cache = new ScriptCache(CacheDirectory.getCacheRoot().resolve("scripts"));
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the cache directory.
+     * @return Cache directory
+     */
+    public Path getDirectory() {
+        return directory.getPath();
+    }
+
+    /**
+     * Create a script from source, compiling it only if no compiled copy is cached.
+     * @param session Session to create the script in
+     * @param source JavaScript source code
+     * @return Script object, not yet loaded
+     * @throws RuntimeException if compilation or script creation fails
+     */
+    public Script createScript(Session session, String source) {
+        return createScript(session, source, Script.Runtime.DEFAULT);
+    }
+
+    /**
+     * Create a script from source for a runtime, compiling it only if no compiled copy is cached.
+     * @param session Session to create the script in
+     * @param source JavaScript source code
+     * @param runtime Script runtime
+     * @return Script object, not yet loaded
+     * @throws RuntimeException if compilation or script creation fails
+     */
+    public Script createScript(Session session, String source, Script.Runtime runtime) {
+        return session.createScriptFromBuffer(getCompiled(session, source, runtime), runtime);
+    }
+
+    /**
+     * Get the compiled form of a script, compiling it in a session on a cache miss.
+     * @param session Session used to compile on a miss
+     * @param source JavaScript source code
+     * @return Compiled script
+     * @throws RuntimeException if compilation fails
+     */
+    public byte[] compile(Session session, String source) {
+        ByteBuffer compiled = getCompiled(session, source, Script.Runtime.DEFAULT);
+        byte[] bytes = new byte[compiled.remaining()];
+        compiled.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get the compiled form of a script as a read-only buffer over the cache file.
+     * @param session Session used to compile on a miss
+     * @param source JavaScript source code
+     * @param runtime Script runtime
+     * @return Direct buffer with the compiled script
+     * @throws RuntimeException if compilation fails
+     */
+    public ByteBuffer getCompiled(Session session, String source, Script.Runtime runtime) {
+        String key = key(source, Frida.getVersionString(), runtime);
+        ByteBuffer cached = directory.lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        byte[] compiled = session.compileScript(source, runtime);
+        ByteBuffer stored = directory.store(key, compiled) ? directory.lookup(key) : null;
+        // Cache directory not writable; still hand out the compiled script
+        return stored != null ? stored : CacheDirectory.direct(compiled);
+    }
+
+    /**
+     * Get the cached compiled form of a script without compiling on a miss.
+     * @param source JavaScript source code
+     * @param runtime Script runtime
+     * @return Compiled script, or null if not cached
+     */
+    public byte[] get(String source, Script.Runtime runtime) {
+        ByteBuffer cached = directory.lookup(key(source, Frida.getVersionString(), runtime));
+        if (cached == null) {
+            return null;
+        }
+        hits.increment();
+        byte[] bytes = new byte[cached.remaining()];
+        cached.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Check whether a compiled copy of a script is cached.
+     * @param source JavaScript source code
+     * @param runtime Script runtime
+     * @return true if cached for the running Frida version
+     */
+    public boolean contains(String source, Script.Runtime runtime) {
+        return directory.contains(key(source, Frida.getVersionString(), runtime));
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that required compilation.
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Remove all entries from the cache directory.
+     * @throws java.io.UncheckedIOException if the directory cannot be read
+     */
+    public void clear() {
+        directory.clear();
+    }
+
+    /**
+     * Compute the cache key of a script.
+     */
+    static String key(String source, String fridaVersion, Script.Runtime runtime) {
+        return CacheDirectory.key(source, fridaVersion, runtime.name());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScriptCache{directory=%s, hits=%d, misses=%d}", directory, getHitCount(), getMissCount());
+    }
+}
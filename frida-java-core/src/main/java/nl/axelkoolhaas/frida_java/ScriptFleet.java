@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Loads one script into every process of a device that matches a predicate.
+ *
+ * <p>The source is compiled once with {@link Session#compileScript(String)} and the
+ * compiled bytes are loaded into all matching processes in parallel through an
+ * {@link AttachScheduler}. Processes that start later and match the predicate are
+ * instrumented automatically. Messages from all scripts are delivered to a single
+ * {@link MessageHandler}, tagged with the pid of the sending process.</p>
+ *
+ * <p>Use with try-with-resources or call {@link #close()} to unload all scripts.</p>
+ */
+public class ScriptFleet implements AutoCloseable {
+
+    /**
+     * Handler for messages of all scripts in the fleet.
+     */
+    public interface MessageHandler {
+        /**
+         * Called when a script sends a message. May be called from several threads at once.
+         * @param pid Process ID of the sending script
+         * @param message Message JSON
+         * @param data Binary data, or null
+         */
+        void onMessage(int pid, String message, byte[] data);
+    }
+
+    /**
+     * Session and script of one instrumented process.
+     */
+    private static final class Member {
+        final Session session;
+        final Script script;
+
+        Member(Session session, Script script) {
+            this.session = session;
+            this.script = script;
+        }
+    }
+
+    private final Device device;
+    private final Predicate<Process> filter;
+    private final String source;
+    private final AttachScheduler scheduler;
+    private final boolean ownsScheduler;
+    private final Map<Integer, Member> members = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<AttachScheduler.Result>> pending = new ConcurrentHashMap<>();
+    private volatile MessageHandler messageHandler;
+    private ScriptCache scriptCache;
+    private long watchIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+    private byte[] compiled;
+    private Session compileSession;
+    private ProcessWatcher watcher;
+    private volatile boolean closed = false;
+
+    /**
+     * Create a fleet using a scheduler with 4 attaches in flight.
+     * @param device Device whose processes are instrumented
+     * @param filter Selects the processes to instrument
+     * @param source JavaScript source code
+     */
+    public ScriptFleet(Device device, Predicate<Process> filter, String source) {
+        this(device, filter, source, new AttachScheduler(4, 4), true);
+    }
+
+    /**
+     * Create a fleet that runs its attaches on a shared scheduler.
+     * The scheduler is not closed with the fleet.
+     * @param device Device whose processes are instrumented
+     * @param filter Selects the processes to instrument
+     * @param source JavaScript source code
+     * @param scheduler Scheduler for attach jobs
+     */
+    public ScriptFleet(Device device, Predicate<Process> filter, String source, AttachScheduler scheduler) {
+        this(device, filter, source, scheduler, false);
+    }
+
+    private ScriptFleet(Device device, Predicate<Process> filter, String source, AttachScheduler scheduler, boolean ownsScheduler) {
+        if (device == null || filter == null || source == null) {
+            throw new IllegalArgumentException("Device, filter and source must not be null");
+        }
+        this.device = device;
+        this.filter = filter;
+        this.source = source;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    /**
+     * Set the handler receiving the messages of all scripts.
+     * @param messageHandler Message handler
+     */
+    public void setMessageHandler(MessageHandler messageHandler) {
+        this.messageHandler = messageHandler;
+    }
+
+    /**
+     * Set a cache for the compiled script. With a cache hit the fleet does not compile at all.
+     * Must be called before {@link #start()}.
+     * @param scriptCache Script cache, or null to always compile
+     */
+    public void setScriptCache(ScriptCache scriptCache) {
+        synchronized (pending) {
+            this.scriptCache = scriptCache;
+        }
+    }
+
+    /**
+     * Set how often the device is polled for new processes. Must be called before {@link #start()}.
+     * @param interval Poll interval
+     * @param unit Unit of interval
+     */
+    public synchronized void setWatchInterval(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.watchIntervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Instrument all matching processes and start watching for new ones.
+     * @return Future completed when the processes running at start have been handled.
+     *         Failures of single processes do not fail the future.
+     * @throws IllegalStateException if the fleet is closed or already started
+     * @throws RuntimeException if enumerating processes fails
+     */
+    public synchronized CompletableFuture<Void> start() {
+        if (closed) {
+            throw new IllegalStateException("ScriptFleet is closed");
+        }
+        if (watcher != null) {
+            throw new IllegalStateException("ScriptFleet is already started");
+        }
+        watcher = new ProcessWatcher(device, watchIntervalNanos, TimeUnit.NANOSECONDS);
+        watcher.addListener(new ProcessWatcher.Listener() {
+            @Override
+            public void started(int pid, String name, int parentPid) {
+                onProcessStarted(pid);
+            }
+
+            @Override
+            public void exited(int pid) {
+                onProcessExited(pid);
+            }
+        });
+        // Baseline first so that nothing starting during enumeration is missed
+        watcher.poll();
+
+        List<CompletableFuture<AttachScheduler.Result>> initial = new ArrayList<>();
+        try (ProcessList processes = device.enumerateProcesses()) {
+            for (Process process : processes.toArray()) {
+                try {
+                    if (filter.test(process)) {
+                        CompletableFuture<AttachScheduler.Result> future = instrument(process.getPid());
+                        if (future != null) {
+                            initial.add(future);
+                        }
+                    }
+                } finally {
+                    process.close();
+                }
+            }
+        }
+        watcher.start();
+        return CompletableFuture.allOf(initial.stream()
+            .map(future -> future.handle((result, error) -> null))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Get the pids of the processes the script is loaded in.
+     * @return Instrumented pids, in ascending order
+     */
+    public int[] getPids() {
+        int[] pids = members.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(pids);
+        return pids;
+    }
+
+    /**
+     * Get the script loaded in a process.
+     * @param pid Process ID
+     * @return Script, or null if the process is not instrumented
+     */
+    public Script getScript(int pid) {
+        Member member = members.get(pid);
+        return member != null ? member.script : null;
+    }
+
+    /**
+     * Get the number of instrumented processes.
+     * @return Number of processes
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Post a message to the scripts in all instrumented processes.
+     * @param message Message JSON
+     */
+    public void post(String message) {
+        for (Member member : members.values()) {
+            member.script.post(message);
+        }
+    }
+
+    private void onProcessStarted(int pid) {
+        boolean matches;
+        try (Process process = device.getProcessByPidSync(pid, null, null)) {
+            matches = filter.test(process);
+        } catch (RuntimeException e) {
+            // Already gone again
+            return;
+        }
+        if (matches) {
+            instrument(pid);
+        }
+    }
+
+    private void onProcessExited(int pid) {
+        Member member = members.remove(pid);
+        if (member != null) {
+            release(member.session, member.script);
+        }
+    }
+
+    /**
+     * Queue a process for instrumentation unless it already is.
+     */
+    private CompletableFuture<AttachScheduler.Result> instrument(int pid) {
+        if (closed || members.containsKey(pid)) {
+            return null;
+        }
+        CompletableFuture<AttachScheduler.Result> future;
+        synchronized (pending) {
+            if (pending.containsKey(pid)) {
+                return null;
+            }
+            byte[] bytes;
+            try {
+                bytes = compiled(pid);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Failed to instrument process " + pid + ": " + e.getMessage());
+                return null;
+            }
+            AttachScheduler.Job job = AttachScheduler.Job.compiled(device, pid, bytes);
+            job.setMessageHandler((message, data) -> {
+                MessageHandler handler = messageHandler;
+                if (handler != null) {
+                    handler.onMessage(pid, message, data);
+                }
+            });
+            future = scheduler.submit(job);
+            pending.put(pid, future);
+        }
+        future.whenComplete((result, error) -> {
+            pending.remove(pid);
+            if (error instanceof CancellationException) {
+                // Cancelled by close()
+            } else if (error != null) {
+                System.err.println("Warning: Failed to instrument process " + pid + ": " + error.getMessage());
+            } else if (closed) {
+                release(result.getSession(), result.getScript());
+            } else {
+                members.put(pid, new Member(result.getSession(), result.getScript()));
+                if (closed && members.remove(pid) != null) {
+                    // Lost the race with close()
+                    release(result.getSession(), result.getScript());
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Compile the source on the first process that needs it. The compile session
+     * stays registered so the attach job for the same process reuses it.
+     */
+    private byte[] compiled(int pid) {
+        if (compiled == null && scriptCache != null) {
+            compiled = scriptCache.get(source, Script.Runtime.DEFAULT);
+        }
+        if (compiled == null) {
+            Session session = device.attach(pid);
+            try {
+                compiled = scriptCache != null ? scriptCache.compile(session, source) : session.compileScript(source);
+            } catch (RuntimeException e) {
+                session.close();
+                throw e;
+            }
+            compileSession = session;
+        }
+        return compiled;
+    }
+
+    /**
+     * Stop watching, cancel queued attaches and unload the script from all processes.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public void close() {
+        ProcessWatcher currentWatcher;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            currentWatcher = watcher;
+        }
+        if (currentWatcher != null) {
+            currentWatcher.close();
+        }
+        for (CompletableFuture<AttachScheduler.Result> future : pending.values()) {
+            future.cancel(false);
+        }
+        if (ownsScheduler) {
+            scheduler.close();
+        }
+        for (Integer pid : members.keySet()) {
+            Member member = members.remove(pid);
+            if (member != null) {
+                release(member.session, member.script);
+            }
+        }
+        synchronized (pending) {
+            if (compileSession != null) {
+                compileSession.close();
+                compileSession = null;
+            }
+        }
+    }
+
+    /**
+     * Unload a member's script, then release its session.
+     */
+    private static void release(Session session, Script script) {
+        try {
+            script.close();
+        } catch (RuntimeException e) {
+            // Process may have exited; the session is released below either way
+        }
+        session.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScriptFleet{device=%s, processes=%d, pending=%d}", device, members.size(), pending.size());
+    }
+}
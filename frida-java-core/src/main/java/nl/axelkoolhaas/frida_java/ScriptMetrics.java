@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Message counters of one script. Every update is also added to the
+ * process-wide totals of {@link FridaMetrics}.
+ *
+ * <p>Recording does not allocate. The object holds no reference to its script,
+ * so the JMX registration does not keep the script reachable.</p>
+ */
+public final class ScriptMetrics implements ScriptMetricsMXBean {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private final long id = NEXT_ID.getAndIncrement();
+    private final int pid;
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final Histogram handlerLatency = new Histogram();
+    private volatile int queueDepth;
+    private final AtomicBoolean registered = new AtomicBoolean();
+
+    ScriptMetrics(int pid) {
+        this.pid = pid;
+    }
+
+    /**
+     * Get the ID distinguishing this script in JMX object names.
+     */
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public int getPid() {
+        return pid;
+    }
+
+    @Override
+    public long getMessagesIn() {
+        return messagesIn.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getMessagesOut() {
+        return messagesOut.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public Histogram.Snapshot getHandlerLatency() {
+        return handlerLatency.snapshot();
+    }
+
+    void messageIn(long size) {
+        messagesIn.increment();
+        bytesIn.add(size);
+        FridaMetrics.MESSAGES_IN.increment();
+        FridaMetrics.BYTES_IN.add(size);
+    }
+
+    void messageOut(String message, byte[] data) {
+        long size = size(message, data);
+        messagesOut.increment();
+        bytesOut.add(size);
+        FridaMetrics.MESSAGES_OUT.increment();
+        FridaMetrics.BYTES_OUT.add(size);
+    }
+
+    void handled(long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        handlerLatency.record(nanos);
+        FridaMetrics.HANDLER_LATENCY.record(nanos);
+    }
+
+    /**
+     * Update the queue depth; called with the message lock of the script held.
+     */
+    void queueDepth(int depth) {
+        FridaMetrics.QUEUE_DEPTH.add(depth - queueDepth);
+        queueDepth = depth;
+    }
+
+    /**
+     * Claim the JMX registration of this script.
+     * @return true for the first call only
+     */
+    boolean markRegistered() {
+        return registered.compareAndSet(false, true);
+    }
+
+    /**
+     * Get the size of a message on the wire: the UTF-8 encoded JSON plus the data.
+     */
+    static long size(String message, byte[] data) {
+        return (message != null ? utf8Length(message) : 0) + (data != null ? data.length : 0);
+    }
+
+    /**
+     * Count the UTF-8 bytes of a string without encoding it.
+     */
+    static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScriptMetrics{id=%d, pid=%d, in=%d, out=%d, queued=%d}",
+            id, pid, getMessagesIn(), getMessagesOut(), queueDepth);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+/**
+ * JMX view of the metrics of one script, registered as
+ * {@code nl.axelkoolhaas.frida_java:type=Script,pid=<pid>,id=<id>} while the
+ * script is open.
+ */
+public interface ScriptMetricsMXBean {
+
+    /** Process ID of the session the script runs in, or 0 if unknown */
+    int getPid();
+
+    /** Messages received from the script */
+    long getMessagesIn();
+
+    /** Size of the messages received: JSON characters plus data bytes */
+    long getBytesIn();
+
+    /** Messages posted to the script */
+    long getMessagesOut();
+
+    /** Size of the messages posted: JSON characters plus data bytes */
+    long getBytesOut();
+
+    /** Messages currently queued because no handler is set */
+    int getQueueDepth();
+
+    /** Time spent in the message handler of the script */
+    Histogram.Snapshot getHandlerLatency();
+}
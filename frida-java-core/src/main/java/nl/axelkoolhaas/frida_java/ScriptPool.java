@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of created but not yet loaded scripts in a session.
+ *
+ * <p>The source is compiled once; a background thread keeps up to {@code capacity}
+ * scripts created from the compiled bytes, so activating one with {@link #acquire()}
+ * only costs {@link Script#load()}. When the pool is empty, acquire creates a script
+ * on the calling thread and counts a miss.</p>
+ *
+ * <p>Acquired scripts belong to the caller. Use with try-with-resources or call
+ * {@link #close()} to unload the scripts still waiting in the pool.</p>
+ */
+public class ScriptPool implements AutoCloseable {
+
+    private final Session session;
+    private final String source;
+    private final int capacity;
+    private final ArrayDeque<Script> warm = new ArrayDeque<>();
+    private final ExecutorService refiller;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    /** Compiled source, shared by concurrent creators; compiled outside the pool's lock */
+    private CompletableFuture<byte[]> compiled;
+    private boolean refilling = false;
+    private boolean closed = false;
+
+    /**
+     * Create a pool and start filling it in the background.
+     * @param session Session to create the scripts in
+     * @param source JavaScript source code
+     * @param capacity Number of scripts to keep ready
+     */
+    public ScriptPool(Session session, String source, int capacity) {
+        if (session == null || source == null) {
+            throw new IllegalArgumentException("Session and source must not be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.session = session;
+        this.source = source;
+        this.capacity = capacity;
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frida-script-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleRefill();
+    }
+
+    /**
+     * Take a script from the pool and load it.
+     * @return Loaded script
+     * @throws IllegalStateException if the pool is closed
+     * @throws RuntimeException if creating or loading the script fails
+     */
+    public Script acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Take a script from the pool, install a message handler and load it.
+     * The handler is installed before load, so no message sent during load is missed.
+     * @param handler Message handler, or null
+     * @return Loaded script
+     * @throws IllegalStateException if the pool is closed
+     * @throws RuntimeException if creating or loading the script fails
+     */
+    public Script acquire(Script.MessageHandler handler) {
+        Script script;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("ScriptPool is closed");
+            }
+            script = warm.poll();
+        }
+        if (script != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            script = create();
+        }
+        scheduleRefill();
+        try {
+            if (handler != null) {
+                script.setMessageHandler(handler);
+            }
+            script.load();
+        } catch (RuntimeException e) {
+            script.close();
+            throw e;
+        }
+        return script;
+    }
+
+    /**
+     * Get the number of scripts ready in the pool.
+     * @return Number of warm scripts
+     */
+    public synchronized int getWarmCount() {
+        return warm.size();
+    }
+
+    /**
+     * Get the number of scripts the pool keeps ready.
+     * @return Capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of acquires served from the pool.
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of acquires that had to create a script.
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Script create() {
+        return session.createScriptFromBytes(compiled());
+    }
+
+    /**
+     * Get the compiled source, compiling it on the first call. A failed compile is retried by the next caller.
+     */
+    private byte[] compiled() {
+        CompletableFuture<byte[]> future;
+        boolean owner = false;
+        synchronized (this) {
+            future = compiled;
+            if (future == null || future.isCompletedExceptionally()) {
+                future = new CompletableFuture<>();
+                compiled = future;
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                future.complete(session.compileScript(source));
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void scheduleRefill() {
+        if (closed || refilling || warm.size() >= capacity) {
+            return;
+        }
+        refilling = true;
+        try {
+            refiller.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refilling = false;
+        }
+    }
+
+    private void refill() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (closed || warm.size() >= capacity) {
+                        return;
+                    }
+                }
+                Script script = create();
+                boolean keep;
+                synchronized (this) {
+                    keep = !closed;
+                    if (keep) {
+                        warm.add(script);
+                    }
+                }
+                if (!keep) {
+                    script.close();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Try again on the next acquire
+            System.err.println("Warning: Failed to refill script pool: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                refilling = false;
+            }
+        }
+    }
+
+    /**
+     * Stop refilling and unload the scripts still in the pool. Acquired scripts are not affected.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public void close() {
+        List<Script> remaining;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remaining = new ArrayList<>(warm);
+            warm.clear();
+        }
+        refiller.shutdown();
+        for (Script script : remaining) {
+            try {
+                script.close();
+            } catch (RuntimeException e) {
+                // Session may be gone already
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScriptPool{capacity=%d, warm=%d, hits=%d, misses=%d}",
+            capacity, getWarmCount(), getHitCount(), getMissCount());
+    }
+}
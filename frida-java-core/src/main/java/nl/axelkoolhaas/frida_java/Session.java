@@ -19,6 +19,15 @@
 
 package nl.axelkoolhaas.frida_java;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Represents a Frida session attached to a process.
  * A session allows script creation and communication with the target process.
@@ -29,10 +38,41 @@ package nl.axelkoolhaas.frida_java;
  */
 public class Session implements AutoCloseable {
 
-    /** Native pointer to the FridaSession object */
-    private final long nativePtr;
+    /** Native pointer to the FridaSession object, 0 once released */
+    private volatile long nativePtr;
     private volatile boolean closed = false;
 
+    /** Releases the native reference, or the lease for a shared handle, at most once */
+    private final NativeCleaner.Ref cleanable;
+
+    /** Shared registry state if this is a handle handed out by {@link SessionRegistry}, otherwise null */
+    private final SessionRegistry.Lease lease;
+    private volatile boolean released = false;
+
+    /** Guards the detached handlers and the detached signal connection */
+    private final List<DetachedHandler> detachedHandlers = new ArrayList<>();
+    private long detachedSignalId;
+
+    /** Reason the session detached, null while attached */
+    private volatile DetachReason detachReason;
+    private volatile Crash crash;
+
+    /** Set once the frida-core session itself is gone, not just this handle */
+    private volatile boolean sessionGone = false;
+
+    /** Device the session was attached through, or null if unknown */
+    private volatile Device device;
+    private volatile String deviceId;
+
+    /** Resumes the session after a lost connection; kept in the lease for shared handles */
+    private volatile SessionResumer resumer;
+
+    /**
+     * Loaded scripts with a message handler. Native code holds scripts weakly,
+     * so this keeps them receiving messages while only the target refers to them.
+     */
+    private final Set<Script> activeScripts = ConcurrentHashMap.newKeySet();
+
     /**
      * Session detach reasons
      */
@@ -41,7 +81,39 @@ public class Session implements AutoCloseable {
         PROCESS_REPLACED,
         PROCESS_TERMINATED,
         CONNECTION_TERMINATED,
-        DEVICE_LOST
+        DEVICE_LOST;
+
+        /**
+         * Map a FridaSessionDetachReason value, which starts at 1.
+         * Values added by newer frida-core versions map to DEVICE_LOST, so they are never resumed.
+         */
+        static DetachReason fromNative(int value) {
+            DetachReason[] reasons = values();
+            return value >= 1 && value <= reasons.length ? reasons[value - 1] : DEVICE_LOST;
+        }
+    }
+
+    /**
+     * Session detached handler interface
+     */
+    public interface DetachedHandler {
+        /**
+         * Called once when the session is detached.
+         * @param reason Why the session was detached
+         * @param crash Crash details if the process crashed, otherwise null
+         */
+        void onDetached(DetachReason reason, Crash crash);
+    }
+
+    /**
+     * Runs detached handlers in order, away from the Frida main context thread
+     */
+    private static final class Events {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frida-session-events");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -49,7 +121,23 @@ public class Session implements AutoCloseable {
      * @param nativePtr Native pointer to FridaSession
      */
     Session(long nativePtr) {
+        this(nativePtr, null);
+    }
+
+    /**
+     * Internal constructor for handles onto a registry-tracked session.
+     * @param nativePtr Native pointer to FridaSession
+     * @param lease Registry state shared by all handles onto the session
+     */
+    Session(long nativePtr, SessionRegistry.Lease lease) {
         this.nativePtr = nativePtr;
+        this.lease = lease;
+        // A shared handle does not own the native session; the registry's primary session does
+        this.cleanable = lease != null
+            ? NativeCleaner.register(this, lease::releaseCollected)
+            : NativeCleaner.register(this, nativePtr);
+        // Holds a weak reference, so an unclosed session still becomes unreachable
+        this.detachedSignalId = nativePtr != 0 ? connectDetachedNative() : 0;
     }
 
     /**
@@ -60,21 +148,88 @@ public class Session implements AutoCloseable {
 
     /**
      * Check if this session is detached.
+     * A shared session handle also counts as detached once it has been released.
      * @return true if the session is detached
      */
-    public native boolean isDetached();
+    public boolean isDetached() {
+        return released || detachReason != null || nativePtr == 0 || isDetachedNative();
+    }
+
+    /**
+     * Get why this session was detached, as reported by the detached signal.
+     * @return Detach reason, or null while the session is attached
+     */
+    public DetachReason getDetachReason() {
+        return detachReason;
+    }
+
+    /**
+     * Get the crash that ended this session.
+     * @return Crash details, or null if the session is attached or did not end in a crash
+     */
+    public Crash getCrash() {
+        return crash;
+    }
 
     /**
      * Detach from the target process.
+     * For a shared session handle this releases the handle; the target is only
+     * detached from once every handle onto the session has been released.
      * @throws RuntimeException if detach fails
      */
-    public native void detach();
+    public void detach() {
+        FridaEvents.Detach event = new FridaEvents.Detach();
+        boolean observed = Tracing.ENABLED || event.isEnabled();
+        int pid = 0;
+        if (lease == null) {
+            pid = observed ? getPid() : 0;
+        } else {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                // Read before releasing, a shared handle must not touch the session afterwards
+                pid = observed ? getPid() : 0;
+                disconnectDetachedSignal();
+                released = true;
+            }
+        }
+        NativeCall call = NativeCall.begin("Session.detach", event, null, null, pid, null);
+        try {
+            if (lease == null) {
+                detachNative();
+            } else {
+                releaseNative();
+            }
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        // The signal may arrive after this handle is closed, so report the own detach directly
+        markDetached(DetachReason.APPLICATION_REQUESTED, null, false);
+        if (call.succeeded()) {
+            event.pid = pid;
+            event.commit();
+        }
+    }
+
+    /**
+     * Check if the underlying frida-core session is detached.
+     */
+    native boolean isDetachedNative();
+
+    /**
+     * Detach the underlying frida-core session.
+     */
+    native void detachNative();
 
     /**
      * Closes this session and releases any system resources associated with it.
-     * This method calls detach() if the session is not already detached.
+     * This method calls detach() if the session is not already detached, then
+     * drops the native session reference.
      * This method is idempotent and safe to call multiple times.
      * <b>Warning:</b> Always call close() explicitly or use try-with-resources.
+     * Sessions that become unreachable without being closed are released after
+     * garbage collection, but not detached unless they are shared handles.
      */
     @Override
     public void close() {
@@ -88,17 +243,44 @@ public class Session implements AutoCloseable {
                 System.err.println("Warning: Exception during session cleanup: " + e.getMessage());
             } finally {
                 closed = true;
+                activeScripts.clear();
+                disconnectDetachedSignal();
+                released = released || lease != null;
+                nativePtr = 0;
+                releaseNative();
             }
         }
     }
 
+    /**
+     * Drop the native reference, or the lease of a shared handle, on the calling thread.
+     */
+    private void releaseNative() {
+        if (lease == null) {
+            cleanable.clean();
+        } else if (cleanable.cancel()) {
+            lease.release();
+        }
+    }
+
     /**
      * Create a script in this session.
      * @param source JavaScript source code
      * @return Script object
      * @throws RuntimeException if script creation fails
      */
-    public native Script createScript(String source);
+    public Script createScript(String source) {
+        FridaEvents.CreateScript event = new FridaEvents.CreateScript();
+        NativeCall call = NativeCall.begin("Session.createScript", event, null, null, Tracing.ENABLED ? getPid() : 0, null);
+        Script script;
+        try {
+            script = createScriptNative(source);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        commitCreateScript(call, event, source, null);
+        return script;
+    }
 
     /**
      * Create a script in this session with options.
@@ -107,7 +289,32 @@ public class Session implements AutoCloseable {
      * @return Script object
      * @throws RuntimeException if script creation fails
      */
-    public native Script createScript(String source, String name);
+    public Script createScript(String source, String name) {
+        FridaEvents.CreateScript event = new FridaEvents.CreateScript();
+        NativeCall call = NativeCall.begin("Session.createScript", event, null, null, Tracing.ENABLED ? getPid() : 0, name);
+        Script script;
+        try {
+            script = createScriptNative(source, name);
+            script.setCreatedName(name);
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        commitCreateScript(call, event, source, name);
+        return script;
+    }
+
+    private native Script createScriptNative(String source);
+
+    private native Script createScriptNative(String source, String name);
+
+    private void commitCreateScript(NativeCall call, FridaEvents.CreateScript event, String source, String name) {
+        if (call.succeeded()) {
+            event.pid = getPid();
+            event.scriptName = name;
+            event.sourceSize = source != null ? source.length() : 0;
+            event.commit();
+        }
+    }
 
     /**
      * Enable child gating (spawn gating for child processes).
@@ -123,9 +330,39 @@ public class Session implements AutoCloseable {
 
     /**
      * Get the device this session is attached to.
-     * @return Device object
+     * For a shared session handle this is the device object whose attach returned the handle.
+     * @return Device object, or null if the session was not created through {@link Device#attach(int)}
+     */
+    public Device getDevice() {
+        return device;
+    }
+
+    void setDevice(Device device) {
+        this.device = device;
+        // Read now; the device object may be closed while the session is still in use
+        this.deviceId = device.getId();
+    }
+
+    /**
+     * Keep a loaded script with a message handler reachable, or stop doing so.
+     * @param script Script of this session
+     * @param active true while the script is loaded and has a handler
      */
-    public native Device getDevice();
+    void setScriptActive(Script script, boolean active) {
+        if (active && !closed && detachReason == null) {
+            activeScripts.add(script);
+        } else {
+            activeScripts.remove(script);
+        }
+    }
+
+    /**
+     * Get the ID of the device this session is attached to, as read when attaching.
+     * @return Device ID, or null if unknown
+     */
+    String getDeviceId() {
+        return deviceId;
+    }
 
     /**
      * Get session parameters (if available).
@@ -134,10 +371,46 @@ public class Session implements AutoCloseable {
     public native java.util.Map<String, Object> getParameters();
 
     /**
-     * Resume the session if it is suspended.
+     * Resume the session after its connection was lost. Only possible within the
+     * persist timeout the session was attached with; scripts survive the resume.
      * @throws RuntimeException if resume fails
+     * @see #setResumePolicy(ResumePolicy)
+     */
+    public void resume() {
+        NativeCall call = NativeCall.begin("Session.resume", null, null, null, Tracing.ENABLED ? getPid() : 0, null);
+        try {
+            resumeNative();
+        } catch (RuntimeException e) {
+            throw call.failed(e);
+        }
+        call.succeeded();
+    }
+
+    native void resumeNative();
+
+    /**
+     * Set how this session recovers from a lost connection.
+     * For a shared session handle the policy applies to every handle onto the session.
+     * Requires the session to be attached with a non-zero persist timeout.
+     * @param policy Resume policy, or null to report lost connections as detaches right away
+     */
+    public void setResumePolicy(ResumePolicy policy) {
+        SessionResumer created = policy != null ? new SessionResumer(policy) : null;
+        if (lease != null) {
+            lease.setResumer(created);
+        } else {
+            resumer = created;
+        }
+    }
+
+    /**
+     * Get how this session recovers from a lost connection.
+     * @return Resume policy, or null if none is set
      */
-    public native void resume();
+    public ResumePolicy getResumePolicy() {
+        SessionResumer current = lease != null ? lease.getResumer() : resumer;
+        return current != null ? current.getPolicy() : null;
+    }
 
     /**
      * Resume the session asynchronously.
@@ -186,10 +459,32 @@ public class Session implements AutoCloseable {
     /**
      * Create a script from bytes synchronously.
      * @param bytes JavaScript source code as bytes
-     * @param cancellable Optional cancellable object
+     * @param cancellable Must be null; cancellation is not supported
      * @return Script object
+     * @throws UnsupportedOperationException if a cancellable is given
      */
-    public native Script createScriptFromBytesSync(byte[] bytes, Object cancellable);
+    public Script createScriptFromBytesSync(byte[] bytes, Object cancellable) {
+        requireNoCancellable(cancellable);
+        return createScriptFromBytes(bytes);
+    }
+
+    /**
+     * Create a script from compiled bytes held in a direct buffer, such as a
+     * memory-mapped file. The remaining bytes of the buffer are used; its position is not changed.
+     * @param buffer Direct buffer with the compiled script
+     * @param runtime Runtime the script was compiled for
+     * @return Script object
+     * @throws IllegalArgumentException if the buffer is not direct
+     * @throws RuntimeException if script creation fails
+     */
+    public Script createScriptFromBuffer(java.nio.ByteBuffer buffer, Script.Runtime runtime) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("Buffer must be a direct buffer");
+        }
+        return createScriptFromBufferNative(buffer, buffer.position(), buffer.remaining(), runtime.ordinal());
+    }
+
+    private native Script createScriptFromBufferNative(java.nio.ByteBuffer buffer, int offset, int length, int runtime);
 
     /**
      * Compile a script in this session.
@@ -197,7 +492,22 @@ public class Session implements AutoCloseable {
      * @return Compiled script as bytes
      * @throws RuntimeException if compilation fails
      */
-    public native byte[] compileScript(String source);
+    public byte[] compileScript(String source) {
+        return compileScript(source, Script.Runtime.DEFAULT);
+    }
+
+    /**
+     * Compile a script for a specific runtime in this session.
+     * @param source JavaScript source code
+     * @param runtime Script runtime
+     * @return Compiled script as bytes
+     * @throws RuntimeException if compilation fails
+     */
+    public byte[] compileScript(String source, Script.Runtime runtime) {
+        return compileScriptNative(source, runtime.ordinal());
+    }
+
+    private native byte[] compileScriptNative(String source, int runtime);
 
     /**
      * Compile a script asynchronously.
@@ -218,10 +528,14 @@ public class Session implements AutoCloseable {
     /**
      * Compile a script synchronously.
      * @param source JavaScript source code
-     * @param cancellable Optional cancellable object
+     * @param cancellable Must be null; cancellation is not supported
      * @return Compiled script as bytes
+     * @throws UnsupportedOperationException if a cancellable is given
      */
-    public native byte[] compileScriptSync(String source, Object cancellable);
+    public byte[] compileScriptSync(String source, Object cancellable) {
+        requireNoCancellable(cancellable);
+        return compileScript(source);
+    }
 
     /**
      * Snapshot a script in this session.
@@ -229,7 +543,55 @@ public class Session implements AutoCloseable {
      * @return Snapshot as bytes
      * @throws RuntimeException if snapshot fails
      */
-    public native byte[] snapshotScript(String embedScript);
+    public byte[] snapshotScript(String embedScript) {
+        return snapshotScript(embedScript, null);
+    }
+
+    /**
+     * Snapshot the V8 heap after running a script and an optional warm-up script.
+     * Scripts created from the snapshot start with the prepared heap.
+     * @param embedScript JavaScript source code to embed
+     * @param warmupScript JavaScript source code run before the heap is captured, or null
+     * @return Snapshot as bytes
+     * @throws RuntimeException if snapshot fails
+     */
+    public byte[] snapshotScript(String embedScript, String warmupScript) {
+        return snapshotScriptNative(embedScript, warmupScript, Script.Runtime.V8.ordinal());
+    }
+
+    private native byte[] snapshotScriptNative(String embedScript, String warmupScript, int runtime);
+
+    /**
+     * Create a V8 script that starts from a snapshot made with {@link #snapshotScript(String, String)}.
+     * @param source JavaScript source code
+     * @param snapshot Snapshot
+     * @return Script object
+     * @throws RuntimeException if script creation fails
+     */
+    public Script createScriptFromSnapshot(String source, byte[] snapshot) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocateDirect(snapshot.length);
+        buffer.put(snapshot).flip();
+        return createScriptFromSnapshot(source, buffer);
+    }
+
+    /**
+     * Create a V8 script that starts from a snapshot held in a direct buffer, such as a memory-mapped file.
+     * The remaining bytes of the buffer are used; its position is not changed.
+     * @param source JavaScript source code
+     * @param snapshot Direct buffer with the snapshot
+     * @return Script object
+     * @throws IllegalArgumentException if the buffer is not direct
+     * @throws RuntimeException if script creation fails
+     */
+    public Script createScriptFromSnapshot(String source, java.nio.ByteBuffer snapshot) {
+        if (!snapshot.isDirect()) {
+            throw new IllegalArgumentException("Buffer must be a direct buffer");
+        }
+        return createScriptFromSnapshotNative(source, snapshot, snapshot.position(), snapshot.remaining(),
+            Script.Runtime.V8.ordinal());
+    }
+
+    private native Script createScriptFromSnapshotNative(String source, java.nio.ByteBuffer snapshot, int offset, int length, int runtime);
 
     /**
      * Snapshot a script asynchronously.
@@ -250,10 +612,14 @@ public class Session implements AutoCloseable {
     /**
      * Snapshot a script synchronously.
      * @param embedScript JavaScript source code to embed
-     * @param cancellable Optional cancellable object
+     * @param cancellable Must be null; cancellation is not supported
      * @return Snapshot as bytes
+     * @throws UnsupportedOperationException if a cancellable is given
      */
-    public native byte[] snapshotScriptSync(String embedScript, Object cancellable);
+    public byte[] snapshotScriptSync(String embedScript, Object cancellable) {
+        requireNoCancellable(cancellable);
+        return snapshotScript(embedScript);
+    }
 
     /**
      * Set up a peer connection for this session.
@@ -319,33 +685,156 @@ public class Session implements AutoCloseable {
     public native Object joinPortalSync(String address, Object options, Object cancellable);
 
     /**
-     * Get the persist timeout for this session, if available.
-     * @return Persist timeout in milliseconds
+     * Get the persist timeout this session was attached with.
+     * @return Persist timeout in seconds, 0 if the session cannot be resumed
      */
     public native int getPersistTimeout();
 
     /**
      * Register a callback to be invoked when the session is detached.
      * @param callback Runnable to invoke on detach
+     * @see #onDetachedWithReason(DetachedHandler)
      */
-    public native void onDetached(Runnable callback);
+    public void onDetached(Runnable callback) {
+        Objects.requireNonNull(callback, "callback");
+        onDetachedWithReason((reason, crash) -> callback.run());
+    }
 
     /**
      * Register a callback to be invoked when the session is detached, with reason and crash info.
-     * @param callback Callback accepting DetachReason and optional Crash object
+     *
+     * <p>Callbacks run once, in registration order, on a shared daemon thread rather
+     * than on the Frida main context, so they may block or call back into the
+     * session. A callback registered after the session detached runs right away
+     * on that thread.</p>
+     *
+     * @param handler Handler receiving the detach reason and crash details
+     */
+    public void onDetachedWithReason(DetachedHandler handler) {
+        Objects.requireNonNull(handler, "handler");
+        synchronized (detachedHandlers) {
+            if (detachReason == null) {
+                detachedHandlers.add(handler);
+                return;
+            }
+        }
+        DetachReason reason = detachReason;
+        Crash details = crash;
+        Events.EXECUTOR.execute(() -> notifyDetached(handler, reason, details));
+    }
+
+    /**
+     * Called from native code when the session is detached, on the Frida main context thread.
+     */
+    void dispatchDetached(int reason, boolean crashed, int crashPid, String processName, String summary, String report) {
+        DetachReason detached = DetachReason.fromNative(reason);
+        Crash details = crashed ? new Crash(crashPid, processName, summary, report) : null;
+        SessionResumer current = lease != null ? lease.getResumer() : resumer;
+        if (detached == DetachReason.CONNECTION_TERMINATED && current != null && getNativePtr() != 0
+                && getPersistTimeout() > 0) {
+            // Keep scripts and handlers; only report the detach if the session cannot be resumed.
+            // A shared session is resumed through its primary session, so closing one handle
+            // does not end the attempts for the others.
+            CompletableFuture<Boolean> resuming = lease != null
+                ? current.resume(lease.getPrimary(), lease::isHeld)
+                : current.resume(this, () -> getDetachReason() == null);
+            resuming.thenAccept(resumed -> {
+                if (!resumed) {
+                    markDetached(detached, details, true);
+                }
+            });
+            return;
+        }
+        markDetached(detached, details, true);
+    }
+
+    /**
+     * Record the detach and hand the registered handlers to the event thread.
+     * @param sessionDetached true if the frida-core session itself detached, false if only this handle did
+     */
+    private void markDetached(DetachReason reason, Crash details, boolean sessionDetached) {
+        DetachedHandler[] handlers;
+        activeScripts.clear();
+        if (sessionDetached || lease == null) {
+            sessionGone = true;
+        }
+        synchronized (detachedHandlers) {
+            if (detachReason != null) {
+                return;
+            }
+            crash = details;
+            detachReason = reason;
+            handlers = detachedHandlers.toArray(new DetachedHandler[0]);
+            detachedHandlers.clear();
+        }
+        if (sessionDetached && lease != null) {
+            // Let the next attach to the pid start a new session right away
+            lease.detached();
+        }
+        if (handlers.length > 0) {
+            Events.EXECUTOR.execute(() -> {
+                for (DetachedHandler handler : handlers) {
+                    notifyDetached(handler, reason, details);
+                }
+            });
+        }
+    }
+
+    /**
+     * Check whether the frida-core session behind this handle reported its detach,
+     * so operations on it can fail without a round trip.
      */
-    public native void onDetachedWithReason(Object callback); // Use appropriate functional interface
+    boolean isSessionGone() {
+        return sessionGone;
+    }
+
+    private static void notifyDetached(DetachedHandler handler, DetachReason reason, Crash crash) {
+        try {
+            handler.onDetached(reason, crash);
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Exception in session detached handler: " + e.getMessage());
+        }
+    }
+
+    private void disconnectDetachedSignal() {
+        long signalId;
+        synchronized (detachedHandlers) {
+            signalId = detachedSignalId;
+            detachedSignalId = 0;
+        }
+        if (signalId != 0 && getNativePtr() != 0) {
+            disconnectDetachedNative(signalId);
+        }
+    }
+
+    /**
+     * Route the detached signal of the native session to
+     * {@link #dispatchDetached(int, boolean, int, String, String, String)}.
+     * @return Signal handler ID
+     */
+    native long connectDetachedNative();
+
+    native void disconnectDetachedNative(long signalId);
+
+    private static void requireNoCancellable(Object cancellable) {
+        if (cancellable != null) {
+            throw new UnsupportedOperationException("Cancellation is not supported; pass null");
+        }
+    }
 
     /**
      * Get the native pointer (for internal use).
      * @return Native pointer value
      */
     long getNativePtr() {
-        return nativePtr;
+        return released ? 0 : nativePtr;
     }
 
     @Override
     public String toString() {
+        if (getNativePtr() == 0) {
+            return "Session{closed}";
+        }
         return String.format("Session{pid=%d, detached=%s}", getPid(), isDetached());
     }
 }
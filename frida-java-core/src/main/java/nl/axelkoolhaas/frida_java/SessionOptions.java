@@ -20,24 +20,58 @@
 package nl.axelkoolhaas.frida_java;
 
 /**
- * Options for creating a session.
+ * Options for creating a session, passed to {@link Device#attach(int, SessionOptions)}.
  */
-public class SessionOptions {
+public class SessionOptions implements AutoCloseable {
     private long nativePtr;
+    private boolean closed = false;
 
     public SessionOptions() {}
     SessionOptions(long nativePtr) { this.nativePtr = nativePtr; }
 
-    // Native method stubs for options
     /**
-     * Set the persist timeout for the session.
-     * @param timeout Timeout in milliseconds
+     * Get the native pointer, creating the native options on first use.
+     * @return Native pointer value
+     */
+    synchronized long getNativePtr() {
+        if (closed) {
+            throw new IllegalStateException("SessionOptions is closed");
+        }
+        if (nativePtr == 0) {
+            nativePtr = createNative();
+        }
+        return nativePtr;
+    }
+
+    /**
+     * Releases the native options, if any were created.
+     * Sessions already attached with these options are not affected.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (nativePtr != 0) {
+                disposeNative(nativePtr);
+                nativePtr = 0;
+            }
+        }
+    }
+
+    private static native long createNative();
+    private static native void disposeNative(long nativePtr);
+
+    /**
+     * Set how long the agent keeps the session alive after the connection is lost,
+     * so it can be resumed with {@link Session#resume()} instead of re-attached.
+     * @param timeout Timeout in seconds, 0 to detach right away
      */
     public native void setPersistTimeout(int timeout);
 
     /**
      * Get the persist timeout for the session.
-     * @return Timeout in milliseconds
+     * @return Timeout in seconds
      */
     public native int getPersistTimeout();
 
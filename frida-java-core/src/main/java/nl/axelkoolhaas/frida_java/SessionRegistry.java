@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tracks the sessions a device holds, keyed by pid.
+ *
+ * <p>{@link Device#attach(int)} goes through the registry of its device. Concurrent
+ * attaches to the same pid collapse into a single frida-core attach, and every
+ * caller receives its own {@link Session} handle onto the shared session. The
+ * underlying session is detached when the last handle is closed or detached.</p>
+ *
+ * <p>Registries are shared by all {@link Device} objects with the same device ID.
+ * This class is thread-safe.</p>
+ */
+public class SessionRegistry {
+
+    private static final ConcurrentMap<String, SessionRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    /**
+     * Detaches sessions whose last handle was garbage collected, so a slow detach
+     * does not hold up the cleaner thread
+     */
+    private static final class Releaser {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frida-session-release");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Attach operation performed once per pid
+     */
+    interface Attacher {
+        Session attach(int pid);
+    }
+
+    /**
+     * Shared state of all handles onto one frida-core session
+     */
+    static final class Lease {
+        private final SessionRegistry registry;
+        private final int pid;
+        private final CompletableFuture<Session> primary = new CompletableFuture<>();
+        private int refs;
+        private volatile SessionResumer resumer;
+
+        private Lease(SessionRegistry registry, int pid) {
+            this.registry = registry;
+            this.pid = pid;
+        }
+
+        int getPid() {
+            return pid;
+        }
+
+        /**
+         * Get the session owning the native session, once attached.
+         */
+        Session getPrimary() {
+            return primary.getNow(null);
+        }
+
+        /**
+         * Check whether any handle still holds the session.
+         */
+        boolean isHeld() {
+            synchronized (registry) {
+                return refs > 0;
+            }
+        }
+
+        SessionResumer getResumer() {
+            return resumer;
+        }
+
+        void setResumer(SessionResumer resumer) {
+            this.resumer = resumer;
+        }
+
+        /**
+         * Release one handle, detaching the shared session if it was the last one.
+         */
+        void release() {
+            registry.release(this, false);
+        }
+
+        /**
+         * Release the handle of a collected session object. Called on the cleaner
+         * thread, so detaching the shared session is handed off.
+         */
+        void releaseCollected() {
+            registry.release(this, true);
+        }
+
+        /**
+         * Forget the shared session once frida-core reports it detached.
+         * Open handles keep their references until they are released.
+         */
+        void detached() {
+            registry.forget(this);
+        }
+
+        private boolean isUsable() {
+            if (!primary.isDone()) {
+                return true;
+            }
+            if (primary.isCompletedExceptionally()) {
+                return false;
+            }
+            return !primary.join().isDetachedNative();
+        }
+    }
+
+    private final String deviceId;
+    private final IntHashMap<Lease> leases = new IntHashMap<>();
+
+    private SessionRegistry(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    /**
+     * Get the registry shared by all device objects with the ID of the given device.
+     */
+    static SessionRegistry of(Device device) {
+        return REGISTRIES.computeIfAbsent(device.getId(), SessionRegistry::new);
+    }
+
+    /**
+     * Get a handle onto the session with a pid, attaching only if no usable session exists.
+     * @param pid Process ID
+     * @param device Device object attaching, reported by the handle's {@link Session#getDevice()}
+     * @param attacher Performs the actual attach when needed
+     * @return New session handle
+     * @throws RuntimeException if the attach fails
+     */
+    Session acquire(int pid, Device device, Attacher attacher) {
+        Lease lease;
+        boolean owner = false;
+        synchronized (this) {
+            lease = leases.get(pid);
+            if (lease == null || !lease.isUsable()) {
+                lease = new Lease(this, pid);
+                leases.put(pid, lease);
+                owner = true;
+            }
+            lease.refs++;
+        }
+        if (owner) {
+            try {
+                lease.primary.complete(attacher.attach(pid));
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    if (leases.get(pid) == lease) {
+                        leases.remove(pid);
+                    }
+                }
+                lease.primary.completeExceptionally(e);
+                throw e;
+            }
+        }
+        Session primary;
+        try {
+            primary = lease.primary.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+        Session handle = new Session(primary.getNativePtr(), lease);
+        // The device that attached first may belong to another, since closed, device manager
+        handle.setDevice(device);
+        return handle;
+    }
+
+    private synchronized void forget(Lease lease) {
+        if (leases.get(lease.pid) == lease) {
+            leases.remove(lease.pid);
+        }
+    }
+
+    private void release(Lease lease, boolean offload) {
+        synchronized (this) {
+            if (--lease.refs > 0) {
+                return;
+            }
+            if (leases.get(lease.pid) == lease) {
+                leases.remove(lease.pid);
+            }
+        }
+        Session primary = lease.primary.join();
+        if (!offload) {
+            detachPrimary(primary);
+            return;
+        }
+        Releaser.EXECUTOR.execute(() -> {
+            try {
+                detachPrimary(primary);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Failed to detach unreachable session with pid " + lease.pid + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private static void detachPrimary(Session primary) {
+        try {
+            if (!primary.isDetachedNative()) {
+                primary.detachNative();
+            }
+        } finally {
+            primary.close();
+        }
+    }
+
+    /**
+     * Check whether the registry holds a session with a pid.
+     * @param pid Process ID
+     * @return true if a session is held or being attached
+     */
+    public synchronized boolean contains(int pid) {
+        return leases.containsKey(pid);
+    }
+
+    /**
+     * Get the number of handles onto the session with a pid.
+     * @param pid Process ID
+     * @return Number of open handles, 0 if no session is held
+     */
+    public synchronized int getHandleCount(int pid) {
+        Lease lease = leases.get(pid);
+        return lease != null ? lease.refs : 0;
+    }
+
+    /**
+     * Get the pids of all held sessions.
+     * @return Array of process IDs
+     */
+    public synchronized int[] getPids() {
+        return leases.keys();
+    }
+
+    /**
+     * Get the number of held sessions.
+     * @return Number of sessions
+     */
+    public synchronized int size() {
+        return leases.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SessionRegistry{device='%s', sessions=%d}", deviceId, leases.size());
+    }
+}
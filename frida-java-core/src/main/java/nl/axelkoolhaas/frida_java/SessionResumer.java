@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Resumes a frida-core session whose connection was lost, following a {@link ResumePolicy}.
+ *
+ * <p>One resumer is shared by all handles onto a session, so a lost connection
+ * leads to one series of attempts no matter how many handles observe it.</p>
+ */
+final class SessionResumer {
+
+    /**
+     * Runs resume attempts; they block, so never on the Frida main context thread
+     */
+    private static final class Scheduler {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frida-session-resume");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final ResumePolicy policy;
+    private CompletableFuture<Boolean> running;
+
+    SessionResumer(ResumePolicy policy) {
+        this.policy = policy;
+    }
+
+    ResumePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Start resuming, unless a series of attempts is already under way.
+     * @param session Session owning the native session, the primary session if it is shared
+     * @param wanted Whether the application still holds the session; checked before every attempt
+     * @return Completes with true once resumed, or false after the last failed attempt
+     */
+    synchronized CompletableFuture<Boolean> resume(Session session, BooleanSupplier wanted) {
+        if (running == null || running.isDone()) {
+            running = new CompletableFuture<>();
+            schedule(session, wanted, running, 0);
+        }
+        return running;
+    }
+
+    private void schedule(Session session, BooleanSupplier wanted, CompletableFuture<Boolean> result, int attempt) {
+        Scheduler.EXECUTOR.schedule(() -> attempt(session, wanted, result, attempt),
+            policy.delayNanos(attempt), TimeUnit.NANOSECONDS);
+    }
+
+    private void attempt(Session session, BooleanSupplier wanted, CompletableFuture<Boolean> result, int attempt) {
+        if (session.getNativePtr() == 0 || !wanted.getAsBoolean()) {
+            // Closed or detached by the application in the meantime
+            result.complete(false);
+            return;
+        }
+        try {
+            session.resumeNative();
+            result.complete(true);
+        } catch (RuntimeException e) {
+            if (attempt + 1 < policy.getMaxAttempts()) {
+                schedule(session, wanted, result, attempt + 1);
+            } else {
+                System.err.println("Warning: Failed to resume session after " + (attempt + 1)
+                    + " attempts: " + e.getMessage());
+                result.complete(false);
+            }
+        }
+    }
+}
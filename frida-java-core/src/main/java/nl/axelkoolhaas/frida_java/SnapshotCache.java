@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of V8 heap snapshots made with {@link Session#snapshotScript(String, String)}.
+ *
+ * <p>Snapshots are keyed by the SHA-256 of the embedded script, the warm-up script,
+ * the Frida version and the target architecture, stored in a directory and read
+ * back as memory-mapped files. Expensive agent initialization placed in the embedded and warm-up scripts
+ * runs once; later scripts start from the prepared heap.</p>
+ *
+ * <p>A snapshot only fits targets of the architecture it was made on. The architecture
+ * is the {@code arch} system parameter of the session's device, so one cache can serve
+ * local, USB and remote targets. Snapshots for sessions whose device is unknown, or
+ * does not report its architecture, are made every time and not cached.</p>
+ *
+ * <p>This class is thread-safe. Several processes may share a cache directory.</p>
+ */
+public class SnapshotCache {
+
+    private static volatile SnapshotCache defaultCache;
+
+    /** Target architecture per device ID; querying it is a round trip to the device */
+    private static final Map<String, String> ARCHITECTURES = new ConcurrentHashMap<>();
+
+    private final CacheDirectory directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache stored in a directory. The directory is created when the first entry is stored.
+     * @param directory Cache directory
+     */
+    public SnapshotCache(Path directory) {
+        this.directory = new CacheDirectory(directory);
+    }
+
+    /**
+     * Get the shared cache in {@code <root>/snapshots}, where root is the value of the
+     * {@value ScriptCache#CACHE_DIR_PROPERTY} system property or {@code ~/.cache/frida-java}.
+     * @return Default snapshot cache
+     */
+    public static SnapshotCache getDefault() {
+        SnapshotCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (SnapshotCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    cache = new SnapshotCache(CacheDirectory.getCacheRoot().resolve("snapshots"));
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the cache directory.
+     * @return Cache directory
+     */
+    public Path getDirectory() {
+        return directory.getPath();
+    }
+
+    /**
+     * Create a V8 script that starts from the cached snapshot of an embedded script,
+     * making the snapshot in the session first on a cache miss.
+     * @param session Session to create the script in
+     * @param source JavaScript source code of the script
+     * @param embedScript JavaScript source code embedded in the snapshot
+     * @param warmupScript JavaScript source code run before the heap is captured, or null
+     * @return Script object, not yet loaded
+     * @throws RuntimeException if snapshotting or script creation fails
+     */
+    public Script createScript(Session session, String source, String embedScript, String warmupScript) {
+        return session.createScriptFromSnapshot(source, getSnapshot(session, embedScript, warmupScript));
+    }
+
+    /**
+     * Get a snapshot as a read-only buffer over the cache file, making it in the session on a cache miss.
+     * @param session Session used to snapshot on a miss
+     * @param embedScript JavaScript source code embedded in the snapshot
+     * @param warmupScript JavaScript source code run before the heap is captured, or null
+     * @return Direct buffer with the snapshot
+     * @throws RuntimeException if snapshotting fails
+     */
+    public ByteBuffer getSnapshot(Session session, String embedScript, String warmupScript) {
+        String arch = targetArchitecture(session);
+        if (arch == null) {
+            // Could be served to a target of another architecture
+            misses.increment();
+            return CacheDirectory.direct(session.snapshotScript(embedScript, warmupScript));
+        }
+        String key = key(embedScript, warmupScript, Frida.getVersionString(), arch);
+        ByteBuffer cached = directory.lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        byte[] snapshot = session.snapshotScript(embedScript, warmupScript);
+        ByteBuffer stored = directory.store(key, snapshot) ? directory.lookup(key) : null;
+        // Cache directory not writable; still hand out the snapshot
+        return stored != null ? stored : CacheDirectory.direct(snapshot);
+    }
+
+    /**
+     * Check whether a snapshot is cached for the target of a session.
+     * @param session Session whose target architecture the snapshot must fit
+     * @param embedScript JavaScript source code embedded in the snapshot
+     * @param warmupScript Warm-up script, or null
+     * @return true if cached for the running Frida version and the target architecture
+     */
+    public boolean contains(Session session, String embedScript, String warmupScript) {
+        String arch = targetArchitecture(session);
+        return arch != null && directory.contains(key(embedScript, warmupScript, Frida.getVersionString(), arch));
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that required a new snapshot.
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Remove all entries from the cache directory.
+     * @throws java.io.UncheckedIOException if the directory cannot be read
+     */
+    public void clear() {
+        directory.clear();
+    }
+
+    /**
+     * Compute the cache key of a snapshot.
+     */
+    static String key(String embedScript, String warmupScript, String fridaVersion, String arch) {
+        return CacheDirectory.key(embedScript, warmupScript, fridaVersion, Script.Runtime.V8.name(), arch);
+    }
+
+    /**
+     * Get the architecture of a session's target, such as "x64" or "arm64".
+     * @return Architecture, or null if the device is unknown or does not report it
+     */
+    static String targetArchitecture(Session session) {
+        String id = session.getDeviceId();
+        if (id == null) {
+            return null;
+        }
+        String arch = ARCHITECTURES.get(id);
+        if (arch == null) {
+            Device device = session.getDevice();
+            if (device == null || device.getNativePtr() == 0) {
+                // Closed since attaching; the architecture cannot be queried
+                return null;
+            }
+            try {
+                Map<String, Object> parameters = device.querySystemParametersSync(null);
+                Object value = parameters != null ? parameters.get("arch") : null;
+                if (value == null) {
+                    return null;
+                }
+                arch = value.toString();
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Failed to query the architecture of device " + id + ": " + e.getMessage());
+                return null;
+            }
+            ARCHITECTURES.put(id, arch);
+        }
+        return arch;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnapshotCache{directory=%s, hits=%d, misses=%d}", directory, getHitCount(), getMissCount());
+    }
+}
@@ -22,13 +22,46 @@ package nl.axelkoolhaas.frida_java;
 /**
  * Represents options for spawning a process on a Frida device.
  */
-public class SpawnOptions {
+public class SpawnOptions implements AutoCloseable {
     private long nativePtr;
+    private boolean closed = false;
 
     public SpawnOptions() {}
 
     SpawnOptions(long nativePtr) { this.nativePtr = nativePtr; }
 
+    /**
+     * Get the native pointer, creating the native options on first use.
+     * @return Native pointer value
+     */
+    synchronized long getNativePtr() {
+        if (closed) {
+            throw new IllegalStateException("SpawnOptions is closed");
+        }
+        if (nativePtr == 0) {
+            nativePtr = createNative();
+        }
+        return nativePtr;
+    }
+
+    /**
+     * Releases the native options, if any were created.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (nativePtr != 0) {
+                disposeNative(nativePtr);
+                nativePtr = 0;
+            }
+        }
+    }
+
+    private static native long createNative();
+    private static native void disposeNative(long nativePtr);
+
     // Async/sync/finish variants for all properties (if Frida API supports it)
     public native void getArgvAsync(Object cancellable, Object callback, Object callbackTarget);
     public native String[] getArgvFinish(Object asyncResult);
@@ -67,12 +100,22 @@ public class SpawnOptions {
 
     public native void getAuxAsync(Object cancellable, Object callback, Object callbackTarget);
     public native java.util.Map<String, Object> getAuxFinish(Object asyncResult);
+    /**
+     * Get the auxiliary spawn options.
+     * Values are typed as described for {@link Device#querySystemParametersSync(Object)}.
+     * @param cancellable Optional cancellable object
+     * @return Map of auxiliary options
+     */
     public native java.util.Map<String, Object> getAuxSync(Object cancellable);
     public native void setAuxAsync(java.util.Map<String, Object> aux, Object cancellable, Object callback, Object callbackTarget);
     public native void setAuxFinish(Object asyncResult);
+    /**
+     * Replace the auxiliary spawn options.
+     * Supported values are String, Boolean, integral numbers (sent as 64-bit integers),
+     * Double, Float, byte[], Map with String keys, Collection and Object[].
+     * @param aux Map of auxiliary options, or null to clear them
+     * @param cancellable Optional cancellable object
+     * @throws IllegalArgumentException if a value has an unsupported type
+     */
     public native void setAuxSync(java.util.Map<String, Object> aux, Object cancellable);
-
-    // Resource management if needed
-    // private native void disposeNative(long nativePtr);
-    // public void dispose() { ... }
 }
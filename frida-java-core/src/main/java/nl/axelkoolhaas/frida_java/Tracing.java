@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Dispatches native operations to the installed {@link FridaTracer}s.
+ *
+ * <p>Native calls report to it through {@link NativeCall}. Every use is guarded
+ * with {@link #ENABLED}, a static final flag, and call sites compute the target
+ * identifiers as {@code Tracing.ENABLED ? id : null}, so without a tracer the
+ * JIT folds the tracing away, including the evaluation of the identifiers.</p>
+ */
+final class Tracing {
+
+    /** Installed tracer, or null if none was found */
+    private static final FridaTracer TRACER = load();
+
+    /** Whether a tracer is installed */
+    static final boolean ENABLED = TRACER != null;
+
+    private Tracing() {}
+
+    static Object begin(String operation, String deviceId, int pid, String name) {
+        try {
+            return TRACER.begin(operation, deviceId, pid, name);
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Exception in tracer: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static void end(Object span, String operation, Throwable error) {
+        try {
+            TRACER.end(span, operation, error);
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Exception in tracer: " + e.getMessage());
+        }
+    }
+
+    private static FridaTracer load() {
+        List<FridaTracer> tracers = new ArrayList<>();
+        try {
+            for (FridaTracer tracer : ServiceLoader.load(FridaTracer.class)) {
+                tracers.add(tracer);
+            }
+        } catch (ServiceConfigurationError e) {
+            System.err.println("Warning: Failed to load tracer: " + e.getMessage());
+        }
+        switch (tracers.size()) {
+            case 0:
+                return null;
+            case 1:
+                return tracers.get(0);
+            default:
+                return new Composite(tracers.toArray(new FridaTracer[0]));
+        }
+    }
+
+    /**
+     * Calls several tracers in order, keeping one span per tracer.
+     */
+    private static final class Composite implements FridaTracer {
+        private final FridaTracer[] tracers;
+
+        Composite(FridaTracer[] tracers) {
+            this.tracers = tracers;
+        }
+
+        @Override
+        public Object begin(String operation, String deviceId, int pid, String name) {
+            Object[] spans = new Object[tracers.length];
+            for (int i = 0; i < tracers.length; i++) {
+                try {
+                    spans[i] = tracers[i].begin(operation, deviceId, pid, name);
+                } catch (RuntimeException e) {
+                    System.err.println("Warning: Exception in tracer: " + e.getMessage());
+                }
+            }
+            return spans;
+        }
+
+        @Override
+        public void end(Object span, String operation, Throwable error) {
+            Object[] spans = (Object[]) span;
+            for (int i = tracers.length - 1; i >= 0; i--) {
+                try {
+                    tracers[i].end(spans[i], operation, error);
+                } catch (RuntimeException e) {
+                    System.err.println("Warning: Exception in tracer: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backend that calls frida-core through {@code java.lang.foreign} (Java 22+).
+ *
+ * <p>Getters are plain downcalls into the frida-core symbols exported by the
+ * frida-java library, skipping the JNI method lookups of the native layer.
+ * Script messages arrive through a single upcall stub; its user data is a key
+ * into a map of weakly held connected scripts rather than a JNI reference, so
+ * a script that is never closed can still be collected.</p>
+ */
+final class FfmBackend implements NativeBackend {
+
+    private static final ValueLayout.OfLong GSIZE = ValueLayout.JAVA_LONG;
+
+    private final MethodHandle deviceGetId;
+    private final MethodHandle deviceGetName;
+    private final MethodHandle processGetPid;
+    private final MethodHandle processGetName;
+    private final MethodHandle signalConnectData;
+    private final MethodHandle signalHandlerDisconnect;
+    private final MethodHandle bytesGetData;
+    private final MethodHandle strlen;
+    private final MemorySegment messageCallback;
+    private final MemorySegment messageSignal;
+
+    /** Connected scripts by the key passed as user data of the message handler */
+    private final ConcurrentHashMap<Long, WeakReference<Script>> scripts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> keysBySignal = new ConcurrentHashMap<>();
+    private final AtomicLong nextKey = new AtomicLong(1);
+
+    FfmBackend() throws ReflectiveOperationException {
+        NativeLibrary.load();
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lookup = SymbolLookup.loaderLookup().or(linker.defaultLookup());
+
+        FunctionDescriptor stringGetter = FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS);
+        deviceGetId = downcall(linker, lookup, "frida_device_get_id", stringGetter);
+        deviceGetName = downcall(linker, lookup, "frida_device_get_name", stringGetter);
+        processGetPid = downcall(linker, lookup, "frida_process_get_pid",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS));
+        processGetName = downcall(linker, lookup, "frida_process_get_name", stringGetter);
+        signalConnectData = downcall(linker, lookup, "g_signal_connect_data",
+            FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS, ValueLayout.ADDRESS,
+                ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_INT));
+        signalHandlerDisconnect = downcall(linker, lookup, "g_signal_handler_disconnect",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG));
+        bytesGetData = downcall(linker, lookup, "g_bytes_get_data",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS));
+        strlen = downcall(linker, lookup, "strlen", FunctionDescriptor.of(GSIZE, ValueLayout.ADDRESS));
+
+        MethodHandle onMessage = MethodHandles.lookup().findVirtual(FfmBackend.class, "onMessage",
+            MethodType.methodType(void.class, MemorySegment.class, MemorySegment.class,
+                MemorySegment.class, MemorySegment.class)).bindTo(this);
+        // Lives as long as the backend, which lives as long as the JVM
+        messageCallback = linker.upcallStub(onMessage,
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            Arena.global());
+        messageSignal = Arena.global().allocateFrom("message");
+    }
+
+    private static MethodHandle downcall(Linker linker, SymbolLookup lookup, String name, FunctionDescriptor descriptor) {
+        MemorySegment symbol = lookup.find(name)
+            .orElseThrow(() -> new UnsatisfiedLinkError("Symbol not found: " + name));
+        return linker.downcallHandle(symbol, descriptor);
+    }
+
+    @Override
+    public String getName() {
+        return "ffm";
+    }
+
+    @Override
+    public String getDeviceId(Device device) {
+        return callStringGetter(deviceGetId, device.getNativePtr());
+    }
+
+    @Override
+    public String getDeviceName(Device device) {
+        return callStringGetter(deviceGetName, device.getNativePtr());
+    }
+
+    @Override
+    public int getProcessPid(Process process) {
+        long ptr = process.getNativePtr();
+        if (ptr == 0) {
+            return 0;
+        }
+        try {
+            return (int) processGetPid.invokeExact(MemorySegment.ofAddress(ptr));
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public String getProcessName(Process process) {
+        return callStringGetter(processGetName, process.getNativePtr());
+    }
+
+    @Override
+    public long connectMessages(Script script) {
+        long ptr = script.getNativePtr();
+        if (ptr == 0) {
+            throw new IllegalStateException("Script is closed");
+        }
+        long key = nextKey.getAndIncrement();
+        scripts.put(key, new WeakReference<>(script));
+        try {
+            long signalId = (long) signalConnectData.invokeExact(MemorySegment.ofAddress(ptr), messageSignal,
+                messageCallback, MemorySegment.ofAddress(key), MemorySegment.NULL, 0);
+            if (signalId == 0) {
+                throw new RuntimeException("Failed to connect script message signal");
+            }
+            keysBySignal.put(signalId, key);
+            return signalId;
+        } catch (Throwable e) {
+            scripts.remove(key);
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void disconnectMessages(Script script, long signalId) {
+        long ptr = script.getNativePtr();
+        try {
+            if (ptr != 0) {
+                signalHandlerDisconnect.invokeExact(MemorySegment.ofAddress(ptr), signalId);
+            }
+        } catch (Throwable e) {
+            throw rethrow(e);
+        } finally {
+            Long key = keysBySignal.remove(signalId);
+            if (key != null) {
+                scripts.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Upcall for the message signal, invoked on the Frida thread.
+     * Exceptions must not escape into native code.
+     */
+    private void onMessage(MemorySegment scriptPtr, MemorySegment message, MemorySegment data, MemorySegment userData) {
+        try {
+            WeakReference<Script> ref = scripts.get(userData.address());
+            Script script = ref != null ? ref.get() : null;
+            if (script == null) {
+                if (ref != null) {
+                    // Collected without being closed; the handler goes with the native script
+                    scripts.remove(userData.address());
+                    keysBySignal.values().remove(userData.address());
+                }
+                return;
+            }
+            String text = "";
+            long textSize = 0;
+            if (!message.equals(MemorySegment.NULL)) {
+                // Frida sends UTF-8, so the metrics can take the byte length from here
+                textSize = (long) strlen.invokeExact(message);
+                text = new String(message.reinterpret(textSize).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+            }
+            byte[] bytes = null;
+            if (!data.equals(MemorySegment.NULL)) {
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment size = arena.allocate(GSIZE);
+                    MemorySegment contents = (MemorySegment) bytesGetData.invokeExact(data, size);
+                    long length = size.get(GSIZE, 0);
+                    bytes = length == 0 ? new byte[0] : contents.reinterpret(length).toArray(ValueLayout.JAVA_BYTE);
+                }
+            }
+            script.dispatchMessage(text, bytes, textSize);
+        } catch (Throwable e) {
+            System.err.println("Warning: Exception in script message upcall: " + e);
+        }
+    }
+
+    private static String callStringGetter(MethodHandle getter, long ptr) {
+        if (ptr == 0) {
+            return null;
+        }
+        try {
+            MemorySegment value = (MemorySegment) getter.invokeExact(MemorySegment.ofAddress(ptr));
+            return value.equals(MemorySegment.NULL) ? null : value.reinterpret(Long.MAX_VALUE).getString(0);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+}
@@ -22,6 +22,7 @@
 
 #include "frida_common.c"
 #include "frida_jni.c"
+#include "native_cleaner_jni.c"
 #include "application_jni.c"
 #include "application_query_options_jni.c"
 #include "child_jni.c"
@@ -38,3 +39,4 @@
 #include "session_jni.c"
 #include "session_options_jni.c"
 #include "spawn_jni.c"
+#include "spawn_options_jni.c"
@@ -54,21 +54,15 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Application_getParame
   FridaApplication *app = (FridaApplication *) native_ptr;
   GHashTable *params = frida_application_get_parameters(app);
   if (!params) return NULL;
-  jclass map_class = (*env)->FindClass(env, "java/util/HashMap");
-  jmethodID map_ctor = (*env)->GetMethodID(env, map_class, "<init>", "()V");
-  jobject map = (*env)->NewObject(env, map_class, map_ctor);
-  jmethodID put_method = (*env)->GetMethodID(env, map_class, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
-  GHashTableIter iter;
-  gpointer key, value;
-  g_hash_table_iter_init(&iter, params);
-  while (g_hash_table_iter_next(&iter, &key, &value)) {
-    jstring jkey = (*env)->NewStringUTF(env, (const char *)key);
-    jstring jval = (*env)->NewStringUTF(env, g_variant_print((GVariant *)value, TRUE));
-    (*env)->CallObjectMethod(env, map, put_method, jkey, jval);
-    (*env)->DeleteLocalRef(env, jkey);
-    (*env)->DeleteLocalRef(env, jval);
-  }
-  return map;
+  return parameters_to_java_map(env, params);
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Application_getInfo(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaApplication *app = (FridaApplication *) native_ptr;
+  return new_application_info(env, app);
 }
 
 JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_size(JNIEnv *env, jobject obj) {
@@ -85,7 +79,6 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_get(J
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
   FridaApplicationList *list = (FridaApplicationList *) native_ptr;
   FridaApplication *app = frida_application_list_get(list, index);
-  g_object_ref(app);
   jclass app_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Application");
   jmethodID app_ctor = (*env)->GetMethodID(env, app_class, "<init>", "(J)V");
   return (*env)->NewObject(env, app_class, app_ctor, (jlong) app);
@@ -103,7 +96,6 @@ JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_
 
   for (gint i = 0; i < size; i++) {
     FridaApplication *app = frida_application_list_get(list, i);
-    g_object_ref(app);
     jmethodID app_ctor = (*env)->GetMethodID(env, app_class, "<init>", "(J)V");
     jobject app_obj = (*env)->NewObject(env, app_class, app_ctor, (jlong) app);
     (*env)->SetObjectArrayElement(env, result, i, app_obj);
@@ -113,17 +105,22 @@ JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_
   return result;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_disposeNative(JNIEnv *env, jobject obj, jlong native_ptr) {
+JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ApplicationList_toInfoArray(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
   FridaApplicationList *list = (FridaApplicationList *) native_ptr;
-  if (list != NULL) {
-    g_object_unref(list);
-  }
-}
-
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Application_disposeNative(JNIEnv *env, jobject obj, jlong native_ptr) {
-  FridaApplication *app = (FridaApplication *) native_ptr;
-  if (app != NULL) {
+  gint size = frida_application_list_size(list);
+  jclass info_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/ApplicationInfo");
+  jobjectArray result = (*env)->NewObjectArray(env, size, info_class, NULL);
+  if (result == NULL) return NULL;
+  for (gint i = 0; i < size; i++) {
+    FridaApplication *app = frida_application_list_get(list, i);
+    jobject info = new_application_info(env, app);
     g_object_unref(app);
+    (*env)->SetObjectArrayElement(env, result, i, info);
+    (*env)->DeleteLocalRef(env, info);
   }
+  return result;
 }
 
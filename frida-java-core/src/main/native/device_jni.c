@@ -21,7 +21,7 @@
 
 // Device implementations
 
-JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getId(JNIEnv *env, jobject obj) {
+JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getIdNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -30,7 +30,7 @@ JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getId(JNIEnv *
   return (*env)->NewStringUTF(env, id);
 }
 
-JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getName(JNIEnv *env, jobject obj) {
+JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getNameNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -72,13 +72,13 @@ JNIEXPORT jboolean JNICALL Java_nl_axelkoolhaas_frida_1java_Device_isLost(JNIEnv
   return frida_device_is_lost(device) ? JNI_TRUE : JNI_FALSE;
 }
 
-JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_attach(JNIEnv *env, jobject obj, jint pid) {
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_attachNative(JNIEnv *env, jobject obj, jint pid, jlong options_ptr) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
   FridaDevice *device = (FridaDevice *) native_ptr;
   GError *error = NULL;
-  FridaSession *session = frida_device_attach_sync(device, (guint) pid, NULL, NULL, &error);
+  FridaSession *session = frida_device_attach_sync(device, (guint) pid, (FridaSessionOptions *) options_ptr, NULL, &error);
   if (error != NULL) {
     throw_runtime_exception(env, error->message);
     g_error_free(error);
@@ -89,7 +89,7 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_attach(JNIEnv
   return (*env)->NewObject(env, session_class, session_constructor, (jlong) session);
 }
 
-JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawn__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring program) {
+JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawnNative__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring program) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -106,7 +106,7 @@ JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawn__Ljava_lang
   return (jint) pid;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_resume(JNIEnv *env, jobject obj, jint pid) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_resumeNative(JNIEnv *env, jobject obj, jint pid) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -119,7 +119,7 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_resume(JNIEnv *en
   }
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_kill(JNIEnv *env, jobject obj, jint pid) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_killNative(JNIEnv *env, jobject obj, jint pid) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -150,50 +150,98 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_enumerateProce
   return result;
 }
 
-JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_attachByName(JNIEnv *env, jobject obj, jstring process_name) {
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_snapshotProcesses(JNIEnv *env, jobject obj, jboolean with_parents) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
   FridaDevice *device = (FridaDevice *) native_ptr;
-  const char *process_name_str = (*env)->GetStringUTFChars(env, process_name, NULL);
   GError *error = NULL;
-  FridaProcessList *processes = frida_device_enumerate_processes_sync(device, NULL, NULL, &error);
+  FridaProcessQueryOptions *options = NULL;
+  if (with_parents) {
+    // Parent pids are only reported as process parameters with metadata scope
+    options = frida_process_query_options_new();
+    frida_process_query_options_set_scope(options, FRIDA_SCOPE_METADATA);
+  }
+  FridaProcessList *processes = frida_device_enumerate_processes_sync(device, options, NULL, &error);
+  if (options != NULL) {
+    g_object_unref(options);
+  }
   if (error != NULL) {
-    (*env)->ReleaseStringUTFChars(env, process_name, process_name_str);
     throw_runtime_exception(env, error->message);
     g_error_free(error);
     return NULL;
   }
-  guint target_pid = 0;
-  gint num_processes = frida_process_list_size(processes);
-  for (gint i = 0; i < num_processes; i++) {
+  gint count = frida_process_list_size(processes);
+  jclass string_class = (*env)->FindClass(env, "java/lang/String");
+  jintArray pids = (*env)->NewIntArray(env, count);
+  jobjectArray names = (*env)->NewObjectArray(env, count, string_class, NULL);
+  jintArray parent_pids = with_parents ? (*env)->NewIntArray(env, count) : NULL;
+  if (pids == NULL || names == NULL || (with_parents && parent_pids == NULL)) {
+    frida_unref(processes);
+    return NULL; // out of memory error thrown
+  }
+  jint *pid_buf = g_new0(jint, count + 1);
+  jint *parent_buf = with_parents ? g_new0(jint, count + 1) : NULL;
+  for (gint i = 0; i < count; i++) {
     FridaProcess *process = frida_process_list_get(processes, i);
-    const gchar *name = frida_process_get_name(process);
-    if (strstr(name, process_name_str) != NULL) {
-      target_pid = frida_process_get_pid(process);
-      g_object_unref(process);
-      break;
+    pid_buf[i] = (jint) frida_process_get_pid(process);
+    jstring name = (*env)->NewStringUTF(env, frida_process_get_name(process));
+    (*env)->SetObjectArrayElement(env, names, i, name);
+    (*env)->DeleteLocalRef(env, name);
+    if (parent_buf != NULL) {
+      parent_buf[i] = (jint) get_process_parent_pid(process);
     }
     g_object_unref(process);
   }
+  (*env)->SetIntArrayRegion(env, pids, 0, count, pid_buf);
+  g_free(pid_buf);
+  if (parent_buf != NULL) {
+    (*env)->SetIntArrayRegion(env, parent_pids, 0, count, parent_buf);
+    g_free(parent_buf);
+  }
   frida_unref(processes);
-  (*env)->ReleaseStringUTFChars(env, process_name, process_name_str);
-  if (target_pid == 0) {
-    throw_runtime_exception(env, "Process not found");
+  jclass snapshot_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/ProcessSnapshot");
+  jmethodID snapshot_ctor = (*env)->GetMethodID(env, snapshot_class, "<init>", "([I[Ljava/lang/String;[I)V");
+  return (*env)->NewObject(env, snapshot_class, snapshot_ctor, pids, names, parent_pids);
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getProcessByPidSync(JNIEnv *env, jobject obj, jint pid, jobject options, jobject cancellable) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaDevice *device = (FridaDevice *) native_ptr;
+  GError *error = NULL;
+  FridaProcess *process = frida_device_get_process_by_pid_sync(device, (guint) pid, NULL, NULL, &error);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
     return NULL;
   }
-  FridaSession *session = frida_device_attach_sync(device, target_pid, NULL, NULL, &error);
+  jclass process_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Process");
+  jmethodID process_ctor = (*env)->GetMethodID(env, process_class, "<init>", "(J)V");
+  return (*env)->NewObject(env, process_class, process_ctor, (jlong) process);
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_getProcessByNameSync(JNIEnv *env, jobject obj, jstring name, jobject options, jobject cancellable) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaDevice *device = (FridaDevice *) native_ptr;
+  const char *name_str = (*env)->GetStringUTFChars(env, name, NULL);
+  GError *error = NULL;
+  FridaProcess *process = frida_device_get_process_by_name_sync(device, name_str, NULL, NULL, &error);
+  (*env)->ReleaseStringUTFChars(env, name, name_str);
   if (error != NULL) {
     throw_runtime_exception(env, error->message);
     g_error_free(error);
     return NULL;
   }
-  jclass session_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Session");
-  jmethodID session_constructor = (*env)->GetMethodID(env, session_class, "<init>", "(J)V");
-  return (*env)->NewObject(env, session_class, session_constructor, (jlong) session);
+  jclass process_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Process");
+  jmethodID process_ctor = (*env)->GetMethodID(env, process_class, "<init>", "(J)V");
+  return (*env)->NewObject(env, process_class, process_ctor, (jlong) process);
 }
 
-JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawn__Ljava_lang_String_2_3Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring program, jobjectArray args) {
+JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawnNative__Ljava_lang_String_2_3Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring program, jobjectArray args) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -240,13 +288,6 @@ JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Device_spawn__Ljava_lang
   return -1;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Device_disposeNative(JNIEnv *env, jclass cls, jlong native_ptr) {
-  FridaDevice *device = (FridaDevice *) native_ptr;
-  if (device != NULL) {
-    g_object_unref(device);
-  }
-}
-
 JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_enumerateApplicationsSync(JNIEnv *env, jobject obj, jobject options, jobject cancellable) {
     jclass cls = (*env)->GetObjectClass(env, obj);
     jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
@@ -297,50 +338,7 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Device_querySystemPar
         return NULL;
     }
 
-    // Create Java HashMap
-    jclass hashmap_class = (*env)->FindClass(env, "java/util/HashMap");
-    jmethodID hashmap_init = (*env)->GetMethodID(env, hashmap_class, "<init>", "()V");
-    jmethodID hashmap_put = (*env)->GetMethodID(env, hashmap_class, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
-    jobject result_map = (*env)->NewObject(env, hashmap_class, hashmap_init);
-
-    // Iterate over GHashTable and populate Java HashMap
-    GHashTableIter iter;
-    gpointer key, value;
-    g_hash_table_iter_init(&iter, parameters);
-    while (g_hash_table_iter_next(&iter, &key, &value)) {
-        jstring java_key = (*env)->NewStringUTF(env, (const char *)key);
-        jstring java_value = NULL;
-
-        // Handle the value which is a GVariant from Frida
-        if (value != NULL) {
-            GVariant *variant = (GVariant *)value;
-
-            // Check if it's a string variant
-            if (g_variant_is_of_type(variant, G_VARIANT_TYPE_STRING)) {
-                const char *str_value = g_variant_get_string(variant, NULL);
-                if (str_value != NULL) {
-                    java_value = (*env)->NewStringUTF(env, str_value);
-                }
-            } else {
-                // Try to get a string representation of the variant
-                gchar *str_repr = g_variant_print(variant, TRUE);
-                if (str_repr != NULL) {
-                    java_value = (*env)->NewStringUTF(env, str_repr);
-                    g_free(str_repr);
-                }
-            }
-        }
-
-        // If we couldn't create a value, use empty string
-        if (java_value == NULL) {
-            java_value = (*env)->NewStringUTF(env, "");
-        }
-
-        (*env)->CallObjectMethod(env, result_map, hashmap_put, java_key, java_value);
-        (*env)->DeleteLocalRef(env, java_key);
-        (*env)->DeleteLocalRef(env, java_value);
-    }
-
+    jobject result_map = parameters_to_java_map(env, parameters);
     g_hash_table_unref(parameters);
     return result_map;
 }
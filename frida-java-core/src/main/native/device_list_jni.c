@@ -38,7 +38,6 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_DeviceList_get(JNIEnv
   if (list == NULL) return NULL;
   FridaDevice *device = frida_device_list_get(list, index);
   if (device == NULL) return NULL;
-  g_object_ref(device);
   jclass device_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Device");
   jmethodID device_ctor = (*env)->GetMethodID(env, device_class, "<init>", "(J)V");
   return (*env)->NewObject(env, device_class, device_ctor, (jlong) device);
@@ -26,7 +26,7 @@ JNIEXPORT jlong JNICALL Java_nl_axelkoolhaas_frida_1java_DeviceManager_createNat
   return (jlong) manager;
 }
 
-JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_DeviceManager_enumerateDevices(JNIEnv *env, jobject obj) {
+JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_DeviceManager_enumerateDevicesNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -44,7 +44,6 @@ JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_DeviceManager_en
   jobjectArray result = (*env)->NewObjectArray(env, num_devices, device_class, NULL);
   for (gint i = 0; i < num_devices; i++) {
     FridaDevice *device = frida_device_list_get(devices, i);
-    g_object_ref(device);
     jobject java_device = (*env)->NewObject(env, device_class, device_constructor, (jlong) device);
     (*env)->SetObjectArrayElement(env, result, i, java_device);
   }
@@ -24,3 +24,367 @@ void throw_runtime_exception(JNIEnv *env, const char *message) {
   jclass exception_class = (*env)->FindClass(env, "java/lang/RuntimeException");
   (*env)->ThrowNew(env, exception_class, message);
 }
+
+// Helper function to throw IllegalArgumentException
+void throw_illegal_argument_exception(JNIEnv *env, const char *message) {
+  jclass exception_class = (*env)->FindClass(env, "java/lang/IllegalArgumentException");
+  (*env)->ThrowNew(env, exception_class, message);
+}
+
+// Global class references and method IDs used by the GVariant converters, resolved once
+static struct {
+  jclass map_class;
+  jmethodID map_ctor;
+  jmethodID map_put;
+  jclass list_class;
+  jmethodID list_ctor;
+  jmethodID list_add;
+  jclass long_class;
+  jmethodID long_value_of;
+  jclass boolean_class;
+  jmethodID boolean_value_of;
+  jmethodID boolean_value;
+  jclass double_class;
+  jmethodID double_value_of;
+  jclass float_class;
+  jclass number_class;
+  jmethodID number_long_value;
+  jmethodID number_double_value;
+  jclass string_class;
+  jclass byte_array_class;
+  jclass java_map_class;
+  jmethodID map_entry_set;
+  jclass collection_class;
+  jmethodID collection_to_array;
+  jclass map_entry_class;
+  jmethodID entry_get_key;
+  jmethodID entry_get_value;
+  jclass object_array_class;
+} converter;
+
+static jclass global_class(JNIEnv *env, const char *name) {
+  jclass local = (*env)->FindClass(env, name);
+  jclass global = (*env)->NewGlobalRef(env, local);
+  (*env)->DeleteLocalRef(env, local);
+  return global;
+}
+
+static void init_converter(JNIEnv *env) {
+  static gsize initialized = 0;
+  if (!g_once_init_enter(&initialized)) return;
+  converter.map_class = global_class(env, "java/util/LinkedHashMap");
+  converter.map_ctor = (*env)->GetMethodID(env, converter.map_class, "<init>", "()V");
+  converter.map_put = (*env)->GetMethodID(env, converter.map_class, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+  converter.list_class = global_class(env, "java/util/ArrayList");
+  converter.list_ctor = (*env)->GetMethodID(env, converter.list_class, "<init>", "(I)V");
+  converter.list_add = (*env)->GetMethodID(env, converter.list_class, "add", "(Ljava/lang/Object;)Z");
+  converter.long_class = global_class(env, "java/lang/Long");
+  converter.long_value_of = (*env)->GetStaticMethodID(env, converter.long_class, "valueOf", "(J)Ljava/lang/Long;");
+  converter.boolean_class = global_class(env, "java/lang/Boolean");
+  converter.boolean_value_of = (*env)->GetStaticMethodID(env, converter.boolean_class, "valueOf", "(Z)Ljava/lang/Boolean;");
+  converter.boolean_value = (*env)->GetMethodID(env, converter.boolean_class, "booleanValue", "()Z");
+  converter.double_class = global_class(env, "java/lang/Double");
+  converter.double_value_of = (*env)->GetStaticMethodID(env, converter.double_class, "valueOf", "(D)Ljava/lang/Double;");
+  converter.float_class = global_class(env, "java/lang/Float");
+  converter.number_class = global_class(env, "java/lang/Number");
+  converter.number_long_value = (*env)->GetMethodID(env, converter.number_class, "longValue", "()J");
+  converter.number_double_value = (*env)->GetMethodID(env, converter.number_class, "doubleValue", "()D");
+  converter.string_class = global_class(env, "java/lang/String");
+  converter.byte_array_class = global_class(env, "[B");
+  converter.java_map_class = global_class(env, "java/util/Map");
+  converter.map_entry_set = (*env)->GetMethodID(env, converter.java_map_class, "entrySet", "()Ljava/util/Set;");
+  converter.collection_class = global_class(env, "java/util/Collection");
+  converter.collection_to_array = (*env)->GetMethodID(env, converter.collection_class, "toArray", "()[Ljava/lang/Object;");
+  converter.map_entry_class = global_class(env, "java/util/Map$Entry");
+  converter.entry_get_key = (*env)->GetMethodID(env, converter.map_entry_class, "getKey", "()Ljava/lang/Object;");
+  converter.entry_get_value = (*env)->GetMethodID(env, converter.map_entry_class, "getValue", "()Ljava/lang/Object;");
+  converter.object_array_class = global_class(env, "[Ljava/lang/Object;");
+  g_once_init_leave(&initialized, 1);
+}
+
+static jobject new_java_long(JNIEnv *env, jlong value) {
+  return (*env)->CallStaticObjectMethod(env, converter.long_class, converter.long_value_of, value);
+}
+
+jobject gvariant_to_java(JNIEnv *env, GVariant *variant) {
+  init_converter(env);
+  if (variant == NULL) return NULL;
+  switch (g_variant_classify(variant)) {
+    case G_VARIANT_CLASS_BOOLEAN:
+      return (*env)->CallStaticObjectMethod(env, converter.boolean_class, converter.boolean_value_of,
+          g_variant_get_boolean(variant) ? JNI_TRUE : JNI_FALSE);
+    case G_VARIANT_CLASS_BYTE:
+      return new_java_long(env, (jlong) g_variant_get_byte(variant));
+    case G_VARIANT_CLASS_INT16:
+      return new_java_long(env, (jlong) g_variant_get_int16(variant));
+    case G_VARIANT_CLASS_UINT16:
+      return new_java_long(env, (jlong) g_variant_get_uint16(variant));
+    case G_VARIANT_CLASS_INT32:
+      return new_java_long(env, (jlong) g_variant_get_int32(variant));
+    case G_VARIANT_CLASS_UINT32:
+      return new_java_long(env, (jlong) g_variant_get_uint32(variant));
+    case G_VARIANT_CLASS_INT64:
+      return new_java_long(env, (jlong) g_variant_get_int64(variant));
+    case G_VARIANT_CLASS_UINT64:
+      return new_java_long(env, (jlong) g_variant_get_uint64(variant));
+    case G_VARIANT_CLASS_HANDLE:
+      return new_java_long(env, (jlong) g_variant_get_handle(variant));
+    case G_VARIANT_CLASS_DOUBLE:
+      return (*env)->CallStaticObjectMethod(env, converter.double_class, converter.double_value_of, g_variant_get_double(variant));
+    case G_VARIANT_CLASS_STRING:
+    case G_VARIANT_CLASS_OBJECT_PATH:
+    case G_VARIANT_CLASS_SIGNATURE:
+      return (*env)->NewStringUTF(env, g_variant_get_string(variant, NULL));
+    case G_VARIANT_CLASS_VARIANT: {
+      GVariant *inner = g_variant_get_variant(variant);
+      jobject result = gvariant_to_java(env, inner);
+      g_variant_unref(inner);
+      return result;
+    }
+    case G_VARIANT_CLASS_MAYBE: {
+      GVariant *inner = g_variant_get_maybe(variant);
+      if (inner == NULL) return NULL;
+      jobject result = gvariant_to_java(env, inner);
+      g_variant_unref(inner);
+      return result;
+    }
+    case G_VARIANT_CLASS_ARRAY: {
+      if (g_variant_is_of_type(variant, G_VARIANT_TYPE_BYTESTRING)) {
+        gsize size = 0;
+        const guint8 *data = g_variant_get_fixed_array(variant, &size, sizeof(guint8));
+        jbyteArray bytes = (*env)->NewByteArray(env, (jsize) size);
+        if (bytes != NULL && size > 0) {
+          (*env)->SetByteArrayRegion(env, bytes, 0, (jsize) size, (const jbyte *) data);
+        }
+        return bytes;
+      }
+      gsize count = g_variant_n_children(variant);
+      if (g_variant_type_is_dict_entry(g_variant_type_element(g_variant_get_type(variant)))) {
+        jobject map = (*env)->NewObject(env, converter.map_class, converter.map_ctor);
+        for (gsize i = 0; i < count && map != NULL; i++) {
+          GVariant *entry = g_variant_get_child_value(variant, i);
+          GVariant *key = g_variant_get_child_value(entry, 0);
+          GVariant *value = g_variant_get_child_value(entry, 1);
+          jobject jkey = gvariant_to_java(env, key);
+          jobject jvalue = gvariant_to_java(env, value);
+          jobject previous = (*env)->CallObjectMethod(env, map, converter.map_put, jkey, jvalue);
+          if (previous != NULL) (*env)->DeleteLocalRef(env, previous);
+          if (jkey != NULL) (*env)->DeleteLocalRef(env, jkey);
+          if (jvalue != NULL) (*env)->DeleteLocalRef(env, jvalue);
+          g_variant_unref(value);
+          g_variant_unref(key);
+          g_variant_unref(entry);
+        }
+        return map;
+      }
+      // Other arrays are handled like tuples
+    }
+    /* fall through */
+    case G_VARIANT_CLASS_TUPLE:
+    case G_VARIANT_CLASS_DICT_ENTRY: {
+      gsize count = g_variant_n_children(variant);
+      jobject list = (*env)->NewObject(env, converter.list_class, converter.list_ctor, (jint) count);
+      for (gsize i = 0; i < count && list != NULL; i++) {
+        GVariant *child = g_variant_get_child_value(variant, i);
+        jobject element = gvariant_to_java(env, child);
+        (*env)->CallBooleanMethod(env, list, converter.list_add, element);
+        if (element != NULL) (*env)->DeleteLocalRef(env, element);
+        g_variant_unref(child);
+      }
+      return list;
+    }
+  }
+  return NULL;
+}
+
+jobject parameters_to_java_map(JNIEnv *env, GHashTable *parameters) {
+  init_converter(env);
+  jobject map = (*env)->NewObject(env, converter.map_class, converter.map_ctor);
+  if (map == NULL || parameters == NULL) return map;
+  GHashTableIter iter;
+  gpointer key, value;
+  g_hash_table_iter_init(&iter, parameters);
+  while (g_hash_table_iter_next(&iter, &key, &value)) {
+    jstring jkey = (*env)->NewStringUTF(env, (const char *) key);
+    jobject jvalue = gvariant_to_java(env, (GVariant *) value);
+    jobject previous = (*env)->CallObjectMethod(env, map, converter.map_put, jkey, jvalue);
+    if (previous != NULL) (*env)->DeleteLocalRef(env, previous);
+    (*env)->DeleteLocalRef(env, jkey);
+    if (jvalue != NULL) (*env)->DeleteLocalRef(env, jvalue);
+  }
+  return map;
+}
+
+static GVariant *java_map_to_gvariant(JNIEnv *env, jobject map);
+static GVariant *java_array_to_gvariant(JNIEnv *env, jobjectArray elements);
+
+GVariant *java_to_gvariant(JNIEnv *env, jobject value) {
+  init_converter(env);
+  if (value == NULL) {
+    throw_illegal_argument_exception(env, "Null values cannot be converted to GVariant");
+    return NULL;
+  }
+  // Values may be user types whose methods throw; check before the next JNI call
+  if ((*env)->IsInstanceOf(env, value, converter.string_class)) {
+    const char *str = (*env)->GetStringUTFChars(env, (jstring) value, NULL);
+    if (str == NULL) return NULL;
+    GVariant *result = g_variant_new_string(str);
+    (*env)->ReleaseStringUTFChars(env, (jstring) value, str);
+    return result;
+  }
+  if ((*env)->IsInstanceOf(env, value, converter.boolean_class)) {
+    jboolean flag = (*env)->CallBooleanMethod(env, value, converter.boolean_value);
+    if ((*env)->ExceptionCheck(env)) return NULL;
+    return g_variant_new_boolean(flag == JNI_TRUE);
+  }
+  if ((*env)->IsInstanceOf(env, value, converter.double_class) || (*env)->IsInstanceOf(env, value, converter.float_class)) {
+    jdouble number = (*env)->CallDoubleMethod(env, value, converter.number_double_value);
+    if ((*env)->ExceptionCheck(env)) return NULL;
+    return g_variant_new_double(number);
+  }
+  if ((*env)->IsInstanceOf(env, value, converter.number_class)) {
+    jlong number = (*env)->CallLongMethod(env, value, converter.number_long_value);
+    if ((*env)->ExceptionCheck(env)) return NULL;
+    return g_variant_new_int64(number);
+  }
+  if ((*env)->IsInstanceOf(env, value, converter.byte_array_class)) {
+    jsize length = (*env)->GetArrayLength(env, (jbyteArray) value);
+    jbyte *bytes = (*env)->GetByteArrayElements(env, (jbyteArray) value, NULL);
+    if (bytes == NULL) return NULL;
+    GVariant *result = g_variant_new_fixed_array(G_VARIANT_TYPE_BYTE, bytes, (gsize) length, sizeof(guint8));
+    (*env)->ReleaseByteArrayElements(env, (jbyteArray) value, bytes, JNI_ABORT);
+    return result;
+  }
+  if ((*env)->IsInstanceOf(env, value, converter.java_map_class)) {
+    return java_map_to_gvariant(env, value);
+  }
+  jobjectArray elements = NULL;
+  if ((*env)->IsInstanceOf(env, value, converter.collection_class)) {
+    elements = (*env)->CallObjectMethod(env, value, converter.collection_to_array);
+    if ((*env)->ExceptionCheck(env)) {
+      if (elements != NULL) (*env)->DeleteLocalRef(env, elements);
+      return NULL;
+    }
+  } else if ((*env)->IsInstanceOf(env, value, converter.object_array_class)) {
+    elements = (*env)->NewLocalRef(env, value);
+  } else {
+    throw_illegal_argument_exception(env, "Unsupported value type for GVariant conversion");
+    return NULL;
+  }
+  if (elements == NULL) {
+    throw_illegal_argument_exception(env, "Collection returned no elements array");
+    return NULL;
+  }
+  GVariant *result = java_array_to_gvariant(env, elements);
+  (*env)->DeleteLocalRef(env, elements);
+  return result;
+}
+
+static GVariant *java_map_to_gvariant(JNIEnv *env, jobject map) {
+  jobject entry_set = (*env)->CallObjectMethod(env, map, converter.map_entry_set);
+  if ((*env)->ExceptionCheck(env) || entry_set == NULL) {
+    if (entry_set != NULL) (*env)->DeleteLocalRef(env, entry_set);
+    else if (!(*env)->ExceptionCheck(env)) throw_illegal_argument_exception(env, "Map returned no entry set");
+    return NULL;
+  }
+  jobjectArray entries = (*env)->CallObjectMethod(env, entry_set, converter.collection_to_array);
+  (*env)->DeleteLocalRef(env, entry_set);
+  if ((*env)->ExceptionCheck(env) || entries == NULL) {
+    if (entries != NULL) (*env)->DeleteLocalRef(env, entries);
+    else if (!(*env)->ExceptionCheck(env)) throw_illegal_argument_exception(env, "Map returned no entries array");
+    return NULL;
+  }
+  jsize count = (*env)->GetArrayLength(env, entries);
+  GVariantBuilder builder;
+  g_variant_builder_init(&builder, G_VARIANT_TYPE_VARDICT);
+  for (jsize i = 0; i < count; i++) {
+    jobject entry = (*env)->GetObjectArrayElement(env, entries, i);
+    jobject key = NULL;
+    jobject element = NULL;
+    GVariant *child = NULL;
+    const char *key_str = NULL;
+    if (entry != NULL) {
+      key = (*env)->CallObjectMethod(env, entry, converter.entry_get_key);
+      if (!(*env)->ExceptionCheck(env)) {
+        element = (*env)->CallObjectMethod(env, entry, converter.entry_get_value);
+      }
+    }
+    if (!(*env)->ExceptionCheck(env)) {
+      if (key == NULL || !(*env)->IsInstanceOf(env, key, converter.string_class)) {
+        throw_illegal_argument_exception(env, "Map keys must be strings");
+      } else {
+        child = java_to_gvariant(env, element);
+      }
+    }
+    if (child != NULL) {
+      key_str = (*env)->GetStringUTFChars(env, (jstring) key, NULL);
+      if (key_str != NULL) {
+        g_variant_builder_add(&builder, "{sv}", key_str, child);
+        (*env)->ReleaseStringUTFChars(env, (jstring) key, key_str);
+      } else {
+        g_variant_unref(g_variant_ref_sink(child));
+      }
+    }
+    if (key != NULL) (*env)->DeleteLocalRef(env, key);
+    if (element != NULL) (*env)->DeleteLocalRef(env, element);
+    if (entry != NULL) (*env)->DeleteLocalRef(env, entry);
+    if (key_str == NULL) {
+      g_variant_builder_clear(&builder);
+      (*env)->DeleteLocalRef(env, entries);
+      return NULL;
+    }
+  }
+  (*env)->DeleteLocalRef(env, entries);
+  return g_variant_builder_end(&builder);
+}
+
+static GVariant *java_array_to_gvariant(JNIEnv *env, jobjectArray elements) {
+  jsize count = (*env)->GetArrayLength(env, elements);
+  GVariantBuilder builder;
+  g_variant_builder_init(&builder, G_VARIANT_TYPE("av"));
+  for (jsize i = 0; i < count; i++) {
+    jobject element = (*env)->GetObjectArrayElement(env, elements, i);
+    GVariant *child = java_to_gvariant(env, element);
+    if (element != NULL) (*env)->DeleteLocalRef(env, element);
+    if (child == NULL) {
+      g_variant_builder_clear(&builder);
+      return NULL;
+    }
+    g_variant_builder_add(&builder, "v", child);
+  }
+  return g_variant_builder_end(&builder);
+}
+
+gint get_process_parent_pid(FridaProcess *process) {
+  // Parent pids are only reported when enumerated with metadata scope
+  GHashTable *parameters = frida_process_get_parameters(process);
+  if (parameters == NULL) return 0;
+  GVariant *ppid = g_hash_table_lookup(parameters, "ppid");
+  if (ppid != NULL && g_variant_is_of_type(ppid, G_VARIANT_TYPE_INT64)) {
+    return (gint) g_variant_get_int64(ppid);
+  }
+  return 0;
+}
+
+jobject new_process_info(JNIEnv *env, FridaProcess *process) {
+  jclass info_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/ProcessInfo");
+  jmethodID info_ctor = (*env)->GetMethodID(env, info_class, "<init>", "(ILjava/lang/String;I)V");
+  jstring name = (*env)->NewStringUTF(env, frida_process_get_name(process));
+  jobject info = (*env)->NewObject(env, info_class, info_ctor, (jint) frida_process_get_pid(process), name,
+      (jint) get_process_parent_pid(process));
+  (*env)->DeleteLocalRef(env, name);
+  (*env)->DeleteLocalRef(env, info_class);
+  return info;
+}
+
+jobject new_application_info(JNIEnv *env, FridaApplication *app) {
+  jclass info_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/ApplicationInfo");
+  jmethodID info_ctor = (*env)->GetMethodID(env, info_class, "<init>", "(Ljava/lang/String;Ljava/lang/String;I)V");
+  jstring identifier = (*env)->NewStringUTF(env, frida_application_get_identifier(app));
+  jstring name = (*env)->NewStringUTF(env, frida_application_get_name(app));
+  jobject info = (*env)->NewObject(env, info_class, info_ctor, identifier, name, (jint) frida_application_get_pid(app));
+  (*env)->DeleteLocalRef(env, identifier);
+  (*env)->DeleteLocalRef(env, name);
+  (*env)->DeleteLocalRef(env, info_class);
+  return info;
+}
@@ -27,4 +27,28 @@
 // Helper function to throw RuntimeException
 void throw_runtime_exception(JNIEnv *env, const char *message);
 
+// Helper function to throw IllegalArgumentException
+void throw_illegal_argument_exception(JNIEnv *env, const char *message);
+
+// Convert a GVariant to the matching Java value: a{sv} and other dictionaries to Map,
+// ay to byte[], other arrays and tuples to List, integers to Long, b to Boolean,
+// d to Double and strings to String. Variants and maybes are unwrapped.
+jobject gvariant_to_java(JNIEnv *env, GVariant *variant);
+
+// Convert a Frida parameters table (string keys, GVariant values) to a Java Map
+jobject parameters_to_java_map(JNIEnv *env, GHashTable *parameters);
+
+// Convert a Java value to a new floating GVariant, the inverse of gvariant_to_java.
+// Returns NULL and throws IllegalArgumentException for unsupported types.
+GVariant *java_to_gvariant(JNIEnv *env, jobject value);
+
+// Get the parent pid from the process parameters, or 0 if not reported
+gint get_process_parent_pid(FridaProcess *process);
+
+// Copy the fields of a process into a new ProcessInfo
+jobject new_process_info(JNIEnv *env, FridaProcess *process);
+
+// Copy the fields of an application into a new ApplicationInfo
+jobject new_application_info(JNIEnv *env, FridaApplication *app);
+
 #endif // FRIDA_COMMON_H
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+#include "frida_common.h"
+
+// NativeCleaner JNI implementations
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_NativeCleaner_unref(JNIEnv *env, jclass cls, jlong native_ptr) {
+  // frida_unref defers the unref to the Frida main context, so it is safe from any thread
+  if (native_ptr != 0) {
+    frida_unref((gpointer) native_ptr);
+  }
+}
+
+static gboolean unref_all_on_main_context(gpointer data) {
+  // The array owns one reference per element and drops them all when freed
+  g_ptr_array_unref((GPtrArray *) data);
+  return G_SOURCE_REMOVE;
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_NativeCleaner_unrefAll(JNIEnv *env, jclass cls, jlongArray native_ptrs, jint count) {
+  if (count <= 0) return;
+  jlong *values = (*env)->GetLongArrayElements(env, native_ptrs, NULL);
+  if (values == NULL) return; // out of memory error thrown
+  GPtrArray *objects = g_ptr_array_new_full((guint) count, (GDestroyNotify) g_object_unref);
+  for (jint i = 0; i < count; i++) {
+    if (values[i] != 0) {
+      g_ptr_array_add(objects, (gpointer) values[i]);
+    }
+  }
+  (*env)->ReleaseLongArrayElements(env, native_ptrs, values, JNI_ABORT);
+
+  // Same deferral as frida_unref, but one dispatch for the whole batch
+  GSource *source = g_idle_source_new();
+  g_source_set_callback(source, unref_all_on_main_context, objects, NULL);
+  g_source_attach(source, frida_get_main_context());
+  g_source_unref(source);
+}
@@ -21,7 +21,7 @@
 
 // Process JNI implementations
 
-JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getPid(JNIEnv *env, jobject obj) {
+JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getPidNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
   jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
@@ -30,7 +30,7 @@ JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getPid(JNIEnv *e
   return (jint) frida_process_get_pid(proc);
 }
 
-JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getName(JNIEnv *env, jobject obj) {
+JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getNameNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
   jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
@@ -41,8 +41,12 @@ JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getName(JNIEn
 }
 
 JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getParentPid(JNIEnv *env, jobject obj) {
-  // frida_process_get_parent_pid is not available in this Frida SDK version.
-  return 0;
+  // frida_process_get_parent_pid is not available in this Frida SDK version; use the parameters instead.
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
+  jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
+  if (native_ptr == 0) return 0;
+  return (jint) get_process_parent_pid((FridaProcess *) native_ptr);
 }
 
 JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getIdentifier(JNIEnv *env, jobject obj) {
@@ -50,8 +54,18 @@ JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getIdentifier
   return NULL;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Process_disposeNative(JNIEnv *env, jobject obj, jlong native_ptr) {
-  if (native_ptr != 0) {
-    g_object_unref((FridaProcess *) native_ptr);
-  }
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getInfo(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
+  jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
+  if (native_ptr == 0) return NULL;
+  return new_process_info(env, (FridaProcess *) native_ptr);
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Process_getParameters(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
+  jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
+  if (native_ptr == 0) return NULL;
+  return parameters_to_java_map(env, frida_process_get_parameters((FridaProcess *) native_ptr));
 }
@@ -38,7 +38,6 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_ProcessList_get(JNIEn
   FridaProcessList *list = (FridaProcessList *) native_ptr;
   FridaProcess *process = frida_process_list_get(list, (gint) index);
   if (process == NULL) return NULL;
-  g_object_ref(process); // Ensure Java owns a reference
   jclass process_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Process");
   jmethodID process_ctor = (*env)->GetMethodID(env, process_class, "<init>", "(J)V");
   jobject result = (*env)->NewObject(env, process_class, process_ctor, (jlong) process);
@@ -57,7 +56,6 @@ JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ProcessList_toAr
   for (gint i = 0; i < count; i++) {
     FridaProcess *process = frida_process_list_get(list, i);
     if (process != NULL) {
-      g_object_ref(process); // Ensure Java owns a reference
       jmethodID process_ctor = (*env)->GetMethodID(env, process_class, "<init>", "(J)V");
       jobject process_obj = (*env)->NewObject(env, process_class, process_ctor, (jlong) process);
       (*env)->SetObjectArrayElement(env, array, i, process_obj);
@@ -66,8 +64,22 @@ JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ProcessList_toAr
   return array;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_ProcessList_disposeNative(JNIEnv *env, jobject obj, jlong native_ptr) {
-  if (native_ptr != 0) {
-    g_object_unref((FridaProcessList *) native_ptr);
+JNIEXPORT jobjectArray JNICALL Java_nl_axelkoolhaas_frida_1java_ProcessList_toInfoArray(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jfieldID native_ptr_field = (*env)->GetFieldID(env, cls, "nativePtr", "J");
+  jlong native_ptr = (*env)->GetLongField(env, obj, native_ptr_field);
+  if (native_ptr == 0) return NULL;
+  FridaProcessList *list = (FridaProcessList *) native_ptr;
+  gint size = frida_process_list_size(list);
+  jclass info_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/ProcessInfo");
+  jobjectArray result = (*env)->NewObjectArray(env, size, info_class, NULL);
+  if (result == NULL) return NULL;
+  for (gint i = 0; i < size; i++) {
+    FridaProcess *process = frida_process_list_get(list, i);
+    jobject info = new_process_info(env, process);
+    g_object_unref(process);
+    (*env)->SetObjectArrayElement(env, result, i, info);
+    (*env)->DeleteLocalRef(env, info);
   }
+  return result;
 }
@@ -19,21 +19,31 @@
 
 #include "frida_common.h"
 
-// Helper struct to hold JNI references for the message handler
+// JNI references for the message trampoline of a script
 typedef struct {
   JavaVM *jvm;
-  jobject handler_global;
+  jweak script_weak;
 } ScriptMessageHandlerData;
 
 static void on_frida_script_message(FridaScript *script, const gchar *message, GBytes *data, gpointer user_data) {
   ScriptMessageHandlerData *handler_data = (ScriptMessageHandlerData *)user_data;
-  if (!handler_data || !handler_data->handler_global) return;
+  if (!handler_data || !handler_data->script_weak) return;
   JNIEnv *env = NULL;
   if ((*handler_data->jvm)->AttachCurrentThread(handler_data->jvm, (void **)&env, NULL) != 0) return;
-  jclass handler_class = (*env)->GetObjectClass(env, handler_data->handler_global);
-  jmethodID on_message = (*env)->GetMethodID(env, handler_class, "onMessage", "(Ljava/lang/String;[B)V");
-  if (!on_message) return;
-  jstring jmsg = (*env)->NewStringUTF(env, message ? message : "");
+  // The script object may already have been collected
+  jobject target = (*env)->NewLocalRef(env, handler_data->script_weak);
+  if (!target) return;
+  jclass script_class = (*env)->GetObjectClass(env, target);
+  jmethodID dispatch = (*env)->GetMethodID(env, script_class, "dispatchMessage", "(Ljava/lang/String;[BJ)V");
+  (*env)->DeleteLocalRef(env, script_class);
+  if (!dispatch) {
+    (*env)->DeleteLocalRef(env, target);
+    return;
+  }
+  // Frida sends UTF-8, so the metrics can take the byte length from here
+  const gchar *text = message ? message : "";
+  jlong text_size = (jlong) strlen(text);
+  jstring jmsg = (*env)->NewStringUTF(env, text);
   jbyteArray jdata = NULL;
   if (data) {
     gsize size = 0;
@@ -43,14 +53,27 @@ static void on_frida_script_message(FridaScript *script, const gchar *message, G
       (*env)->SetByteArrayRegion(env, jdata, 0, (jsize)size, (const jbyte *)bytes);
     }
   }
-  (*env)->CallVoidMethod(env, handler_data->handler_global, on_message, jmsg, jdata);
+  (*env)->CallVoidMethod(env, target, dispatch, jmsg, jdata, text_size);
+  if ((*env)->ExceptionCheck(env)) {
+    (*env)->ExceptionClear(env);
+  }
   (*env)->DeleteLocalRef(env, jmsg);
   if (jdata) (*env)->DeleteLocalRef(env, jdata);
+  (*env)->DeleteLocalRef(env, target);
+}
+
+static void free_script_message_handler_data(gpointer user_data, GClosure *closure) {
+  ScriptMessageHandlerData *handler_data = (ScriptMessageHandlerData *)user_data;
+  JNIEnv *env = NULL;
+  if ((*handler_data->jvm)->AttachCurrentThread(handler_data->jvm, (void **)&env, NULL) == 0) {
+    (*env)->DeleteWeakGlobalRef(env, handler_data->script_weak);
+  }
+  g_free(handler_data);
 }
 
 // Script implementations
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_load(JNIEnv *env, jobject obj) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_loadNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -63,7 +86,7 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_load(JNIEnv *env,
   }
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_unload(JNIEnv *env, jobject obj) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_unloadNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -84,7 +107,7 @@ JNIEXPORT jboolean JNICALL Java_nl_axelkoolhaas_frida_1java_Script_isDestroyed(J
   return frida_script_is_destroyed(script) ? JNI_TRUE : JNI_FALSE;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_post__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring message) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_postNative__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring message) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -94,7 +117,7 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_post__Ljava_lang_
   (*env)->ReleaseStringUTFChars(env, message, message_str);
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_post__Ljava_lang_String_2_3B(JNIEnv *env, jobject obj, jstring message, jbyteArray data) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_postNative__Ljava_lang_String_2_3B(JNIEnv *env, jobject obj, jstring message, jbyteArray data) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -114,24 +137,32 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_post__Ljava_lang_
   (*env)->ReleaseStringUTFChars(env, message, message_str);
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_setMessageHandler(JNIEnv *env, jobject obj, jobject handler) {
+JNIEXPORT jlong JNICALL Java_nl_axelkoolhaas_frida_1java_Script_connectMessagesNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
   FridaScript *script = (FridaScript *) native_ptr;
 
-  // Remove any previous handler (not implemented: would need to store handler_data pointer)
-
-  if (handler == NULL) return;
-
   ScriptMessageHandlerData *handler_data = g_new0(ScriptMessageHandlerData, 1);
   if ((*env)->GetJavaVM(env, &handler_data->jvm) != 0) {
     g_free(handler_data);
-    return;
+    throw_runtime_exception(env, "Failed to get JavaVM");
+    return 0;
   }
-  handler_data->handler_global = (*env)->NewGlobalRef(env, handler);
+  // Weak, so a script that is never closed can still be collected and cleaned
+  handler_data->script_weak = (*env)->NewWeakGlobalRef(env, obj);
+
+  return (jlong) g_signal_connect_data(script, "message", G_CALLBACK(on_frida_script_message), handler_data,
+      free_script_message_handler_data, 0);
+}
 
-  g_signal_connect_data(script, "message", G_CALLBACK(on_frida_script_message), handler_data, (GClosureNotify)g_free, 0);
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_disconnectMessagesNative(JNIEnv *env, jobject obj, jlong handler_id) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaScript *script = (FridaScript *) native_ptr;
+  // Frees the handler data, releasing the weak reference to the script object
+  g_signal_handler_disconnect(script, (gulong) handler_id);
 }
 
 JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Script_disposeNative(JNIEnv *env, jclass cls, jlong native_ptr) {
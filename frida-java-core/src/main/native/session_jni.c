@@ -19,6 +19,61 @@
 
 #include "frida_common.h"
 
+// JNI references for the detached trampoline of a session
+typedef struct {
+  JavaVM *jvm;
+  jweak session_weak;
+} SessionDetachedHandlerData;
+
+static void on_frida_session_detached(FridaSession *session, FridaSessionDetachReason reason, FridaCrash *crash,
+    gpointer user_data) {
+  SessionDetachedHandlerData *handler_data = (SessionDetachedHandlerData *)user_data;
+  if (!handler_data || !handler_data->session_weak) return;
+  JNIEnv *env = NULL;
+  if ((*handler_data->jvm)->AttachCurrentThread(handler_data->jvm, (void **)&env, NULL) != 0) return;
+  // The session object may already have been collected
+  jobject target = (*env)->NewLocalRef(env, handler_data->session_weak);
+  if (!target) return;
+  jclass session_class = (*env)->GetObjectClass(env, target);
+  jmethodID dispatch = (*env)->GetMethodID(env, session_class, "dispatchDetached",
+      "(IZILjava/lang/String;Ljava/lang/String;Ljava/lang/String;)V");
+  (*env)->DeleteLocalRef(env, session_class);
+  if (!dispatch) {
+    (*env)->DeleteLocalRef(env, target);
+    return;
+  }
+  jint crash_pid = 0;
+  jstring process_name = NULL, summary = NULL, report = NULL;
+  if (crash != NULL) {
+    const gchar *value;
+    crash_pid = (jint) frida_crash_get_pid(crash);
+    value = frida_crash_get_process_name(crash);
+    process_name = value ? (*env)->NewStringUTF(env, value) : NULL;
+    value = frida_crash_get_summary(crash);
+    summary = value ? (*env)->NewStringUTF(env, value) : NULL;
+    value = frida_crash_get_report(crash);
+    report = value ? (*env)->NewStringUTF(env, value) : NULL;
+  }
+  (*env)->CallVoidMethod(env, target, dispatch, (jint) reason, crash != NULL ? JNI_TRUE : JNI_FALSE, crash_pid,
+      process_name, summary, report);
+  if ((*env)->ExceptionCheck(env)) {
+    (*env)->ExceptionClear(env);
+  }
+  if (process_name) (*env)->DeleteLocalRef(env, process_name);
+  if (summary) (*env)->DeleteLocalRef(env, summary);
+  if (report) (*env)->DeleteLocalRef(env, report);
+  (*env)->DeleteLocalRef(env, target);
+}
+
+static void free_session_detached_handler_data(gpointer user_data, GClosure *closure) {
+  SessionDetachedHandlerData *handler_data = (SessionDetachedHandlerData *)user_data;
+  JNIEnv *env = NULL;
+  if ((*handler_data->jvm)->AttachCurrentThread(handler_data->jvm, (void **)&env, NULL) == 0) {
+    (*env)->DeleteWeakGlobalRef(env, handler_data->session_weak);
+  }
+  g_free(handler_data);
+}
+
 // Session implementations
 
 JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getPid(JNIEnv *env, jobject obj) {
@@ -29,7 +84,7 @@ JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getPid(JNIEnv *e
   return (jint) frida_session_get_pid(session);
 }
 
-JNIEXPORT jboolean JNICALL Java_nl_axelkoolhaas_frida_1java_Session_isDetached(JNIEnv *env, jobject obj) {
+JNIEXPORT jboolean JNICALL Java_nl_axelkoolhaas_frida_1java_Session_isDetachedNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -37,7 +92,7 @@ JNIEXPORT jboolean JNICALL Java_nl_axelkoolhaas_frida_1java_Session_isDetached(J
   return frida_session_is_detached(session) ? JNI_TRUE : JNI_FALSE;
 }
 
-JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_detach(JNIEnv *env, jobject obj) {
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_detachNative(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -50,7 +105,7 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_detach(JNIEnv *e
   }
 }
 
-JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScript__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring source) {
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScriptNative__Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring source) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -65,11 +120,11 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScript_
     return NULL;
   }
   jclass script_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Script");
-  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(J)V");
-  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script);
+  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(JLnl/axelkoolhaas/frida_java/Session;)V");
+  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script, obj);
 }
 
-JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScript__Ljava_lang_String_2Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring source, jstring name) {
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScriptNative__Ljava_lang_String_2Ljava_lang_String_2(JNIEnv *env, jobject obj, jstring source, jstring name) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
@@ -89,8 +144,147 @@ JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScript_
     return NULL;
   }
   jclass script_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Script");
-  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(J)V");
-  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script);
+  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(JLnl/axelkoolhaas/frida_java/Session;)V");
+  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script, obj);
+}
+
+JNIEXPORT jbyteArray JNICALL Java_nl_axelkoolhaas_frida_1java_Session_compileScriptNative(JNIEnv *env, jobject obj, jstring source, jint runtime) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  const char *source_str = (*env)->GetStringUTFChars(env, source, NULL);
+  GError *error = NULL;
+  FridaScriptOptions *options = frida_script_options_new();
+  frida_script_options_set_runtime(options, (FridaScriptRuntime) runtime);
+  GBytes *compiled = frida_session_compile_script_sync(session, source_str, options, NULL, &error);
+  g_object_unref(options);
+  (*env)->ReleaseStringUTFChars(env, source, source_str);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+    return NULL;
+  }
+  gsize size = 0;
+  const guint8 *data = g_bytes_get_data(compiled, &size);
+  jbyteArray result = (*env)->NewByteArray(env, (jsize) size);
+  if (result != NULL && size > 0) {
+    (*env)->SetByteArrayRegion(env, result, 0, (jsize) size, (const jbyte *) data);
+  }
+  g_bytes_unref(compiled);
+  return result;
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScriptFromBytes(JNIEnv *env, jobject obj, jbyteArray bytes) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  jsize length = (*env)->GetArrayLength(env, bytes);
+  jbyte *elements = (*env)->GetByteArrayElements(env, bytes, NULL);
+  GBytes *compiled = g_bytes_new(elements, length);
+  (*env)->ReleaseByteArrayElements(env, bytes, elements, JNI_ABORT);
+  GError *error = NULL;
+  FridaScript *script = frida_session_create_script_from_bytes_sync(session, compiled, NULL, NULL, &error);
+  g_bytes_unref(compiled);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+    return NULL;
+  }
+  jclass script_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Script");
+  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(JLnl/axelkoolhaas/frida_java/Session;)V");
+  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script, obj);
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScriptFromBufferNative(JNIEnv *env, jobject obj, jobject buffer, jint offset, jint length, jint runtime) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  guint8 *address = (guint8 *) (*env)->GetDirectBufferAddress(env, buffer);
+  if (address == NULL) {
+    throw_runtime_exception(env, "Buffer is not a direct buffer");
+    return NULL;
+  }
+  // Copy straight from the (possibly memory-mapped) buffer, skipping the Java heap
+  GBytes *compiled = g_bytes_new(address + offset, (gsize) length);
+  FridaScriptOptions *options = frida_script_options_new();
+  frida_script_options_set_runtime(options, (FridaScriptRuntime) runtime);
+  GError *error = NULL;
+  FridaScript *script = frida_session_create_script_from_bytes_sync(session, compiled, options, NULL, &error);
+  g_object_unref(options);
+  g_bytes_unref(compiled);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+    return NULL;
+  }
+  jclass script_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Script");
+  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(JLnl/axelkoolhaas/frida_java/Session;)V");
+  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script, obj);
+}
+
+JNIEXPORT jbyteArray JNICALL Java_nl_axelkoolhaas_frida_1java_Session_snapshotScriptNative(JNIEnv *env, jobject obj, jstring embed_script, jstring warmup_script, jint runtime) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  const char *embed_str = (*env)->GetStringUTFChars(env, embed_script, NULL);
+  FridaSnapshotOptions *options = frida_snapshot_options_new();
+  if (warmup_script != NULL) {
+    const char *warmup_str = (*env)->GetStringUTFChars(env, warmup_script, NULL);
+    frida_snapshot_options_set_warmup_script(options, warmup_str);
+    (*env)->ReleaseStringUTFChars(env, warmup_script, warmup_str);
+  }
+  frida_snapshot_options_set_runtime(options, (FridaScriptRuntime) runtime);
+  GError *error = NULL;
+  GBytes *snapshot = frida_session_snapshot_script_sync(session, embed_str, options, NULL, &error);
+  g_object_unref(options);
+  (*env)->ReleaseStringUTFChars(env, embed_script, embed_str);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+    return NULL;
+  }
+  gsize size = 0;
+  const guint8 *data = g_bytes_get_data(snapshot, &size);
+  jbyteArray result = (*env)->NewByteArray(env, (jsize) size);
+  if (result != NULL && size > 0) {
+    (*env)->SetByteArrayRegion(env, result, 0, (jsize) size, (const jbyte *) data);
+  }
+  g_bytes_unref(snapshot);
+  return result;
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_createScriptFromSnapshotNative(JNIEnv *env, jobject obj, jstring source, jobject buffer, jint offset, jint length, jint runtime) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  guint8 *address = (guint8 *) (*env)->GetDirectBufferAddress(env, buffer);
+  if (address == NULL) {
+    throw_runtime_exception(env, "Buffer is not a direct buffer");
+    return NULL;
+  }
+  GBytes *snapshot = g_bytes_new(address + offset, (gsize) length);
+  FridaScriptOptions *options = frida_script_options_new();
+  frida_script_options_set_snapshot(options, snapshot);
+  frida_script_options_set_runtime(options, (FridaScriptRuntime) runtime);
+  g_bytes_unref(snapshot);
+  const char *source_str = (*env)->GetStringUTFChars(env, source, NULL);
+  GError *error = NULL;
+  FridaScript *script = frida_session_create_script_sync(session, source_str, options, NULL, &error);
+  (*env)->ReleaseStringUTFChars(env, source, source_str);
+  g_object_unref(options);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+    return NULL;
+  }
+  jclass script_class = (*env)->FindClass(env, "nl/axelkoolhaas/frida_java/Script");
+  jmethodID script_constructor = (*env)->GetMethodID(env, script_class, "<init>", "(JLnl/axelkoolhaas/frida_java/Session;)V");
+  return (*env)->NewObject(env, script_class, script_constructor, (jlong) script, obj);
 }
 
 JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_enableChildGating(JNIEnv *env, jobject obj) {
@@ -119,15 +313,36 @@ JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_disableChildGati
   }
 }
 
-JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getDevice(JNIEnv *env, jobject obj) {
-  // frida_session_get_device is not available in this Frida SDK version.
-  return NULL;
-}
-
 JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getParameters(JNIEnv *env, jobject obj) {
   // Not implemented: FridaSession parameters not exposed in C API
   return NULL;
 }
+JNIEXPORT jlong JNICALL Java_nl_axelkoolhaas_frida_1java_Session_connectDetachedNative(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+
+  SessionDetachedHandlerData *handler_data = g_new0(SessionDetachedHandlerData, 1);
+  if ((*env)->GetJavaVM(env, &handler_data->jvm) != 0) {
+    g_free(handler_data);
+    throw_runtime_exception(env, "Failed to get JavaVM");
+    return 0;
+  }
+  handler_data->session_weak = (*env)->NewWeakGlobalRef(env, obj);
+
+  return (jlong) g_signal_connect_data(session, "detached", G_CALLBACK(on_frida_session_detached), handler_data,
+      free_session_detached_handler_data, 0);
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_disconnectDetachedNative(JNIEnv *env, jobject obj, jlong handler_id) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  // Frees the handler data, releasing the weak reference to the session object
+  g_signal_handler_disconnect(session, (gulong) handler_id);
+}
 
 JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getRealm(JNIEnv *env, jobject obj) {
   // Not implemented: FridaSession realm not exposed in C API
@@ -135,8 +350,24 @@ JNIEXPORT jstring JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getRealm(JNIE
 }
 
 JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_Session_getPersistTimeout(JNIEnv *env, jobject obj) {
-  // Not implemented: FridaSession persist-timeout not exposed in C API
-  return 0;
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  return (jint) frida_session_get_persist_timeout(session);
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_resumeNative(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  FridaSession *session = (FridaSession *) native_ptr;
+  GError *error = NULL;
+  frida_session_resume_sync(session, NULL, &error);
+  if (error != NULL) {
+    throw_runtime_exception(env, error->message);
+    g_error_free(error);
+  }
 }
 
 JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_Session_disposeNative(JNIEnv *env, jclass cls, jlong native_ptr) {
@@ -21,20 +21,34 @@
 
 // SessionOptions JNI implementations
 
+JNIEXPORT jlong JNICALL Java_nl_axelkoolhaas_frida_1java_SessionOptions_createNative(JNIEnv *env, jclass cls) {
+  return (jlong) frida_session_options_new();
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_SessionOptions_disposeNative(JNIEnv *env, jclass cls, jlong native_ptr) {
+  if (native_ptr != 0) {
+    g_object_unref((FridaSessionOptions *) native_ptr);
+  }
+}
+
 JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_SessionOptions_setPersistTimeout(JNIEnv *env, jobject obj, jint timeout) {
+  if (timeout < 0) {
+    throw_illegal_argument_exception(env, "Persist timeout must not be negative");
+    return;
+  }
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  if ((*env)->ExceptionCheck(env)) return;
   FridaSessionOptions *opts = (FridaSessionOptions *) native_ptr;
-  g_object_set(opts, "persist-timeout", (gint)timeout, NULL);
+  frida_session_options_set_persist_timeout(opts, (guint) timeout);
 }
 
 JNIEXPORT jint JNICALL Java_nl_axelkoolhaas_frida_1java_SessionOptions_getPersistTimeout(JNIEnv *env, jobject obj) {
   jclass cls = (*env)->GetObjectClass(env, obj);
   jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
   jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  if ((*env)->ExceptionCheck(env)) return 0;
   FridaSessionOptions *opts = (FridaSessionOptions *) native_ptr;
-  gint timeout = 0;
-  g_object_get(opts, "persist-timeout", &timeout, NULL);
-  return (jint)timeout;
+  return (jint) frida_session_options_get_persist_timeout(opts);
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+#include "frida_common.h"
+
+// SpawnOptions JNI implementations
+
+static FridaSpawnOptions *get_spawn_options(JNIEnv *env, jobject obj) {
+  jclass cls = (*env)->GetObjectClass(env, obj);
+  jmethodID get_native_ptr_method = (*env)->GetMethodID(env, cls, "getNativePtr", "()J");
+  jlong native_ptr = (*env)->CallLongMethod(env, obj, get_native_ptr_method);
+  return (FridaSpawnOptions *) native_ptr;
+}
+
+JNIEXPORT jlong JNICALL Java_nl_axelkoolhaas_frida_1java_SpawnOptions_createNative(JNIEnv *env, jclass cls) {
+  return (jlong) frida_spawn_options_new();
+}
+
+JNIEXPORT jobject JNICALL Java_nl_axelkoolhaas_frida_1java_SpawnOptions_getAuxSync(JNIEnv *env, jobject obj, jobject cancellable) {
+  FridaSpawnOptions *opts = get_spawn_options(env, obj);
+  return parameters_to_java_map(env, frida_spawn_options_get_aux(opts));
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_SpawnOptions_setAuxSync(JNIEnv *env, jobject obj, jobject aux, jobject cancellable) {
+  FridaSpawnOptions *opts = get_spawn_options(env, obj);
+  GHashTable *table = g_hash_table_new_full(g_str_hash, g_str_equal, g_free, (GDestroyNotify) g_variant_unref);
+  if (aux != NULL) {
+    GVariant *dict = java_to_gvariant(env, aux);
+    if (dict == NULL) {
+      g_hash_table_unref(table);
+      return;
+    }
+    g_variant_ref_sink(dict);
+    GVariantIter iter;
+    const gchar *key;
+    GVariant *value;
+    g_variant_iter_init(&iter, dict);
+    while (g_variant_iter_next(&iter, "{&sv}", &key, &value)) {
+      g_hash_table_insert(table, g_strdup(key), value);
+    }
+    g_variant_unref(dict);
+  }
+  frida_spawn_options_set_aux(opts, table);
+  g_hash_table_unref(table);
+}
+
+JNIEXPORT void JNICALL Java_nl_axelkoolhaas_frida_1java_SpawnOptions_disposeNative(JNIEnv *env, jclass cls, jlong native_ptr) {
+  if (native_ptr != 0) {
+    g_object_unref((FridaSpawnOptions *) native_ptr);
+  }
+}
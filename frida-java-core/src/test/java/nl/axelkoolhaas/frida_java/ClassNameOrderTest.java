@@ -46,5 +46,25 @@ public class ClassNameOrderTest {
     class I_ChildTest extends ChildTest {}
     @Nested
     class J_ErrorHandlingTest extends ErrorHandlingTest {}
+    @Nested
+    class K_ProcessSelectorTest extends ProcessSelectorTest {}
+    @Nested
+    class L_ProcessWatcherTest extends ProcessWatcherTest {}
+    @Nested
+    class M_SessionRegistryTest extends SessionRegistryTest {}
+    @Nested
+    class N_AttachSchedulerTest extends AttachSchedulerTest {}
+    @Nested
+    class O_ScriptFleetTest extends ScriptFleetTest {}
+    @Nested
+    class P_ScriptCacheTest extends ScriptCacheTest {}
+    @Nested
+    class Q_ScriptPoolTest extends ScriptPoolTest {}
+    @Nested
+    class S_FakeFridaCoreLoadTest extends FakeFridaCoreLoadTest {}
+    @Nested
+    class T_MetricsTest extends MetricsTest {}
+    @Nested
+    class U_FlightRecorderTest extends FlightRecorderTest {}
 }
 
@@ -140,4 +140,29 @@ public class ApplicationTest {
             }
         }
     }
+
+    @Test
+    @Order(5)
+    void testApplicationInfoSnapshots() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try {
+                ApplicationInfo[] infos = localDevice.enumerateApplicationInfos();
+                assertNotNull(infos, "ApplicationInfo array should not be null");
+                try (ApplicationList appList = localDevice.enumerateApplicationsSync(null, null)) {
+                    assertEquals(appList.size(), appList.toInfoArray().length);
+                    if (appList.size() > 0) {
+                        try (Application app = appList.get(0)) {
+                            ApplicationInfo info = app.getInfo();
+                            assertEquals(app.getIdentifier(), info.getIdentifier());
+                            assertEquals(info, new ApplicationInfo(info.getIdentifier(), info.getName(), info.getPid()));
+                        }
+                    }
+                }
+                System.out.println("Enumerated " + infos.length + " application snapshots");
+            } catch (UnsupportedOperationException e) {
+                System.out.println("Application enumeration not supported on this platform");
+            }
+        }
+    }
 }
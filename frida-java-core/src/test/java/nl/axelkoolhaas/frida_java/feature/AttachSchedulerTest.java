@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.AttachScheduler;
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for bounded attach scheduling.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AttachSchedulerTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testScheduledAttachLoadsScript() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager();
+             AttachScheduler scheduler = new AttachScheduler(1, 2)) {
+            Device localDevice = deviceManager.getLocalDevice();
+            int targetPid = (int) ProcessHandle.current().pid();
+
+            CountDownLatch received = new CountDownLatch(1);
+            AttachScheduler.Job job = new AttachScheduler.Job(localDevice, targetPid, "send('hello');");
+            job.setMessageHandler((message, data) -> received.countDown());
+
+            AttachScheduler.Result result;
+            try {
+                result = scheduler.submit(job).get(30, TimeUnit.SECONDS);
+            } catch (java.util.concurrent.ExecutionException e) {
+                abort("Cannot attach to current process: " + e.getCause().getMessage());
+                return;
+            }
+
+            try {
+                assertEquals(targetPid, result.getPid());
+                assertNotNull(result.getScript(), "Script should be loaded");
+                assertTrue(result.getLatencyNanos() >= result.getAttachNanos(), "Latency should include attach time");
+                assertTrue(received.await(10, TimeUnit.SECONDS), "Handler should see messages sent during load");
+            } finally {
+                result.getScript().close();
+                result.getSession().close();
+            }
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testInFlightLimitPerDevice() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager();
+             AttachScheduler scheduler = new AttachScheduler(1, 4)) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            List<CompletableFuture<AttachScheduler.Result>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(scheduler.submit(localDevice, Integer.MAX_VALUE - i, null));
+            }
+            assertTrue(scheduler.getInFlightCount() <= 1, "At most one job should run per device");
+
+            for (CompletableFuture<AttachScheduler.Result> future : futures) {
+                CompletionException e = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(RuntimeException.class, e.getCause());
+            }
+            assertEquals(0, scheduler.getQueuedCount());
+            // A future completes just before its worker gives back the slot
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (scheduler.getInFlightCount() != 0) {
+                assertTrue(System.nanoTime() < deadline, "In-flight count should drop to zero");
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testCloseCancelsQueuedJobs() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            AttachScheduler scheduler = new AttachScheduler(1, 1);
+            List<CompletableFuture<AttachScheduler.Result>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(scheduler.submit(localDevice, Integer.MAX_VALUE - i, null));
+            }
+            scheduler.close();
+
+            for (CompletableFuture<AttachScheduler.Result> future : futures) {
+                // Queued jobs are cancelled, the running one still fails on its own
+                assertThrows(Exception.class, () -> future.get(30, TimeUnit.SECONDS));
+            }
+            assertThrows(IllegalStateException.class, () -> scheduler.submit(localDevice, 1, null));
+        }
+    }
+
+    @Test
+    @Order(4)
+    void testHigherPriorityRunsFirst() {
+        try (DeviceManager deviceManager = new DeviceManager();
+             AttachScheduler scheduler = new AttachScheduler(1, 1)) {
+            Device localDevice = deviceManager.getLocalDevice();
+            List<Integer> started = new CopyOnWriteArrayList<>();
+            List<CompletableFuture<AttachScheduler.Result>> futures = new ArrayList<>();
+            int[] priorities = { 0, 0, 5, 10, 1 };
+            // Holding the scheduler's monitor keeps the worker from taking the next job,
+            // so everything after the first job is queued before any choice is made
+            synchronized (scheduler) {
+                for (int i = 0; i < priorities.length; i++) {
+                    AttachScheduler.Job job = new AttachScheduler.Job(localDevice, Integer.MAX_VALUE - i, null);
+                    job.setPriority(priorities[i]);
+                    int index = i;
+                    futures.add(scheduler.submit(job).whenComplete((result, error) -> started.add(index)));
+                }
+            }
+            for (CompletableFuture<AttachScheduler.Result> future : futures) {
+                assertThrows(Exception.class, () -> future.get(30, TimeUnit.SECONDS));
+            }
+            // Jobs run one at a time, so they complete in the order they started
+            assertEquals(List.of(0, 3, 2, 4, 1), started, "Queued jobs should run by priority");
+        }
+    }
+
+    @Test
+    @Order(5)
+    void testDevicesAreServedRoundRobin() {
+        try (DeviceManager deviceManager = new DeviceManager();
+             AttachScheduler scheduler = new AttachScheduler(4, 1)) {
+            Device[] devices = deviceManager.enumerateDevices();
+            assumeTrue(devices.length >= 2, "Two devices are needed - skipping test");
+            Device busy = devices[0];
+            Device quiet = devices[1];
+
+            List<String> started = new CopyOnWriteArrayList<>();
+            List<CompletableFuture<AttachScheduler.Result>> futures = new ArrayList<>();
+            synchronized (scheduler) {
+                // The busy device queues all of its jobs first, with a higher priority
+                for (int i = 0; i < 3; i++) {
+                    AttachScheduler.Job job = new AttachScheduler.Job(busy, Integer.MAX_VALUE - i, null);
+                    job.setPriority(10);
+                    futures.add(scheduler.submit(job).whenComplete((result, error) -> started.add("busy")));
+                }
+                for (int i = 0; i < 3; i++) {
+                    futures.add(scheduler.submit(quiet, Integer.MAX_VALUE - i, null)
+                        .whenComplete((result, error) -> started.add("quiet")));
+                }
+            }
+            for (CompletableFuture<AttachScheduler.Result> future : futures) {
+                assertThrows(Exception.class, () -> future.get(60, TimeUnit.SECONDS));
+            }
+            assertEquals(List.of("busy", "quiet", "busy", "quiet", "busy", "quiet"), started,
+                "Devices should take turns regardless of priority");
+        }
+    }
+}
@@ -193,4 +193,37 @@ public class DeviceAdvancedTest {
             }
         }
     }
+
+    @Test
+    @Order(8)
+    void testTypedSystemParameters() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            java.util.Map<String, Object> params = localDevice.querySystemParametersSync(null);
+
+            // Nested dictionaries come back as maps instead of printed GVariant text
+            Object os = params.get("os");
+            assertNotNull(os, "System parameters should describe the OS");
+            assertInstanceOf(java.util.Map.class, os, "OS parameters should be a map");
+            assertInstanceOf(String.class, ((java.util.Map<?, ?>) os).get("id"), "OS id should be a string");
+            System.out.println("OS parameters: " + os);
+
+            try (SpawnOptions options = new SpawnOptions()) {
+                java.util.Map<String, Object> aux = new java.util.HashMap<>();
+                aux.put("flag", true);
+                aux.put("count", 3);
+                aux.put("blob", new byte[] { 1, 2, 3 });
+                aux.put("nested", java.util.Map.of("name", "value"));
+                options.setAuxSync(aux, null);
+
+                java.util.Map<String, Object> roundTrip = options.getAuxSync(null);
+                assertEquals(Boolean.TRUE, roundTrip.get("flag"));
+                assertEquals(3L, roundTrip.get("count"), "Integral values should come back as Long");
+                assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) roundTrip.get("blob"));
+                assertEquals(java.util.Map.of("name", "value"), roundTrip.get("nested"));
+                assertThrows(IllegalArgumentException.class,
+                    () -> options.setAuxSync(java.util.Map.of("bad", new Object()), null));
+            }
+        }
+    }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Crash;
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.ProcessInfo;
+import nl.axelkoolhaas.frida_java.ProcessList;
+import nl.axelkoolhaas.frida_java.ResumePolicy;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.Session;
+import nl.axelkoolhaas.frida_java.SessionOptions;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load tests against the fake frida-core in src/test/native.
+ * Only runs with -Pfake-frida-core, which links the JNI layer against the fake
+ * and sets -Dfrida.java.fake=true.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@EnabledIfSystemProperty(named = "frida.java.fake", matches = "true")
+public class FakeFridaCoreLoadTest {
+
+    /** Script.MAX_QUEUED_MESSAGES */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private static DeviceManager deviceManager;
+    private static Device localDevice;
+
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+        assertTrue(Frida.getVersionString().endsWith("-fake"), "Fake frida-core should be loaded");
+        deviceManager = new DeviceManager();
+        localDevice = deviceManager.getLocalDevice();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (deviceManager != null) {
+            deviceManager.close();
+        }
+        Frida.deinit();
+    }
+
+    private static int expectedProcesses() {
+        String configured = System.getenv("FRIDA_FAKE_PROCESSES");
+        return configured != null ? Integer.parseInt(configured) : 64;
+    }
+
+    private static long seq(String message) {
+        int start = message.indexOf("\"seq\":") + 6;
+        return Long.parseLong(message.substring(start, message.indexOf('}', start)));
+    }
+
+    private static String emit(int count, int rate, int size) {
+        return "{\"type\":\"fake:emit\",\"count\":" + count + ",\"rate\":" + rate + ",\"size\":" + size + "}";
+    }
+
+    @Test
+    @Order(1)
+    void testEnumerationAtScale() {
+        int expected = expectedProcesses();
+        long start = System.nanoTime();
+        try (ProcessList processes = localDevice.enumerateProcesses()) {
+            ProcessInfo[] infos = processes.toInfoArray();
+            long elapsed = System.nanoTime() - start;
+            assertEquals(expected, infos.length);
+            for (int i = 0; i < infos.length; i++) {
+                assertEquals(i + 1, infos[i].getPid());
+                assertEquals("fake-" + (i + 1), infos[i].getName());
+            }
+            System.out.printf("Enumerated %d processes in %d ms%n", infos.length, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testMessageDispatchThroughput() throws InterruptedException {
+        int count = 1_000_000;
+        try (Session session = localDevice.attach(1);
+             Script script = session.createScript("// fake")) {
+            CountDownLatch done = new CountDownLatch(count);
+            AtomicLong next = new AtomicLong();
+            AtomicLong outOfOrder = new AtomicLong();
+            script.setMessageHandler((message, data) -> {
+                if (seq(message) != next.getAndIncrement()) {
+                    outOfOrder.incrementAndGet();
+                }
+                done.countDown();
+            });
+            script.load();
+
+            long start = System.nanoTime();
+            script.post(emit(count, 0, 0));
+            assertTrue(done.await(120, TimeUnit.SECONDS), "All messages should be delivered");
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(0, outOfOrder.get(), "Messages should be delivered in order");
+            System.out.printf("Dispatched %d messages at %d msg/s%n", count, count * 1_000_000_000L / elapsed);
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testPacedEmission() throws InterruptedException {
+        try (Session session = localDevice.attach(1);
+             Script script = session.createScript("// fake")) {
+            CountDownLatch done = new CountDownLatch(2000);
+            script.setMessageHandler((message, data) -> done.countDown());
+            script.load();
+
+            long start = System.nanoTime();
+            script.post(emit(2000, 10_000, 0));
+            assertTrue(done.await(30, TimeUnit.SECONDS), "All messages should be delivered");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMs >= 150, "2000 messages at 10000 msg/s should take about 200 ms, took " + elapsedMs);
+        }
+    }
+
+    @Test
+    @Order(4)
+    void testBinaryPayload() throws InterruptedException {
+        try (Session session = localDevice.attach(1);
+             Script script = session.createScript("// fake")) {
+            CountDownLatch done = new CountDownLatch(100);
+            AtomicLong corrupt = new AtomicLong();
+            script.setMessageHandler((message, data) -> {
+                boolean intact = data != null && data.length == 256;
+                for (int i = 0; intact && i < data.length; i++) {
+                    intact = data[i] == (byte) i;
+                }
+                if (!intact) {
+                    corrupt.incrementAndGet();
+                }
+                done.countDown();
+            });
+            script.load();
+
+            script.post(emit(100, 0, 256));
+            assertTrue(done.await(30, TimeUnit.SECONDS), "All messages should be delivered");
+            assertEquals(0, corrupt.get(), "Every message should carry the generated payload");
+        }
+    }
+
+    @Test
+    @Order(5)
+    void testBackpressureKeepsNewestMessages() {
+        int overflow = 1000;
+        try (Session session = localDevice.attach(1);
+             Script script = session.createScript("// fake")) {
+            // Connect without a handler, so messages are queued
+            script.setMessageHandler(null);
+            script.load();
+
+            script.post(emit(QUEUE_CAPACITY + overflow, 0, 0));
+            // Sync calls wait for the main context, so the emission is complete afterwards
+            session.compileScript("// barrier");
+
+            List<Long> delivered = new ArrayList<>();
+            script.setMessageHandler((message, data) -> delivered.add(seq(message)));
+            assertEquals(QUEUE_CAPACITY, delivered.size(), "The queue should be bounded");
+            assertEquals(overflow, (long) delivered.get(0), "The oldest messages should be dropped");
+            assertEquals(QUEUE_CAPACITY + overflow - 1, (long) delivered.get(delivered.size() - 1));
+        }
+    }
+
+    @Test
+    @Order(6)
+    void testCrashIsReportedWithoutPolling() throws InterruptedException {
+        int pid = 7;
+        try (Session session = localDevice.attach(pid);
+             Script script = session.createScript("// fake")) {
+            script.load();
+            CountDownLatch detached = new CountDownLatch(1);
+            AtomicReference<Session.DetachReason> reason = new AtomicReference<>();
+            AtomicReference<Crash> crash = new AtomicReference<>();
+            session.onDetachedWithReason((detachReason, details) -> {
+                reason.set(detachReason);
+                crash.set(details);
+                detached.countDown();
+            });
+
+            long start = System.nanoTime();
+            script.post("{\"type\":\"fake:detach\",\"reason\":3,\"crash\":1}");
+            assertTrue(detached.await(5, TimeUnit.SECONDS), "Detach should be reported");
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            System.out.println("Detach reported after " + micros + " us");
+
+            assertEquals(Session.DetachReason.PROCESS_TERMINATED, reason.get());
+            assertNotNull(crash.get(), "Crash details should be delivered");
+            assertEquals(pid, crash.get().getPid());
+            assertEquals("fake-" + pid, crash.get().getProcessName());
+            assertThrows(IllegalStateException.class, () -> script.post("{}"),
+                "Posting to a detached session should fail immediately");
+            assertFalse(localDevice.getSessionRegistry().contains(pid),
+                "The registry should drop the detached session");
+        }
+    }
+
+    private static void awaitDetached(Session session, boolean detached) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.isDetached() != detached) {
+            assertTrue(System.nanoTime() < deadline, "Session should " + (detached ? "detach" : "resume"));
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @Order(7)
+    void testLostConnectionIsResumed() throws InterruptedException {
+        try (SessionOptions options = new SessionOptions()) {
+            options.setPersistTimeout(30);
+            try (Session session = localDevice.attach(8, options);
+                 Script script = session.createScript("// fake")) {
+                assertEquals(30, session.getPersistTimeout());
+                assertFalse(localDevice.getSessionRegistry().contains(8), "Sessions with options should not be shared");
+                session.setResumePolicy(ResumePolicy.exponentialBackoff(50, 200, TimeUnit.MILLISECONDS, 5));
+                AtomicInteger detaches = new AtomicInteger();
+                session.onDetached(detaches::incrementAndGet);
+                CountDownLatch received = new CountDownLatch(3);
+                script.setMessageHandler((message, data) -> received.countDown());
+                script.load();
+
+                script.post("{\"type\":\"fake:interrupt\",\"failures\":2}");
+                awaitDetached(session, true);
+                awaitDetached(session, false);
+
+                script.post(emit(3, 0, 0));
+                assertTrue(received.await(5, TimeUnit.SECONDS), "The existing handler should receive messages");
+                assertEquals(0, detaches.get(), "A resumed session should not be reported as detached");
+                assertNull(session.getDetachReason());
+            }
+        }
+    }
+
+    @Test
+    @Order(8)
+    void testResumeGivesUpAfterMaxAttempts() throws InterruptedException {
+        try (SessionOptions options = new SessionOptions()) {
+            options.setPersistTimeout(30);
+            try (Session session = localDevice.attach(9, options);
+                 Script script = session.createScript("// fake")) {
+                session.setResumePolicy(ResumePolicy.exponentialBackoff(10, 20, TimeUnit.MILLISECONDS, 3));
+                CountDownLatch detached = new CountDownLatch(1);
+                AtomicReference<Session.DetachReason> reason = new AtomicReference<>();
+                session.onDetachedWithReason((detachReason, crash) -> {
+                    reason.set(detachReason);
+                    detached.countDown();
+                });
+                script.load();
+
+                script.post("{\"type\":\"fake:interrupt\",\"failures\":3}");
+                assertTrue(detached.await(5, TimeUnit.SECONDS), "Detach should be reported once resuming fails");
+                assertEquals(Session.DetachReason.CONNECTION_TERMINATED, reason.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the Java Flight Recorder events of Frida operations.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FlightRecorderTest {
+
+    private static final String PREFIX = "nl.axelkoolhaas.frida_java.";
+
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testOperationsAreRecorded() throws Exception {
+        int pid = (int) ProcessHandle.current().pid();
+        Path file = Files.createTempFile("frida-java", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "Attach", "CreateScript", "ScriptLoad", "ScriptPost", "Detach" }) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            try (DeviceManager deviceManager = new DeviceManager()) {
+                Device localDevice = deviceManager.getLocalDevice();
+                try (Session session = localDevice.attach(pid)) {
+                    try (Script script = session.createScript("recv(function () {});", "jfr-test")) {
+                        script.load();
+                        script.post("{\"type\":\"ping\"}");
+                    }
+                    session.detach();
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Cannot attach to process for JFR test: " + e.getMessage());
+                return;
+            }
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith(PREFIX))
+                .collect(Collectors.toList());
+            RecordedEvent attach = find(events, "Attach");
+            assertEquals(pid, attach.getInt("pid"));
+            assertEquals("jfr-test", find(events, "CreateScript").getString("scriptName"));
+            assertEquals("jfr-test", find(events, "ScriptLoad").getString("scriptName"));
+            assertEquals("{\"type\":\"ping\"}".length(), find(events, "ScriptPost").getLong("bytes"));
+            assertNotNull(find(events, "Detach"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testThresholdFiltersFastOperations() throws Exception {
+        Path file = Files.createTempFile("frida-java", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "Attach").withThreshold(Duration.ofHours(1));
+            recording.start();
+            try (DeviceManager deviceManager = new DeviceManager();
+                 Session session = deviceManager.getLocalDevice().attach((int) ProcessHandle.current().pid())) {
+                assertFalse(session.isDetached());
+            } catch (RuntimeException e) {
+                System.out.println("Cannot attach to process for JFR test: " + e.getMessage());
+                return;
+            }
+            recording.stop();
+            recording.dump(file);
+
+            assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(event -> event.getEventType().getName().equals(PREFIX + "Attach")),
+                "Attach below the threshold should not be committed");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(PREFIX + name))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+}
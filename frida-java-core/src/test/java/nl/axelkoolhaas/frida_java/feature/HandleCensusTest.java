@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.FridaScope;
+import nl.axelkoolhaas.frida_java.HandleCensus;
+import nl.axelkoolhaas.frida_java.Process;
+import nl.axelkoolhaas.frida_java.ProcessList;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for the native handle census.
+ * Requires the census to be enabled with -Dfrida.java.census=true, which only
+ * its own surefire execution does.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class HandleCensusTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testClosedHandlesAreNotLeaks() {
+        assumeTrue(HandleCensus.isEnabled(), "Handle census is disabled");
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            HandleCensus.Snapshot before = HandleCensus.snapshot();
+
+            try (ProcessList processes = localDevice.enumerateProcesses()) {
+                assertTrue(processes.size() > 0, "Local device should have processes");
+                try (Process process = processes.get(0)) {
+                    assertNotNull(process.getName());
+                }
+                HandleCensus.Snapshot during = HandleCensus.snapshot();
+                assertEquals(before.getLive("FridaProcessList") + 1, during.getLive("FridaProcessList"),
+                    "Open process list should be counted as live");
+            }
+
+            HandleCensus.Snapshot after = HandleCensus.snapshot();
+            assertEquals(before.getLive("FridaProcessList"), after.getLive("FridaProcessList"));
+            assertEquals(before.getLive("FridaProcess"), after.getLive("FridaProcess"));
+            assertEquals(before.getLeaked("FridaProcess"), after.getLeaked("FridaProcess"),
+                "Closed processes should not be reported as leaked");
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testUnclosedHandlesAreReportedAsLeaks() throws InterruptedException {
+        assumeTrue(HandleCensus.isEnabled(), "Handle census is disabled");
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            long leakedBefore = HandleCensus.snapshot().getLeaked("FridaProcess");
+
+            int count;
+            try (ProcessList processes = localDevice.enumerateProcesses()) {
+                // Deliberately leave the elements unclosed
+                count = processes.toArray().length;
+            }
+            assertTrue(count > 0, "Local device should have processes");
+
+            long leaked = leakedBefore;
+            for (int i = 0; i < 50 && leaked - leakedBefore < count; i++) {
+                System.gc();
+                Thread.sleep(100);
+                leaked = HandleCensus.snapshot().getLeaked("FridaProcess");
+            }
+            // Unclosed processes of earlier tests may be collected in the same loop
+            assertTrue(leaked >= leakedBefore + count, "Every unclosed process should be reported");
+
+            HandleCensus.Snapshot snapshot = HandleCensus.snapshot();
+            assertFalse(snapshot.getLeakReports().isEmpty(), "Leak reports should be retained");
+            System.out.println("Census: " + snapshot);
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testScopeReleasesBulkWrappers() {
+        assumeTrue(HandleCensus.isEnabled(), "Handle census is disabled");
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            HandleCensus.Snapshot before = HandleCensus.snapshot();
+
+            Process[] processes;
+            try (FridaScope scope = FridaScope.open()) {
+                processes = localDevice.enumerateProcesses().toArray();
+                assertTrue(processes.length > 0, "Local device should have processes");
+                HandleCensus.Snapshot during = HandleCensus.snapshot();
+                assertEquals(before.getLive("FridaProcessList") + 1, during.getLive("FridaProcessList"),
+                    "Adopted process list should be live until the scope closes");
+                processes[0].close();
+            }
+
+            HandleCensus.Snapshot after = HandleCensus.snapshot();
+            assertEquals(before.getLive("FridaProcess"), after.getLive("FridaProcess"),
+                "Closing the scope should release every process");
+            assertEquals(before.getLive("FridaProcessList"), after.getLive("FridaProcessList"),
+                "Closing the scope should release the list");
+            assertEquals(before.getLeaked("FridaProcess"), after.getLeaked("FridaProcess"),
+                "Processes released by the scope should not be reported as leaked");
+            for (Process process : processes) {
+                process.close(); // already released, must be a no-op
+            }
+            assertEquals(after.getLive("FridaProcess"), HandleCensus.snapshot().getLive("FridaProcess"),
+                "Closing released processes should not count twice");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.*;
+import org.junit.jupiter.api.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for the metrics published through JMX.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MetricsTest {
+
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testTotalsAreRegistered() throws Exception {
+        assumeTrue(FridaMetrics.isEnabled(), "Metrics are disabled");
+        FridaMetrics metrics = FridaMetrics.get();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(FridaMetrics.DOMAIN + ":type=Frida");
+
+        assertTrue(server.isRegistered(name), "Totals should be registered");
+        assertEquals(metrics.getMessagesIn(), ((Long) server.getAttribute(name, "MessagesIn")).longValue());
+        CompositeData attach = (CompositeData) server.getAttribute(name, "AttachDurations");
+        assertNotNull(attach.get("count"), "Histograms should be exposed as open data");
+    }
+
+    @Test
+    @Order(2)
+    void testScriptMessagesAreCounted() throws Exception {
+        assumeTrue(FridaMetrics.isEnabled(), "Metrics are disabled");
+        FridaMetrics totals = FridaMetrics.get();
+        long attachesBefore = totals.getAttachDurations().getCount();
+        long loadsBefore = totals.getLoadDurations().getCount();
+        int pid = (int) ProcessHandle.current().pid();
+
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try (Session session = localDevice.attach(pid);
+                 Script script = session.createScript("recv('ping', function () { send('pong'); });")) {
+                ScriptMetrics metrics = script.getMetrics();
+                assertNotNull(metrics);
+                assertEquals(pid, metrics.getPid());
+                ObjectName name = new ObjectName(FridaMetrics.DOMAIN + ":type=Script,pid=" + pid + ",id=" + metrics.getId());
+                assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+                    "Script should not be registered before it is loaded");
+
+                CountDownLatch received = new CountDownLatch(1);
+                script.setMessageHandler((message, data) -> received.countDown());
+                script.load();
+                assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name), "Loaded script should be registered");
+                script.post("{\"type\":\"ping\"}");
+                assertTrue(received.await(10, TimeUnit.SECONDS), "Reply should arrive");
+
+                assertEquals(1, metrics.getMessagesOut());
+                assertEquals("{\"type\":\"ping\"}".getBytes(StandardCharsets.UTF_8).length, metrics.getBytesOut());
+                assertTrue(metrics.getMessagesIn() >= 1);
+                assertTrue(metrics.getHandlerLatency().getCount() >= 1);
+                assertEquals(0, metrics.getQueueDepth());
+                assertTrue(totals.getAttachDurations().getCount() > attachesBefore);
+                assertTrue(totals.getLoadDurations().getCount() > loadsBefore);
+
+                script.close();
+                assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+                    "Closed script should be unregistered");
+            } catch (RuntimeException e) {
+                System.out.println("Cannot attach to process for metrics test: " + e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testHistogramPercentiles() {
+        Histogram.Snapshot snapshot = FridaMetrics.get().getHandlerLatency();
+        assertTrue(snapshot.getP50Micros() <= snapshot.getP90Micros());
+        assertTrue(snapshot.getP90Micros() <= snapshot.getP99Micros());
+        assertTrue(snapshot.getMeanMicros() >= 0);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.ProcessIndex;
+import nl.axelkoolhaas.frida_java.ProcessSelector;
+import nl.axelkoolhaas.frida_java.Session;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for process selectors and the process name index.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ProcessSelectorTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testSelectorMatching() {
+        assertTrue(ProcessSelector.exact("sh").matches("sh"));
+        assertFalse(ProcessSelector.exact("sh").matches("bash"), "Exact match must not match substrings");
+
+        assertTrue(ProcessSelector.prefix("kworker").matches("kworker/0:1"));
+        assertFalse(ProcessSelector.prefix("kworker").matches("xkworker"));
+
+        ProcessSelector glob = ProcessSelector.glob("com.example.*");
+        assertTrue(glob.matches("com.example.app"));
+        assertFalse(glob.matches("comXexample.app"), "Dots in globs are literal");
+        assertTrue(ProcessSelector.glob("sh?").matches("shd"));
+        assertTrue(ProcessSelector.glob("[bz]sh").matches("zsh"));
+        assertFalse(ProcessSelector.glob("[!bz]sh").matches("zsh"));
+
+        assertTrue(ProcessSelector.regex("(ba|z)sh").matches("bash"));
+        assertFalse(ProcessSelector.regex("sh").matches("bash"), "Regex must match the whole name");
+    }
+
+    @Test
+    @Order(2)
+    void testIndexLookup() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            ProcessIndex index = localDevice.getProcessIndex();
+            index.refresh();
+            assertTrue(index.size() > 0, "Index should contain processes");
+
+            int currentPid = (int) ProcessHandle.current().pid();
+            String currentName = index.getName(currentPid);
+            assumeTrue(currentName != null, "Current process not visible on this device - skipping test");
+
+            int[] exact = index.lookup(ProcessSelector.exact(currentName));
+            assertTrue(Arrays.stream(exact).anyMatch(pid -> pid == currentPid), "Exact lookup should find current process");
+
+            int[] prefix = index.lookup(ProcessSelector.prefix(currentName.substring(0, 1)));
+            assertTrue(Arrays.stream(prefix).anyMatch(pid -> pid == currentPid), "Prefix lookup should find current process");
+
+            int[] glob = index.lookup(ProcessSelector.glob(currentName.charAt(0) + "*"));
+            assertArrayEquals(prefix, glob, "Single-character prefix and glob should select the same processes");
+
+            assertEquals(0, index.lookup(ProcessSelector.exact("nonexistent-process-12345")).length);
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testAttachBySelector() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            assertThrows(RuntimeException.class,
+                () -> localDevice.attach(ProcessSelector.glob("nonexistent-process-*-12345")),
+                "Should throw when no process matches");
+
+            ProcessIndex index = localDevice.getProcessIndex();
+            index.refresh();
+            int currentPid = (int) ProcessHandle.current().pid();
+            String currentName = index.getName(currentPid);
+            assumeTrue(currentName != null, "Current process not visible on this device - skipping test");
+
+            try (Session session = localDevice.attach(ProcessSelector.regex(java.util.regex.Pattern.quote(currentName)))) {
+                assertNotNull(session, "Session should not be null");
+                System.out.println("Attached by selector to PID: " + session.getPid());
+            } catch (RuntimeException e) {
+                System.out.println("Attach by selector failed: " + e.getMessage());
+            }
+        }
+    }
+}
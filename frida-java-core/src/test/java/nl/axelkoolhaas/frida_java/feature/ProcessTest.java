@@ -22,9 +22,15 @@ package nl.axelkoolhaas.frida_java.feature;
 import nl.axelkoolhaas.frida_java.Device;
 import nl.axelkoolhaas.frida_java.DeviceManager;
 import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.FridaScope;
 import nl.axelkoolhaas.frida_java.Process;
+import nl.axelkoolhaas.frida_java.ProcessInfo;
 import nl.axelkoolhaas.frida_java.ProcessList;
 import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -130,5 +136,61 @@ public class ProcessTest {
             }
         }
     }
-}
 
+    @Test
+    @Order(4)
+    void testProcessInfoSnapshots() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            int selfPid = (int) ProcessHandle.current().pid();
+
+            ProcessInfo[] infos = localDevice.enumerateProcessInfos();
+            assertTrue(infos.length > 0, "Should enumerate at least one process");
+            ProcessInfo self = Arrays.stream(infos).filter(info -> info.getPid() == selfPid).findFirst().orElse(null);
+            assertNotNull(self, "Current process should be listed");
+
+            try (ProcessList processList = localDevice.enumerateProcesses()) {
+                ProcessInfo[] fromList = processList.toInfoArray();
+                assertEquals(processList.size(), fromList.length);
+                try (Process first = processList.get(0)) {
+                    ProcessInfo info = first.getInfo();
+                    assertEquals(first.getPid(), info.getPid());
+                    assertEquals(first.getName(), info.getName());
+                    assertEquals(fromList[0].getPid(), info.getPid());
+                }
+            }
+
+            // Value semantics: equal snapshots collapse in a set
+            Set<ProcessInfo> set = new HashSet<>();
+            set.add(self);
+            set.add(new ProcessInfo(self.getPid(), self.getName(), self.getParentPid()));
+            assertEquals(1, set.size());
+        }
+    }
+
+    @Test
+    @Order(5)
+    void testScopeReleasesBulkWrappers() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            Process[] processes;
+            try (FridaScope scope = FridaScope.open()) {
+                assertSame(scope, FridaScope.current());
+                ProcessList list = localDevice.enumerateProcesses();
+                processes = list.toArray();
+                assertTrue(processes.length > 0, "Local device should have processes");
+                assertEquals(processes.length + 1, scope.size(), "List and elements should be adopted");
+
+                // Closing individually inside the scope is still allowed
+                processes[0].close();
+            }
+            assertNull(FridaScope.current(), "Closing the scope should restore the previous one");
+
+            for (Process process : processes) {
+                process.close(); // already released, must be a no-op
+            }
+            // HandleCensusTest checks that the native references are released
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.ProcessWatcher;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the process watcher.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ProcessWatcherTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testStartAndExitEvents() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            int currentPid = (int) ProcessHandle.current().pid();
+
+            try (ProcessWatcher watcher = new ProcessWatcher(localDevice, 50, TimeUnit.MILLISECONDS)) {
+                AtomicInteger childPid = new AtomicInteger(-1);
+                AtomicInteger childParent = new AtomicInteger(-1);
+                CountDownLatch started = new CountDownLatch(1);
+                CountDownLatch exited = new CountDownLatch(1);
+
+                watcher.addListener(new ProcessWatcher.Listener() {
+                    @Override
+                    public void started(int pid, String name, int parentPid) {
+                        if (pid == childPid.get()) {
+                            childParent.set(parentPid);
+                            started.countDown();
+                        }
+                    }
+
+                    @Override
+                    public void exited(int pid) {
+                        if (pid == childPid.get()) {
+                            exited.countDown();
+                        }
+                    }
+                });
+
+                // Establish the baseline before the child exists
+                watcher.poll();
+
+                // Only start polling once the listener knows the child's pid
+                java.lang.Process child = new ProcessBuilder("sleep", "30").start();
+                childPid.set((int) child.pid());
+                watcher.start();
+                assertTrue(started.await(5, TimeUnit.SECONDS), "Should report the started child");
+                System.out.println("Child " + childPid.get() + " started by parent " + childParent.get());
+                if (childParent.get() != 0) {
+                    assertEquals(currentPid, childParent.get(), "Parent pid should be the test process");
+                }
+
+                child.destroy();
+                child.waitFor();
+                assertTrue(exited.await(5, TimeUnit.SECONDS), "Should report the exited child");
+            }
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testReportExisting() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            int currentPid = (int) ProcessHandle.current().pid();
+
+            try (ProcessWatcher watcher = new ProcessWatcher(localDevice, 1, TimeUnit.SECONDS)) {
+                AtomicInteger reported = new AtomicInteger();
+                AtomicInteger sawSelf = new AtomicInteger();
+                watcher.setReportExisting(true);
+                watcher.addListener(new ProcessWatcher.Listener() {
+                    @Override
+                    public void started(int pid, String name, int parentPid) {
+                        reported.incrementAndGet();
+                        if (pid == currentPid) {
+                            sawSelf.incrementAndGet();
+                        }
+                    }
+
+                    @Override
+                    public void exited(int pid) {
+                    }
+                });
+                watcher.poll();
+                assertTrue(reported.get() > 0, "Existing processes should be reported");
+                assertEquals(1, sawSelf.get(), "Current process should be reported once");
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.ScriptCache;
+import nl.axelkoolhaas.frida_java.Session;
+import nl.axelkoolhaas.frida_java.SnapshotCache;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for script compilation, snapshots and their caches.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ScriptCacheTest {
+    private static final String SOURCE = "rpc.exports = { answer: () => 42 };";
+
+    @TempDir
+    Path cacheDir;
+
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testCompileAndCreateFromBytes() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try (Session session = attachToSelf(localDevice)) {
+                byte[] compiled = session.compileScript(SOURCE);
+                assertTrue(compiled.length > 0, "Compiled script should not be empty");
+                try (Script script = session.createScriptFromBytes(compiled)) {
+                    script.load();
+                    assertFalse(script.isDestroyed());
+                }
+                assertThrows(RuntimeException.class, () -> session.compileScript("this is not javascript ("));
+            }
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testCacheSurvivesRestart() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try (Session session = attachToSelf(localDevice)) {
+                ScriptCache cache = new ScriptCache(cacheDir);
+                assertFalse(cache.contains(SOURCE, Script.Runtime.DEFAULT));
+                try (Script script = cache.createScript(session, SOURCE)) {
+                    script.load();
+                }
+                assertEquals(1, cache.getMissCount());
+                assertTrue(cache.contains(SOURCE, Script.Runtime.DEFAULT), "Compiled script should be stored");
+
+                try (Script script = cache.createScript(session, SOURCE)) {
+                    script.load();
+                }
+                assertEquals(1, cache.getHitCount());
+
+                // A new cache over the same directory stands in for a restarted JVM
+                ScriptCache restarted = new ScriptCache(cacheDir);
+                assertNotNull(restarted.get(SOURCE, Script.Runtime.DEFAULT));
+                try (Script script = restarted.createScript(session, SOURCE)) {
+                    script.load();
+                }
+                assertEquals(0, restarted.getMissCount(), "Restarted cache should not compile again");
+
+                restarted.clear();
+                assertFalse(restarted.contains(SOURCE, Script.Runtime.DEFAULT));
+            }
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testSnapshotCache() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try (Session session = attachToSelf(localDevice)) {
+                SnapshotCache cache = new SnapshotCache(cacheDir);
+                String embed = "globalThis.answer = 6 * 7;";
+                try {
+                    cache.getSnapshot(session, embed, null);
+                } catch (RuntimeException e) {
+                    abort("V8 snapshots not supported: " + e.getMessage());
+                }
+                assertEquals(1, cache.getMissCount());
+                assertTrue(cache.contains(session, embed, null));
+                assertFalse(cache.contains(session, embed, "globalThis.warm = true;"), "Warm-up script should be part of the key");
+
+                CountDownLatch received = new CountDownLatch(1);
+                try (Script script = cache.createScript(session, "send(answer);", embed, null)) {
+                    script.setMessageHandler((message, data) -> {
+                        if (message.contains("42")) {
+                            received.countDown();
+                        }
+                    });
+                    script.load();
+                    assertTrue(received.await(10, TimeUnit.SECONDS), "Script should start from the snapshot heap");
+                }
+                assertEquals(1, cache.getHitCount());
+            }
+        }
+    }
+
+    private static Session attachToSelf(Device device) {
+        try {
+            return device.attach((int) ProcessHandle.current().pid());
+        } catch (RuntimeException e) {
+            abort("Cannot attach to current process: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.ScriptFleet;
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for loading one script into a set of processes.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ScriptFleetTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testFleetInstrumentsMatchingProcesses() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            int targetPid = (int) ProcessHandle.current().pid();
+
+            Set<Integer> senders = ConcurrentHashMap.newKeySet();
+            CountDownLatch received = new CountDownLatch(1);
+            try (ScriptFleet fleet = new ScriptFleet(localDevice, process -> process.getPid() == targetPid, "send('ready');")) {
+                fleet.setMessageHandler((pid, message, data) -> {
+                    senders.add(pid);
+                    received.countDown();
+                });
+                fleet.start().get(30, TimeUnit.SECONDS);
+                assumeTrue(fleet.size() == 1, "Cannot instrument current process");
+
+                assertArrayEquals(new int[] { targetPid }, fleet.getPids());
+                assertNotNull(fleet.getScript(targetPid));
+                assertTrue(received.await(10, TimeUnit.SECONDS), "Fleet handler should receive the message");
+                assertEquals(Set.of(targetPid), senders, "Messages should be tagged with the sender pid");
+            }
+            assertFalse(localDevice.getSessionRegistry().contains(targetPid), "Closing the fleet should release its sessions");
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testFleetWithoutMatches() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager();
+             ScriptFleet fleet = new ScriptFleet(deviceManager.getLocalDevice(), process -> false, "send('ready');")) {
+            fleet.start().get(30, TimeUnit.SECONDS);
+            assertEquals(0, fleet.size());
+            assertThrows(IllegalStateException.class, fleet::start);
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testFleetFollowsStartingAndExitingProcesses() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            long currentPid = ProcessHandle.current().pid();
+
+            // The test process itself shows that attaching works here; its children join later
+            CountDownLatch childReady = new CountDownLatch(1);
+            java.util.concurrent.atomic.AtomicInteger childPid = new java.util.concurrent.atomic.AtomicInteger(-1);
+            try (ScriptFleet fleet = new ScriptFleet(localDevice,
+                    process -> process.getPid() == currentPid || isChildOf(process.getPid(), currentPid),
+                    "send('ready');")) {
+                fleet.setWatchInterval(50, TimeUnit.MILLISECONDS);
+                fleet.setMessageHandler((pid, message, data) -> {
+                    if (pid == childPid.get()) {
+                        childReady.countDown();
+                    }
+                });
+                fleet.start().get(30, TimeUnit.SECONDS);
+                assumeTrue(fleet.size() == 1, "Cannot instrument current process");
+
+                java.lang.Process child = new ProcessBuilder("sleep", "30").start();
+                childPid.set((int) child.pid());
+                try {
+                    assertTrue(childReady.await(30, TimeUnit.SECONDS), "Started child should be instrumented");
+                    assertNotNull(fleet.getScript(childPid.get()), "Child should be a member");
+                    assertEquals(2, fleet.size());
+                } finally {
+                    child.destroy();
+                    child.waitFor();
+                }
+
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (fleet.getScript(childPid.get()) != null) {
+                    assertTrue(System.nanoTime() < deadline, "Exited child should leave the fleet");
+                    Thread.sleep(20);
+                }
+                assertArrayEquals(new int[] { (int) currentPid }, fleet.getPids());
+            }
+        }
+    }
+
+    private static boolean isChildOf(int pid, long parentPid) {
+        return ProcessHandle.of(pid)
+            .flatMap(ProcessHandle::parent)
+            .map(parent -> parent.pid() == parentPid)
+            .orElse(false);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.ScriptPool;
+import nl.axelkoolhaas.frida_java.Session;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for pre-created script pools.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ScriptPoolTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testPoolFillsAndServesScripts() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            Session session;
+            try {
+                session = localDevice.attach((int) ProcessHandle.current().pid());
+            } catch (RuntimeException e) {
+                abort("Cannot attach to current process: " + e.getMessage());
+                return;
+            }
+
+            try (session; ScriptPool pool = new ScriptPool(session, "send('active');", 2)) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (pool.getWarmCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertEquals(2, pool.getWarmCount(), "Pool should fill to capacity");
+
+                CountDownLatch received = new CountDownLatch(1);
+                try (Script script = pool.acquire((message, data) -> received.countDown())) {
+                    assertTrue(received.await(10, TimeUnit.SECONDS), "Acquired script should be loaded");
+                }
+                assertEquals(1, pool.getHitCount());
+                assertEquals(0, pool.getMissCount());
+
+                deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (pool.getWarmCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertEquals(2, pool.getWarmCount(), "Pool should refill after a hit");
+
+                // Holding the pool's monitor keeps the refill from adding scripts,
+                // so draining past the capacity has to miss
+                synchronized (pool) {
+                    for (int i = 0; i < 3; i++) {
+                        pool.acquire().close();
+                    }
+                }
+                assertEquals(3, pool.getHitCount());
+                assertEquals(1, pool.getMissCount(), "Acquiring from an empty pool should miss");
+
+                deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (pool.getWarmCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertEquals(2, pool.getWarmCount(), "Pool should refill after a miss");
+            }
+        }
+    }
+}
@@ -195,6 +195,79 @@ public class ScriptTest {
         }
     }
 
+    @Test
+    @Order(6)
+    void testScriptReplaceWith() throws InterruptedException {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            int testPid = getTestProcessId(localDevice);
+            if (testPid > 0) {
+                try (Session session = localDevice.attach(testPid)) {
+                    java.util.List<String> received = new java.util.concurrent.CopyOnWriteArrayList<>();
+                    java.util.concurrent.CountDownLatch second = new java.util.concurrent.CountDownLatch(1);
+                    Script.MessageHandler handler = (message, data) -> {
+                        received.add(message);
+                        if (message.contains("v2")) {
+                            second.countDown();
+                        }
+                    };
+
+                    Script first = session.createScript("send('v1');");
+                    first.setMessageHandler(handler);
+                    first.load();
+
+                    try (Script replacement = first.replaceWith("send('v2');")) {
+                        assertTrue(first.isDestroyed(), "Old script should be unloaded");
+                        assertFalse(replacement.isDestroyed(), "Replacement should be loaded");
+                        assertSame(handler, replacement.getMessageHandler(), "Handler should move to the replacement");
+                        assertTrue(second.await(5, java.util.concurrent.TimeUnit.SECONDS), "Replacement messages should reach the handler");
+                        assertTrue(received.get(0).contains("v1"), "Messages should stay in order");
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Cannot test script replacement: " + e.getMessage());
+                } finally {
+                    cleanupTestProcess(localDevice, testPid);
+                }
+            }
+        }
+    }
+
+    @Test
+    @Order(7)
+    void testUnreferencedScriptKeepsDeliveringMessages() throws InterruptedException {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            int testPid = getTestProcessId(localDevice);
+            if (testPid > 0) {
+                try (Session session = localDevice.attach(testPid)) {
+                    java.util.concurrent.CountDownLatch late = new java.util.concurrent.CountDownLatch(1);
+                    loadUnreferenced(session, late);
+                    for (int i = 0; i < 3; i++) {
+                        System.gc();
+                        Thread.sleep(100);
+                    }
+                    assertTrue(late.await(10, java.util.concurrent.TimeUnit.SECONDS),
+                        "A loaded script with a handler should deliver messages without a caller reference");
+                } catch (RuntimeException e) {
+                    System.out.println("Cannot test unreferenced script: " + e.getMessage());
+                } finally {
+                    cleanupTestProcess(localDevice, testPid);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load a script that sends a message later, without keeping a reference to it
+     */
+    private void loadUnreferenced(Session session, java.util.concurrent.CountDownLatch late) {
+        Script script = session.createScript("setTimeout(() => send('late'), 1000);");
+        script.setMessageHandler((message, data) -> late.countDown());
+        script.load();
+    }
+
     /**
      * Helper method to get current process ID in a platform-independent way
      */
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Session;
+import nl.axelkoolhaas.frida_java.SessionRegistry;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Test class for session de-duplication through the session registry.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SessionRegistryTest {
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @Test
+    @Order(1)
+    void testConcurrentAttachSharesSession() throws Exception {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            SessionRegistry registry = localDevice.getSessionRegistry();
+            int targetPid = (int) ProcessHandle.current().pid();
+            int threads = 4;
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Session> sessions = new ArrayList<>();
+            try {
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Session>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        go.await();
+                        return localDevice.attach(targetPid);
+                    }));
+                }
+                go.countDown();
+                for (Future<Session> future : futures) {
+                    sessions.add(future.get());
+                }
+            } catch (java.util.concurrent.ExecutionException e) {
+                abort("Cannot attach to current process: " + e.getCause().getMessage());
+            } finally {
+                executor.shutdown();
+            }
+
+            assertTrue(registry.contains(targetPid), "Registry should hold the session");
+            assertEquals(1, registry.size(), "Concurrent attaches should share one session");
+            assertEquals(threads, registry.getHandleCount(targetPid), "Every caller should hold a handle");
+            for (Session session : sessions) {
+                assertEquals(targetPid, session.getPid());
+            }
+
+            // A different device object for the same device shares the registry
+            Device sameDevice = deviceManager.getLocalDevice();
+            try (Session another = sameDevice.attach(targetPid)) {
+                assertEquals(threads + 1, registry.getHandleCount(targetPid));
+            }
+
+            sessions.get(0).detach();
+            assertTrue(sessions.get(0).isDetached(), "Released handle should report detached");
+            assertFalse(sessions.get(1).isDetached(), "Other handles should stay attached");
+
+            for (Session session : sessions) {
+                session.close();
+            }
+            assertFalse(registry.contains(targetPid), "Last release should drop the session");
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testFailedAttachIsNotCached() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            assertThrows(RuntimeException.class, () -> localDevice.attach(Integer.MAX_VALUE));
+            assertFalse(localDevice.getSessionRegistry().contains(Integer.MAX_VALUE),
+                "Failed attach should not leave an entry behind");
+        }
+    }
+}
@@ -26,7 +26,14 @@ import nl.axelkoolhaas.frida_java.Script;
 import nl.axelkoolhaas.frida_java.Session;
 import nl.axelkoolhaas.frida_java.ProcessList;
 import nl.axelkoolhaas.frida_java.Process;
+import nl.axelkoolhaas.frida_java.ResumePolicy;
+import nl.axelkoolhaas.frida_java.SessionOptions;
 import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assumptions.*;
 
@@ -241,6 +248,112 @@ public class SessionTest {
         }
     }
 
+    @Test
+    @Order(6)
+    void testUnclosedSessionsAreReclaimed() throws InterruptedException {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            int targetPid = findOrSpawnTestProcess(localDevice);
+            assumeTrue(targetPid > 0, "No test process available - skipping test");
+
+            try {
+                // Drop handles without closing them; the cleaner must release and detach them
+                for (int i = 0; i < 8; i++) {
+                    localDevice.attach(targetPid);
+                }
+                assertTrue(localDevice.getSessionRegistry().getHandleCount(targetPid) > 0);
+                for (int i = 0; i < 50 && localDevice.getSessionRegistry().contains(targetPid); i++) {
+                    System.gc();
+                    Thread.sleep(100);
+                }
+                assertFalse(localDevice.getSessionRegistry().contains(targetPid),
+                    "Unreachable session handles should be released");
+
+                // Explicit close still works and is idempotent
+                Session session = localDevice.attach(targetPid);
+                session.close();
+                session.close();
+                assertTrue(session.isDetached(), "Closed session should report detached");
+                assertEquals("Session{closed}", session.toString());
+            } finally {
+                cleanupProcess(localDevice, targetPid);
+            }
+        }
+    }
+
+    @Test
+    @Order(7)
+    void testDetachedHandlers() throws InterruptedException {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+
+            int targetPid = findOrSpawnTestProcess(localDevice);
+            assumeTrue(targetPid > 0, "No test process available - skipping test");
+
+            try {
+                Session session = localDevice.attach(targetPid);
+                CountDownLatch detached = new CountDownLatch(2);
+                AtomicReference<Session.DetachReason> reason = new AtomicReference<>();
+                AtomicReference<String> thread = new AtomicReference<>();
+                session.onDetached(detached::countDown);
+                session.onDetachedWithReason((detachReason, crash) -> {
+                    reason.set(detachReason);
+                    thread.set(Thread.currentThread().getName());
+                    detached.countDown();
+                });
+                assertNull(session.getDetachReason(), "Attached session should have no detach reason");
+
+                session.detach();
+                assertTrue(detached.await(5, TimeUnit.SECONDS), "Detached handlers should run");
+                assertEquals(Session.DetachReason.APPLICATION_REQUESTED, reason.get());
+                assertEquals("frida-session-events", thread.get(), "Handlers should run off the caller's thread");
+                assertNull(session.getCrash());
+                assertTrue(session.isDetached());
+
+                // Late registration still gets notified
+                CountDownLatch late = new CountDownLatch(1);
+                session.onDetached(late::countDown);
+                assertTrue(late.await(5, TimeUnit.SECONDS), "Late handler should run");
+                session.close();
+            } finally {
+                cleanupProcess(localDevice, targetPid);
+            }
+        }
+    }
+
+    @Test
+    @Order(8)
+    void testSessionOptionsAndResumePolicy() {
+        assertThrows(IllegalArgumentException.class,
+            () -> ResumePolicy.exponentialBackoff(0, 1, TimeUnit.SECONDS, 3), "Initial delay must be positive");
+        assertThrows(IllegalArgumentException.class,
+            () -> ResumePolicy.exponentialBackoff(2, 1, TimeUnit.SECONDS, 3), "Max delay must not be below initial delay");
+        assertThrows(IllegalArgumentException.class,
+            () -> ResumePolicy.exponentialBackoff(1, 2, TimeUnit.SECONDS, 0), "At least one attempt is required");
+
+        try (DeviceManager deviceManager = new DeviceManager();
+             SessionOptions options = new SessionOptions()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            options.setPersistTimeout(20);
+            assertEquals(20, options.getPersistTimeout());
+            assertThrows(IllegalArgumentException.class, () -> options.setPersistTimeout(-1));
+
+            int targetPid = findOrSpawnTestProcess(localDevice);
+            assumeTrue(targetPid > 0, "No test process available - skipping test");
+
+            try (Session session = localDevice.attach(targetPid, options)) {
+                ResumePolicy policy = ResumePolicy.exponentialBackoff(100, 1000, TimeUnit.MILLISECONDS, 5);
+                session.setResumePolicy(policy);
+                assertSame(policy, session.getResumePolicy());
+                session.setResumePolicy(null);
+                assertNull(session.getResumePolicy());
+            } finally {
+                cleanupProcess(localDevice, targetPid);
+            }
+        }
+    }
+
     /**
      * Helper method to find or spawn a test process
      */
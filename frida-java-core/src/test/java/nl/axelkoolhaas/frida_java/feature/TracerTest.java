@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.frida_java.feature;
+
+import nl.axelkoolhaas.frida_java.*;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the tracer SPI.
+ * The recording tracer is registered through META-INF/services in src/test/tracer-resources,
+ * which only the tracer-test surefire execution puts on the classpath.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TracerTest {
+
+    /**
+     * Tracer remembering every finished operation
+     */
+    public static class RecordingTracer implements FridaTracer {
+        static final List<String[]> FINISHED = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object begin(String operation, String deviceId, int pid, String name) {
+            return new String[] { operation, deviceId, String.valueOf(pid), name, null };
+        }
+
+        @Override
+        public void end(Object span, String operation, Throwable error) {
+            String[] record = (String[]) span;
+            assertEquals(record[0], operation, "Span should match its operation");
+            record[4] = error != null ? error.getClass().getName() : null;
+            FINISHED.add(record);
+        }
+    }
+
+    @BeforeAll
+    static void setUp() {
+        Frida.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Frida.deinit();
+    }
+
+    @BeforeEach
+    void reset() {
+        RecordingTracer.FINISHED.clear();
+    }
+
+    @Test
+    @Order(1)
+    void testDeviceEnumerationIsTraced() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            deviceManager.enumerateDevices();
+        }
+        String[] record = find("DeviceManager.enumerateDevices");
+        assertNull(record[4], "Enumeration should succeed");
+    }
+
+    @Test
+    @Order(2)
+    void testAttachIsTracedWithTarget() {
+        int pid = (int) ProcessHandle.current().pid();
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            try (Session session = localDevice.attach(pid)) {
+                assertFalse(session.isDetached());
+            } catch (RuntimeException e) {
+                System.out.println("Cannot attach to process for tracer test: " + e.getMessage());
+                return;
+            }
+            String[] record = find("Device.attach");
+            assertEquals(localDevice.getId(), record[1]);
+            assertEquals(String.valueOf(pid), record[2]);
+            assertNull(record[4]);
+            assertNotNull(find("Session.detach"));
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testFailureIsReported() {
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device localDevice = deviceManager.getLocalDevice();
+            assertThrows(RuntimeException.class, () -> localDevice.attach(Integer.MAX_VALUE));
+        }
+        String[] record = find("Device.attach");
+        assertEquals(String.valueOf(Integer.MAX_VALUE), record[2]);
+        assertNotNull(record[4], "Failed attach should carry its exception");
+    }
+
+    private static String[] find(String operation) {
+        return RecordingTracer.FINISHED.stream()
+            .filter(record -> record[0].equals(operation))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No " + operation + " span recorded"));
+    }
+}
@@ -19,9 +19,14 @@
 
 package nl.axelkoolhaas.frida_java.feature;
 
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
 import nl.axelkoolhaas.frida_java.Frida;
 import org.junit.jupiter.api.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -95,4 +100,21 @@ public class VersionTest {
         assertTrue(versionString.startsWith(expectedPrefix),
             "Version string should start with " + expectedPrefix + " but was: " + versionString);
     }
+
+    @Test
+    @Order(5)
+    void testPrewarm() throws Exception {
+        CompletableFuture<DeviceManager> first = Frida.prewarm();
+        CompletableFuture<DeviceManager> second = Frida.prewarm();
+
+        try (DeviceManager a = first.get(60, TimeUnit.SECONDS);
+             DeviceManager b = second.get(60, TimeUnit.SECONDS)) {
+            assertNotSame(a, b, "Every prewarm call should hand out its own device manager");
+            Device local = a.getLocalDevice();
+            assertNotNull(local, "Warmed-up device manager should have a local device");
+            local.close();
+        }
+        // The warm-up keeps Frida initialized; balance it for the other tests
+        Frida.deinit();
+    }
 }
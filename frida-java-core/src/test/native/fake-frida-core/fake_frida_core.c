@@ -0,0 +1,972 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+// Deterministic fake of frida-core for load tests without real targets.
+//
+// The JNI layer links against this instead of the devkit (profile fake-frida-core)
+// and sees one local device with a simulated process table:
+//
+//   FRIDA_FAKE_PROCESSES     number of processes, pids 1..N named "fake-<pid>",
+//                            parent pid pid / 2 (default 64)
+//   FRIDA_FAKE_APPLICATIONS  number of applications (default 8)
+//
+// Any pid in the table, a spawned pid or the pid of the test JVM can be attached
+// to. Scripts do not run JavaScript; instead, messages posted to them are
+// commands for the simulation:
+//
+//   {"type":"fake:emit","count":N,"rate":R,"size":S}
+//       send N messages {"type":"send","payload":{"seq":<n>}}, where n counts up
+//       from 0 per script, at R messages per second (0 means as fast as
+//       possible, all in one dispatch), each with S bytes of data where byte i
+//       is i & 0xff (0 means no data)
+//
+//   {"type":"fake:detach","reason":R,"crash":C}
+//       detach the session of the script with FridaSessionDetachReason R
+//       (default 3, process terminated), with crash details if C is 1
+//
+//   {"type":"fake:interrupt","failures":K}
+//       drop the connection of the script's session (detach reason connection
+//       terminated); if it was attached with a persist timeout, the next K
+//       resume attempts fail and the one after that resumes the session
+//
+// Everything else posted is dropped. Messages are emitted on the main context
+// thread like real frida-core does. Every *_sync call first waits for the work
+// already queued on the main context, so a sync call after a post observes all
+// messages of an unpaced emission.
+
+#include "frida-core.h"
+
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+
+#define DEFAULT_PROCESSES 64
+#define DEFAULT_APPLICATIONS 8
+#define FIRST_SPAWN_PID 1000000
+
+// Runtime
+
+static GMainContext *main_context = NULL;
+static GMainLoop *main_loop = NULL;
+
+GQuark frida_error_quark(void) {
+  return g_quark_from_static_string("frida-error-quark");
+}
+
+static gpointer run_main_loop(gpointer data) {
+  g_main_context_push_thread_default(main_context);
+  g_main_loop_run(main_loop);
+  g_main_context_pop_thread_default(main_context);
+  return NULL;
+}
+
+void frida_init(void) {
+  static gsize initialized = 0;
+  if (g_once_init_enter(&initialized)) {
+    main_context = g_main_context_new();
+    main_loop = g_main_loop_new(main_context, FALSE);
+    g_thread_unref(g_thread_new("frida-main-loop", run_main_loop, NULL));
+    g_once_init_leave(&initialized, 1);
+  }
+}
+
+void frida_deinit(void) {
+  // The main loop runs until the process exits, as frida_init only runs once
+}
+
+GMainContext *frida_get_main_context(void) {
+  return main_context;
+}
+
+static gboolean unref_on_main_context(gpointer obj) {
+  g_object_unref(obj);
+  return G_SOURCE_REMOVE;
+}
+
+void frida_unref(gpointer obj) {
+  GSource *source = g_idle_source_new();
+  g_source_set_callback(source, unref_on_main_context, obj, NULL);
+  g_source_attach(source, main_context);
+  g_source_unref(source);
+}
+
+void frida_version(guint *major, guint *minor, guint *micro, guint *nano) {
+  *major = 16;
+  *minor = 0;
+  *micro = 0;
+  *nano = 0;
+}
+
+const gchar *frida_version_string(void) {
+  return "16.0.0-fake";
+}
+
+typedef struct {
+  GMutex mutex;
+  GCond cond;
+  gboolean done;
+} Barrier;
+
+static gboolean release_barrier(gpointer data) {
+  Barrier *barrier = data;
+  g_mutex_lock(&barrier->mutex);
+  barrier->done = TRUE;
+  g_cond_signal(&barrier->cond);
+  g_mutex_unlock(&barrier->mutex);
+  return G_SOURCE_REMOVE;
+}
+
+// Wait until the main context has dispatched everything queued before this call
+static void wait_for_main_context(void) {
+  if (main_context == NULL || g_main_context_is_owner(main_context)) return;
+  Barrier barrier;
+  g_mutex_init(&barrier.mutex);
+  g_cond_init(&barrier.cond);
+  barrier.done = FALSE;
+  GSource *source = g_idle_source_new();
+  g_source_set_callback(source, release_barrier, &barrier, NULL);
+  g_source_attach(source, main_context);
+  g_source_unref(source);
+  g_mutex_lock(&barrier.mutex);
+  while (!barrier.done) {
+    g_cond_wait(&barrier.cond, &barrier.mutex);
+  }
+  g_mutex_unlock(&barrier.mutex);
+  g_mutex_clear(&barrier.mutex);
+  g_cond_clear(&barrier.cond);
+}
+
+static gint env_int(const gchar *name, gint fallback) {
+  const gchar *value = g_getenv(name);
+  if (value == NULL) return fallback;
+  gint64 parsed = g_ascii_strtoll(value, NULL, 10);
+  return parsed >= 0 && parsed <= G_MAXINT ? (gint) parsed : fallback;
+}
+
+static GHashTable *new_parameters(void) {
+  return g_hash_table_new_full(g_str_hash, g_str_equal, g_free, (GDestroyNotify) g_variant_unref);
+}
+
+// Object types
+
+#define FAKE_DEFINE_TYPE(TypeName, type_name, Fields) \
+  struct _##TypeName { GObject parent; Fields }; \
+  typedef struct { GObjectClass parent_class; } TypeName##Class; \
+  G_DEFINE_TYPE(TypeName, type_name, G_TYPE_OBJECT) \
+  static void type_name##_dispose_fields(TypeName *self); \
+  static void type_name##_class_setup(GObjectClass *klass); \
+  static void type_name##_finalize(GObject *object) { \
+    type_name##_dispose_fields((TypeName *) object); \
+    G_OBJECT_CLASS(type_name##_parent_class)->finalize(object); \
+  } \
+  static void type_name##_init(TypeName *self) {} \
+  static void type_name##_class_init(TypeName##Class *klass) { \
+    G_OBJECT_CLASS(klass)->finalize = type_name##_finalize; \
+    type_name##_class_setup(G_OBJECT_CLASS(klass)); \
+  }
+
+#define FAKE_NO_CLASS_SETUP(type_name) \
+  static void type_name##_class_setup(GObjectClass *klass) {}
+
+// Lists own one reference per item and hand out new references, like frida-core
+#define FAKE_DEFINE_LIST(ListName, list_name, ItemName) \
+  FAKE_DEFINE_TYPE(ListName, list_name, GPtrArray *items;) \
+  FAKE_NO_CLASS_SETUP(list_name) \
+  static void list_name##_dispose_fields(ListName *self) { \
+    if (self->items != NULL) g_ptr_array_unref(self->items); \
+  } \
+  static ListName *list_name##_new_fake(void) { \
+    ListName *list = g_object_new(list_name##_get_type(), NULL); \
+    list->items = g_ptr_array_new_with_free_func(g_object_unref); \
+    return list; \
+  } \
+  gint list_name##_size(ListName *self) { \
+    return (gint) self->items->len; \
+  } \
+  ItemName *list_name##_get(ListName *self, gint index) { \
+    return g_object_ref(g_ptr_array_index(self->items, index)); \
+  }
+
+FAKE_DEFINE_TYPE(FridaProcess, frida_process,
+  guint pid;
+  gchar *name;
+  GHashTable *parameters;)
+FAKE_NO_CLASS_SETUP(frida_process)
+
+static void frida_process_dispose_fields(FridaProcess *self) {
+  g_free(self->name);
+  g_hash_table_unref(self->parameters);
+}
+
+guint frida_process_get_pid(FridaProcess *self) {
+  return self->pid;
+}
+
+const gchar *frida_process_get_name(FridaProcess *self) {
+  return self->name;
+}
+
+GHashTable *frida_process_get_parameters(FridaProcess *self) {
+  return self->parameters;
+}
+
+FAKE_DEFINE_LIST(FridaProcessList, frida_process_list, FridaProcess)
+
+FAKE_DEFINE_TYPE(FridaApplication, frida_application,
+  gchar *identifier;
+  gchar *name;
+  guint pid;
+  GHashTable *parameters;)
+FAKE_NO_CLASS_SETUP(frida_application)
+
+static void frida_application_dispose_fields(FridaApplication *self) {
+  g_free(self->identifier);
+  g_free(self->name);
+  g_hash_table_unref(self->parameters);
+}
+
+const gchar *frida_application_get_identifier(FridaApplication *self) {
+  return self->identifier;
+}
+
+const gchar *frida_application_get_name(FridaApplication *self) {
+  return self->name;
+}
+
+guint frida_application_get_pid(FridaApplication *self) {
+  return self->pid;
+}
+
+GHashTable *frida_application_get_parameters(FridaApplication *self) {
+  return self->parameters;
+}
+
+FAKE_DEFINE_LIST(FridaApplicationList, frida_application_list, FridaApplication)
+
+FAKE_DEFINE_TYPE(FridaSpawn, frida_spawn,
+  guint pid;
+  gchar *identifier;)
+FAKE_NO_CLASS_SETUP(frida_spawn)
+
+static void frida_spawn_dispose_fields(FridaSpawn *self) {
+  g_free(self->identifier);
+}
+
+guint frida_spawn_get_pid(FridaSpawn *self) {
+  return self->pid;
+}
+
+const gchar *frida_spawn_get_identifier(FridaSpawn *self) {
+  return self->identifier;
+}
+
+FAKE_DEFINE_LIST(FridaSpawnList, frida_spawn_list, FridaSpawn)
+
+FAKE_DEFINE_TYPE(FridaChild, frida_child,
+  guint pid;
+  guint parent_pid;)
+FAKE_NO_CLASS_SETUP(frida_child)
+
+static void frida_child_dispose_fields(FridaChild *self) {
+}
+
+guint frida_child_get_pid(FridaChild *self) {
+  return self->pid;
+}
+
+guint frida_child_get_parent_pid(FridaChild *self) {
+  return self->parent_pid;
+}
+
+FAKE_DEFINE_LIST(FridaChildList, frida_child_list, FridaChild)
+
+// Options
+
+FAKE_DEFINE_TYPE(FridaProcessQueryOptions, frida_process_query_options,
+  FridaScope scope;)
+FAKE_NO_CLASS_SETUP(frida_process_query_options)
+
+static void frida_process_query_options_dispose_fields(FridaProcessQueryOptions *self) {
+}
+
+FridaProcessQueryOptions *frida_process_query_options_new(void) {
+  return g_object_new(frida_process_query_options_get_type(), NULL);
+}
+
+void frida_process_query_options_set_scope(FridaProcessQueryOptions *self, FridaScope value) {
+  self->scope = value;
+}
+
+FAKE_DEFINE_TYPE(FridaSpawnOptions, frida_spawn_options,
+  GHashTable *aux;)
+FAKE_NO_CLASS_SETUP(frida_spawn_options)
+
+static void frida_spawn_options_dispose_fields(FridaSpawnOptions *self) {
+  g_hash_table_unref(self->aux);
+}
+
+FridaSpawnOptions *frida_spawn_options_new(void) {
+  FridaSpawnOptions *options = g_object_new(frida_spawn_options_get_type(), NULL);
+  options->aux = new_parameters();
+  return options;
+}
+
+GHashTable *frida_spawn_options_get_aux(FridaSpawnOptions *self) {
+  return self->aux;
+}
+
+void frida_spawn_options_set_aux(FridaSpawnOptions *self, GHashTable *value) {
+  g_hash_table_ref(value);
+  g_hash_table_unref(self->aux);
+  self->aux = value;
+}
+
+FAKE_DEFINE_TYPE(FridaScriptOptions, frida_script_options,
+  gchar *name;
+  FridaScriptRuntime runtime;
+  GBytes *snapshot;)
+FAKE_NO_CLASS_SETUP(frida_script_options)
+
+static void frida_script_options_dispose_fields(FridaScriptOptions *self) {
+  g_free(self->name);
+  if (self->snapshot != NULL) g_bytes_unref(self->snapshot);
+}
+
+FridaScriptOptions *frida_script_options_new(void) {
+  return g_object_new(frida_script_options_get_type(), NULL);
+}
+
+void frida_script_options_set_name(FridaScriptOptions *self, const gchar *value) {
+  g_free(self->name);
+  self->name = g_strdup(value);
+}
+
+void frida_script_options_set_runtime(FridaScriptOptions *self, FridaScriptRuntime value) {
+  self->runtime = value;
+}
+
+void frida_script_options_set_snapshot(FridaScriptOptions *self, GBytes *value) {
+  if (self->snapshot != NULL) g_bytes_unref(self->snapshot);
+  self->snapshot = value != NULL ? g_bytes_ref(value) : NULL;
+}
+
+FAKE_DEFINE_TYPE(FridaSessionOptions, frida_session_options,
+  guint persist_timeout;)
+FAKE_NO_CLASS_SETUP(frida_session_options)
+
+static void frida_session_options_dispose_fields(FridaSessionOptions *self) {
+}
+
+FridaSessionOptions *frida_session_options_new(void) {
+  return g_object_new(frida_session_options_get_type(), NULL);
+}
+
+guint frida_session_options_get_persist_timeout(FridaSessionOptions *self) {
+  return self->persist_timeout;
+}
+
+void frida_session_options_set_persist_timeout(FridaSessionOptions *self, guint value) {
+  self->persist_timeout = value;
+}
+
+FAKE_DEFINE_TYPE(FridaSnapshotOptions, frida_snapshot_options,
+  gchar *warmup_script;
+  FridaScriptRuntime runtime;)
+FAKE_NO_CLASS_SETUP(frida_snapshot_options)
+
+static void frida_snapshot_options_dispose_fields(FridaSnapshotOptions *self) {
+  g_free(self->warmup_script);
+}
+
+FridaSnapshotOptions *frida_snapshot_options_new(void) {
+  return g_object_new(frida_snapshot_options_get_type(), NULL);
+}
+
+void frida_snapshot_options_set_warmup_script(FridaSnapshotOptions *self, const gchar *value) {
+  g_free(self->warmup_script);
+  self->warmup_script = g_strdup(value);
+}
+
+void frida_snapshot_options_set_runtime(FridaSnapshotOptions *self, FridaScriptRuntime value) {
+  self->runtime = value;
+}
+
+// Script
+
+enum {
+  SCRIPT_DESTROYED,
+  SCRIPT_MESSAGE,
+  SCRIPT_LAST_SIGNAL
+};
+
+static guint script_signals[SCRIPT_LAST_SIGNAL];
+
+FAKE_DEFINE_TYPE(FridaScript, frida_script,
+  FridaSession *session;
+  gchar *name;
+  gboolean loaded;
+  gboolean destroyed;
+  gint64 next_seq;)
+
+static void frida_script_class_setup(GObjectClass *klass) {
+  script_signals[SCRIPT_DESTROYED] = g_signal_new("destroyed", G_TYPE_FROM_CLASS(klass), G_SIGNAL_RUN_LAST, 0,
+      NULL, NULL, NULL, G_TYPE_NONE, 0);
+  script_signals[SCRIPT_MESSAGE] = g_signal_new("message", G_TYPE_FROM_CLASS(klass), G_SIGNAL_RUN_LAST, 0,
+      NULL, NULL, NULL, G_TYPE_NONE, 2, G_TYPE_STRING, G_TYPE_BYTES);
+}
+
+static void frida_script_dispose_fields(FridaScript *self) {
+  g_free(self->name);
+  g_object_unref(self->session);
+}
+
+gboolean frida_script_is_destroyed(FridaScript *self) {
+  return self->destroyed;
+}
+
+void frida_script_load_sync(FridaScript *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (self->destroyed) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_OPERATION, "Script is destroyed");
+    return;
+  }
+  if (self->loaded) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_OPERATION, "Script is already loaded");
+    return;
+  }
+  self->loaded = TRUE;
+}
+
+static gboolean emit_destroyed(gpointer data) {
+  g_signal_emit(data, script_signals[SCRIPT_DESTROYED], 0);
+  return G_SOURCE_REMOVE;
+}
+
+static void destroy_script(FridaScript *self) {
+  if (self->destroyed) return;
+  self->destroyed = TRUE;
+  GSource *source = g_idle_source_new();
+  g_source_set_callback(source, emit_destroyed, g_object_ref(self), g_object_unref);
+  g_source_attach(source, main_context);
+  g_source_unref(source);
+}
+
+void frida_script_unload_sync(FridaScript *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (self->destroyed) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_OPERATION, "Script is destroyed");
+    return;
+  }
+  destroy_script(self);
+}
+
+typedef struct {
+  FridaScript *script;
+  gint64 remaining;
+  gint64 rate;
+  gint64 emitted;
+  gint64 start_time;
+  GBytes *data;
+} Emission;
+
+static void free_emission(gpointer data) {
+  Emission *emission = data;
+  g_object_unref(emission->script);
+  if (emission->data != NULL) g_bytes_unref(emission->data);
+  g_free(emission);
+}
+
+static gboolean emit_messages(gpointer data) {
+  Emission *emission = data;
+  FridaScript *script = emission->script;
+  gint64 batch = emission->remaining;
+  if (emission->rate > 0) {
+    gint64 elapsed = g_get_monotonic_time() - emission->start_time;
+    gint64 due = emission->rate * elapsed / G_USEC_PER_SEC - emission->emitted;
+    batch = MIN(batch, MAX(due, 0));
+  }
+  for (gint64 i = 0; i < batch && !script->destroyed; i++) {
+    gchar *message = g_strdup_printf("{\"type\":\"send\",\"payload\":{\"seq\":%" G_GINT64_FORMAT "}}", script->next_seq++);
+    g_signal_emit(script, script_signals[SCRIPT_MESSAGE], 0, message, emission->data);
+    g_free(message);
+  }
+  emission->emitted += batch;
+  emission->remaining -= batch;
+  return emission->remaining > 0 && !script->destroyed ? G_SOURCE_CONTINUE : G_SOURCE_REMOVE;
+}
+
+static gint64 json_int(const gchar *json, const gchar *key, gint64 fallback) {
+  gchar *pattern = g_strdup_printf("\"%s\":", key);
+  const gchar *found = strstr(json, pattern);
+  gint64 value = found != NULL ? g_ascii_strtoll(found + strlen(pattern), NULL, 10) : fallback;
+  g_free(pattern);
+  return value;
+}
+
+static void detach_session(FridaSession *self, FridaSessionDetachReason reason, FridaCrash *crash);
+static void interrupt_session(FridaSession *self, guint failures);
+static FridaCrash *new_crash(guint pid);
+
+void frida_script_post(FridaScript *self, const gchar *json, GBytes *data) {
+  if (!self->loaded || self->destroyed) return;
+  if (strstr(json, "\"type\":\"fake:detach\"") != NULL) {
+    FridaCrash *crash = json_int(json, "crash", 0) == 1 ? new_crash(frida_session_get_pid(self->session)) : NULL;
+    detach_session(self->session, (FridaSessionDetachReason) json_int(json, "reason",
+        FRIDA_SESSION_DETACH_REASON_PROCESS_TERMINATED), crash);
+    return;
+  }
+  if (strstr(json, "\"type\":\"fake:interrupt\"") != NULL) {
+    interrupt_session(self->session, (guint) MAX(json_int(json, "failures", 0), 0));
+    return;
+  }
+  if (strstr(json, "\"type\":\"fake:emit\"") == NULL) return;
+  Emission *emission = g_new0(Emission, 1);
+  emission->script = g_object_ref(self);
+  emission->remaining = MAX(json_int(json, "count", 1), 0);
+  emission->rate = MAX(json_int(json, "rate", 0), 0);
+  emission->start_time = g_get_monotonic_time();
+  gint64 size = json_int(json, "size", 0);
+  if (size > 0) {
+    guint8 *bytes = g_malloc(size);
+    for (gint64 i = 0; i < size; i++) {
+      bytes[i] = (guint8) (i & 0xff);
+    }
+    emission->data = g_bytes_new_take(bytes, size);
+  }
+  // Unpaced emissions go out in a single dispatch; paced ones are topped up every millisecond
+  GSource *source = emission->rate > 0 ? g_timeout_source_new(1) : g_idle_source_new();
+  g_source_set_callback(source, emit_messages, emission, free_emission);
+  g_source_attach(source, main_context);
+  g_source_unref(source);
+}
+
+// Crash
+
+FAKE_DEFINE_TYPE(FridaCrash, frida_crash,
+  guint pid;
+  gchar *process_name;
+  gchar *summary;
+  gchar *report;)
+FAKE_NO_CLASS_SETUP(frida_crash)
+
+static void frida_crash_dispose_fields(FridaCrash *self) {
+  g_free(self->process_name);
+  g_free(self->summary);
+  g_free(self->report);
+}
+
+static FridaCrash *new_crash(guint pid) {
+  FridaCrash *crash = g_object_new(frida_crash_get_type(), NULL);
+  crash->pid = pid;
+  crash->process_name = g_strdup_printf("fake-%u", pid);
+  crash->summary = g_strdup("Simulated crash");
+  crash->report = g_strdup_printf("Process fake-%u crashed on request", pid);
+  return crash;
+}
+
+guint frida_crash_get_pid(FridaCrash *self) {
+  return self->pid;
+}
+
+const gchar *frida_crash_get_process_name(FridaCrash *self) {
+  return self->process_name;
+}
+
+const gchar *frida_crash_get_summary(FridaCrash *self) {
+  return self->summary;
+}
+
+const gchar *frida_crash_get_report(FridaCrash *self) {
+  return self->report;
+}
+
+// Session
+
+enum {
+  SESSION_DETACHED,
+  SESSION_LAST_SIGNAL
+};
+
+static guint session_signals[SESSION_LAST_SIGNAL];
+
+FAKE_DEFINE_TYPE(FridaSession, frida_session,
+  guint pid;
+  guint persist_timeout;
+  gboolean detached;
+  gboolean interrupted;
+  guint resume_failures;
+  gboolean child_gating;)
+
+static void frida_session_class_setup(GObjectClass *klass) {
+  session_signals[SESSION_DETACHED] = g_signal_new("detached", G_TYPE_FROM_CLASS(klass), G_SIGNAL_RUN_LAST, 0,
+      NULL, NULL, NULL, G_TYPE_NONE, 2, G_TYPE_INT, G_TYPE_POINTER);
+}
+
+static void frida_session_dispose_fields(FridaSession *self) {
+}
+
+guint frida_session_get_pid(FridaSession *self) {
+  return self->pid;
+}
+
+gboolean frida_session_is_detached(FridaSession *self) {
+  return self->detached;
+}
+
+guint frida_session_get_persist_timeout(FridaSession *self) {
+  return self->persist_timeout;
+}
+
+typedef struct {
+  FridaSession *session;
+  FridaSessionDetachReason reason;
+  FridaCrash *crash;
+} Detachment;
+
+static gboolean emit_detached(gpointer data) {
+  Detachment *detachment = data;
+  g_signal_emit(detachment->session, session_signals[SESSION_DETACHED], 0, (gint) detachment->reason, detachment->crash);
+  if (detachment->crash != NULL) g_object_unref(detachment->crash);
+  g_object_unref(detachment->session);
+  g_free(detachment);
+  return G_SOURCE_REMOVE;
+}
+
+static void detach_session(FridaSession *self, FridaSessionDetachReason reason, FridaCrash *crash) {
+  if (self->detached) {
+    if (crash != NULL) g_object_unref(crash);
+    return;
+  }
+  self->detached = TRUE;
+  Detachment *detachment = g_new0(Detachment, 1);
+  detachment->session = g_object_ref(self);
+  detachment->reason = reason;
+  detachment->crash = crash;
+  GSource *source = g_idle_source_new();
+  g_source_set_callback(source, emit_detached, detachment, NULL);
+  g_source_attach(source, main_context);
+  g_source_unref(source);
+}
+
+void frida_session_detach_sync(FridaSession *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  self->interrupted = FALSE;
+  detach_session(self, FRIDA_SESSION_DETACH_REASON_APPLICATION_REQUESTED, NULL);
+}
+
+static void interrupt_session(FridaSession *self, guint failures) {
+  if (self->detached) return;
+  // Without a persist timeout a dropped connection ends the session for good
+  self->interrupted = self->persist_timeout > 0;
+  self->resume_failures = failures;
+  detach_session(self, FRIDA_SESSION_DETACH_REASON_CONNECTION_TERMINATED, NULL);
+}
+
+void frida_session_resume_sync(FridaSession *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!self->interrupted) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_OPERATION, "Session cannot be resumed");
+    return;
+  }
+  if (self->resume_failures > 0) {
+    self->resume_failures--;
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_TRANSPORT, "Unable to reach the agent");
+    return;
+  }
+  self->interrupted = FALSE;
+  self->detached = FALSE;
+}
+
+static gboolean check_attached(FridaSession *self, GError **error) {
+  if (self->detached) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_OPERATION, "Session is detached");
+    return FALSE;
+  }
+  return TRUE;
+}
+
+void frida_session_enable_child_gating_sync(FridaSession *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (check_attached(self, error)) self->child_gating = TRUE;
+}
+
+void frida_session_disable_child_gating_sync(FridaSession *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (check_attached(self, error)) self->child_gating = FALSE;
+}
+
+static FridaScript *new_script(FridaSession *self, FridaScriptOptions *options) {
+  FridaScript *script = g_object_new(frida_script_get_type(), NULL);
+  script->session = g_object_ref(self);
+  script->name = g_strdup(options != NULL && options->name != NULL ? options->name : "script");
+  return script;
+}
+
+FridaScript *frida_session_create_script_sync(FridaSession *self, const gchar *source, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!check_attached(self, error)) return NULL;
+  return new_script(self, options);
+}
+
+FridaScript *frida_session_create_script_from_bytes_sync(FridaSession *self, GBytes *bytes, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!check_attached(self, error)) return NULL;
+  return new_script(self, options);
+}
+
+GBytes *frida_session_compile_script_sync(FridaSession *self, const gchar *source, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!check_attached(self, error)) return NULL;
+  return g_bytes_new(source, strlen(source));
+}
+
+GBytes *frida_session_snapshot_script_sync(FridaSession *self, const gchar *embed_script, FridaSnapshotOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!check_attached(self, error)) return NULL;
+  return g_bytes_new(embed_script, strlen(embed_script));
+}
+
+// Device
+
+FAKE_DEFINE_TYPE(FridaDevice, frida_device,
+  gchar *id;
+  gchar *name;
+  FridaDeviceType dtype;
+  gint process_count;
+  gint application_count;
+  GMutex lock;
+  guint next_spawn_pid;
+  GHashTable *spawned;)
+FAKE_NO_CLASS_SETUP(frida_device)
+
+static void frida_device_dispose_fields(FridaDevice *self) {
+  g_free(self->id);
+  g_free(self->name);
+  g_mutex_clear(&self->lock);
+  g_hash_table_unref(self->spawned);
+}
+
+static FridaDevice *new_device(const gchar *id, const gchar *name, FridaDeviceType dtype, gint process_count) {
+  FridaDevice *device = g_object_new(frida_device_get_type(), NULL);
+  device->id = g_strdup(id);
+  device->name = g_strdup(name);
+  device->dtype = dtype;
+  device->process_count = process_count;
+  device->application_count = env_int("FRIDA_FAKE_APPLICATIONS", DEFAULT_APPLICATIONS);
+  g_mutex_init(&device->lock);
+  device->next_spawn_pid = FIRST_SPAWN_PID;
+  device->spawned = g_hash_table_new_full(g_direct_hash, g_direct_equal, NULL, g_free);
+  return device;
+}
+
+const gchar *frida_device_get_id(FridaDevice *self) {
+  return self->id;
+}
+
+const gchar *frida_device_get_name(FridaDevice *self) {
+  return self->name;
+}
+
+FridaDeviceType frida_device_get_dtype(FridaDevice *self) {
+  return self->dtype;
+}
+
+gboolean frida_device_is_lost(FridaDevice *self) {
+  return FALSE;
+}
+
+GHashTable *frida_device_query_system_parameters_sync(FridaDevice *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  GHashTable *parameters = new_parameters();
+  GVariantBuilder os;
+  g_variant_builder_init(&os, G_VARIANT_TYPE("a{sv}"));
+  g_variant_builder_add(&os, "{sv}", "id", g_variant_new_string("linux"));
+  g_variant_builder_add(&os, "{sv}", "name", g_variant_new_string("Fake"));
+  g_hash_table_insert(parameters, g_strdup("os"), g_variant_ref_sink(g_variant_builder_end(&os)));
+  g_hash_table_insert(parameters, g_strdup("platform"), g_variant_ref_sink(g_variant_new_string("linux")));
+  g_hash_table_insert(parameters, g_strdup("arch"), g_variant_ref_sink(g_variant_new_string("x64")));
+  g_hash_table_insert(parameters, g_strdup("access"), g_variant_ref_sink(g_variant_new_string("full")));
+  return parameters;
+}
+
+static FridaProcess *new_process(guint pid, const gchar *name, gboolean metadata) {
+  FridaProcess *process = g_object_new(frida_process_get_type(), NULL);
+  process->pid = pid;
+  process->name = g_strdup(name);
+  process->parameters = new_parameters();
+  if (metadata) {
+    g_hash_table_insert(process->parameters, g_strdup("ppid"), g_variant_ref_sink(g_variant_new_int64(pid / 2)));
+  }
+  return process;
+}
+
+static gchar *process_name(FridaDevice *self, guint pid) {
+  if (pid >= 1 && pid <= (guint) self->process_count) {
+    return g_strdup_printf("fake-%u", pid);
+  }
+  if (pid == (guint) getpid()) {
+    return g_strdup("java");
+  }
+  g_mutex_lock(&self->lock);
+  const gchar *program = g_hash_table_lookup(self->spawned, GUINT_TO_POINTER(pid));
+  gchar *name = program != NULL ? g_path_get_basename(program) : NULL;
+  g_mutex_unlock(&self->lock);
+  return name;
+}
+
+FridaProcess *frida_device_get_process_by_pid_sync(FridaDevice *self, guint pid, FridaProcessMatchOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  gchar *name = process_name(self, pid);
+  if (name == NULL) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_PROCESS_NOT_FOUND, "Process with pid %u not found", pid);
+    return NULL;
+  }
+  FridaProcess *process = new_process(pid, name, TRUE);
+  g_free(name);
+  return process;
+}
+
+FridaProcess *frida_device_get_process_by_name_sync(FridaDevice *self, const gchar *name, FridaProcessMatchOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  guint pid = g_str_has_prefix(name, "fake-") ? (guint) g_ascii_strtoull(name + 5, NULL, 10) : 0;
+  if (pid < 1 || pid > (guint) self->process_count) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_PROCESS_NOT_FOUND, "Process with name '%s' not found", name);
+    return NULL;
+  }
+  return new_process(pid, name, TRUE);
+}
+
+FridaProcessList *frida_device_enumerate_processes_sync(FridaDevice *self, FridaProcessQueryOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  gboolean metadata = options != NULL && options->scope >= FRIDA_SCOPE_METADATA;
+  FridaProcessList *list = frida_process_list_new_fake();
+  for (gint pid = 1; pid <= self->process_count; pid++) {
+    gchar name[32];
+    g_snprintf(name, sizeof(name), "fake-%d", pid);
+    g_ptr_array_add(list->items, new_process((guint) pid, name, metadata));
+  }
+  return list;
+}
+
+FridaApplicationList *frida_device_enumerate_applications_sync(FridaDevice *self, FridaApplicationQueryOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  FridaApplicationList *list = frida_application_list_new_fake();
+  for (gint i = 0; i < self->application_count; i++) {
+    FridaApplication *app = g_object_new(frida_application_get_type(), NULL);
+    app->identifier = g_strdup_printf("com.example.fake%d", i);
+    app->name = g_strdup_printf("Fake %d", i);
+    // Every other application is running, as one of the simulated processes
+    app->pid = i % 2 == 0 && i + 1 <= self->process_count ? (guint) (i + 1) : 0;
+    app->parameters = new_parameters();
+    g_ptr_array_add(list->items, app);
+  }
+  return list;
+}
+
+guint frida_device_spawn_sync(FridaDevice *self, const gchar *program, FridaSpawnOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  g_mutex_lock(&self->lock);
+  guint pid = self->next_spawn_pid++;
+  g_hash_table_insert(self->spawned, GUINT_TO_POINTER(pid), g_strdup(program));
+  g_mutex_unlock(&self->lock);
+  return pid;
+}
+
+static gboolean is_spawned(FridaDevice *self, guint pid) {
+  g_mutex_lock(&self->lock);
+  gboolean spawned = g_hash_table_contains(self->spawned, GUINT_TO_POINTER(pid));
+  g_mutex_unlock(&self->lock);
+  return spawned;
+}
+
+void frida_device_resume_sync(FridaDevice *self, guint pid, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  if (!is_spawned(self, pid)) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_INVALID_ARGUMENT, "Unable to resume pid %u: not spawned", pid);
+  }
+}
+
+void frida_device_kill_sync(FridaDevice *self, guint pid, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  g_mutex_lock(&self->lock);
+  gboolean removed = g_hash_table_remove(self->spawned, GUINT_TO_POINTER(pid));
+  g_mutex_unlock(&self->lock);
+  if (!removed) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_PROCESS_NOT_FOUND, "Unable to kill pid %u: not spawned", pid);
+  }
+}
+
+FridaSession *frida_device_attach_sync(FridaDevice *self, guint pid, FridaSessionOptions *options,
+    GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+  gchar *name = process_name(self, pid);
+  if (name == NULL) {
+    g_set_error(error, FRIDA_ERROR, FRIDA_ERROR_PROCESS_NOT_FOUND, "Unable to find process with pid %u", pid);
+    return NULL;
+  }
+  g_free(name);
+  FridaSession *session = g_object_new(frida_session_get_type(), NULL);
+  session->pid = pid;
+  session->persist_timeout = options != NULL ? options->persist_timeout : 0;
+  return session;
+}
+
+FAKE_DEFINE_LIST(FridaDeviceList, frida_device_list, FridaDevice)
+
+// DeviceManager
+
+FAKE_DEFINE_TYPE(FridaDeviceManager, frida_device_manager,
+  FridaDevice *local;
+  FridaDevice *remote;)
+FAKE_NO_CLASS_SETUP(frida_device_manager)
+
+static void frida_device_manager_dispose_fields(FridaDeviceManager *self) {
+  g_clear_object(&self->local);
+  g_clear_object(&self->remote);
+}
+
+FridaDeviceManager *frida_device_manager_new(void) {
+  FridaDeviceManager *manager = g_object_new(frida_device_manager_get_type(), NULL);
+  manager->local = new_device("local", "Local System", FRIDA_DEVICE_TYPE_LOCAL,
+      env_int("FRIDA_FAKE_PROCESSES", DEFAULT_PROCESSES));
+  manager->remote = new_device("socket", "Local Socket", FRIDA_DEVICE_TYPE_REMOTE, 0);
+  return manager;
+}
+
+void frida_device_manager_close_sync(FridaDeviceManager *self, GCancellable *cancellable, GError **error) {
+  wait_for_main_context();
+}
+
+FridaDeviceList *frida_device_manager_enumerate_devices_sync(FridaDeviceManager *self, GCancellable *cancellable,
+    GError **error) {
+  wait_for_main_context();
+  FridaDeviceList *list = frida_device_list_new_fake();
+  g_ptr_array_add(list->items, g_object_ref(self->local));
+  g_ptr_array_add(list->items, g_object_ref(self->remote));
+  return list;
+}
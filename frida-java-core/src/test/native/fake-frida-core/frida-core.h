@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+// Test-only stand-in for the frida-core devkit header.
+//
+// Declares the subset of the frida-core API used by the JNI layer, with the same
+// names and signatures, on top of the system GLib. fake_frida_core.c implements
+// it with simulated devices, processes, sessions and scripts; see that file for
+// how to configure and drive the simulation.
+
+#ifndef __FRIDA_CORE_H__
+#define __FRIDA_CORE_H__
+
+#include <glib-object.h>
+
+G_BEGIN_DECLS
+
+typedef struct _GCancellable GCancellable;
+
+typedef struct _FridaDeviceManager FridaDeviceManager;
+typedef struct _FridaDeviceList FridaDeviceList;
+typedef struct _FridaDevice FridaDevice;
+typedef struct _FridaProcessList FridaProcessList;
+typedef struct _FridaProcess FridaProcess;
+typedef struct _FridaApplicationList FridaApplicationList;
+typedef struct _FridaApplication FridaApplication;
+typedef struct _FridaSpawnList FridaSpawnList;
+typedef struct _FridaSpawn FridaSpawn;
+typedef struct _FridaChildList FridaChildList;
+typedef struct _FridaChild FridaChild;
+typedef struct _FridaSession FridaSession;
+typedef struct _FridaScript FridaScript;
+typedef struct _FridaCrash FridaCrash;
+typedef struct _FridaProcessQueryOptions FridaProcessQueryOptions;
+typedef struct _FridaApplicationQueryOptions FridaApplicationQueryOptions;
+typedef struct _FridaFrontmostQueryOptions FridaFrontmostQueryOptions;
+typedef struct _FridaProcessMatchOptions FridaProcessMatchOptions;
+typedef struct _FridaRemoteDeviceOptions FridaRemoteDeviceOptions;
+typedef struct _FridaSpawnOptions FridaSpawnOptions;
+typedef struct _FridaSessionOptions FridaSessionOptions;
+typedef struct _FridaScriptOptions FridaScriptOptions;
+typedef struct _FridaSnapshotOptions FridaSnapshotOptions;
+
+typedef enum {
+  FRIDA_DEVICE_TYPE_LOCAL,
+  FRIDA_DEVICE_TYPE_REMOTE,
+  FRIDA_DEVICE_TYPE_USB
+} FridaDeviceType;
+
+typedef enum {
+  FRIDA_SCOPE_MINIMAL,
+  FRIDA_SCOPE_METADATA,
+  FRIDA_SCOPE_FULL
+} FridaScope;
+
+typedef enum {
+  FRIDA_SCRIPT_RUNTIME_DEFAULT,
+  FRIDA_SCRIPT_RUNTIME_QJS,
+  FRIDA_SCRIPT_RUNTIME_V8
+} FridaScriptRuntime;
+
+typedef enum {
+  FRIDA_SESSION_DETACH_REASON_APPLICATION_REQUESTED = 1,
+  FRIDA_SESSION_DETACH_REASON_PROCESS_REPLACED,
+  FRIDA_SESSION_DETACH_REASON_PROCESS_TERMINATED,
+  FRIDA_SESSION_DETACH_REASON_CONNECTION_TERMINATED,
+  FRIDA_SESSION_DETACH_REASON_DEVICE_LOST
+} FridaSessionDetachReason;
+
+typedef enum {
+  FRIDA_ERROR_SERVER_NOT_RUNNING,
+  FRIDA_ERROR_EXECUTABLE_NOT_FOUND,
+  FRIDA_ERROR_EXECUTABLE_NOT_SUPPORTED,
+  FRIDA_ERROR_PROCESS_NOT_FOUND,
+  FRIDA_ERROR_PROCESS_NOT_RESPONDING,
+  FRIDA_ERROR_INVALID_ARGUMENT,
+  FRIDA_ERROR_INVALID_OPERATION,
+  FRIDA_ERROR_PERMISSION_DENIED,
+  FRIDA_ERROR_ADDRESS_IN_USE,
+  FRIDA_ERROR_TIMED_OUT,
+  FRIDA_ERROR_NOT_SUPPORTED,
+  FRIDA_ERROR_PROTOCOL,
+  FRIDA_ERROR_TRANSPORT
+} FridaError;
+
+#define FRIDA_ERROR (frida_error_quark())
+GQuark frida_error_quark(void);
+
+// Runtime
+
+void frida_init(void);
+void frida_deinit(void);
+GMainContext *frida_get_main_context(void);
+void frida_unref(gpointer obj);
+void frida_version(guint *major, guint *minor, guint *micro, guint *nano);
+const gchar *frida_version_string(void);
+
+// DeviceManager
+
+FridaDeviceManager *frida_device_manager_new(void);
+void frida_device_manager_close_sync(FridaDeviceManager *self, GCancellable *cancellable, GError **error);
+FridaDeviceList *frida_device_manager_enumerate_devices_sync(FridaDeviceManager *self, GCancellable *cancellable, GError **error);
+
+gint frida_device_list_size(FridaDeviceList *self);
+FridaDevice *frida_device_list_get(FridaDeviceList *self, gint index);
+
+// Device
+
+const gchar *frida_device_get_id(FridaDevice *self);
+const gchar *frida_device_get_name(FridaDevice *self);
+FridaDeviceType frida_device_get_dtype(FridaDevice *self);
+gboolean frida_device_is_lost(FridaDevice *self);
+GHashTable *frida_device_query_system_parameters_sync(FridaDevice *self, GCancellable *cancellable, GError **error);
+FridaProcess *frida_device_get_process_by_pid_sync(FridaDevice *self, guint pid, FridaProcessMatchOptions *options,
+    GCancellable *cancellable, GError **error);
+FridaProcess *frida_device_get_process_by_name_sync(FridaDevice *self, const gchar *name, FridaProcessMatchOptions *options,
+    GCancellable *cancellable, GError **error);
+FridaProcessList *frida_device_enumerate_processes_sync(FridaDevice *self, FridaProcessQueryOptions *options,
+    GCancellable *cancellable, GError **error);
+FridaApplicationList *frida_device_enumerate_applications_sync(FridaDevice *self, FridaApplicationQueryOptions *options,
+    GCancellable *cancellable, GError **error);
+guint frida_device_spawn_sync(FridaDevice *self, const gchar *program, FridaSpawnOptions *options,
+    GCancellable *cancellable, GError **error);
+void frida_device_resume_sync(FridaDevice *self, guint pid, GCancellable *cancellable, GError **error);
+void frida_device_kill_sync(FridaDevice *self, guint pid, GCancellable *cancellable, GError **error);
+FridaSession *frida_device_attach_sync(FridaDevice *self, guint pid, FridaSessionOptions *options,
+    GCancellable *cancellable, GError **error);
+
+// Processes and applications
+
+gint frida_process_list_size(FridaProcessList *self);
+FridaProcess *frida_process_list_get(FridaProcessList *self, gint index);
+guint frida_process_get_pid(FridaProcess *self);
+const gchar *frida_process_get_name(FridaProcess *self);
+GHashTable *frida_process_get_parameters(FridaProcess *self);
+
+FridaProcessQueryOptions *frida_process_query_options_new(void);
+void frida_process_query_options_set_scope(FridaProcessQueryOptions *self, FridaScope value);
+
+gint frida_application_list_size(FridaApplicationList *self);
+FridaApplication *frida_application_list_get(FridaApplicationList *self, gint index);
+const gchar *frida_application_get_identifier(FridaApplication *self);
+const gchar *frida_application_get_name(FridaApplication *self);
+guint frida_application_get_pid(FridaApplication *self);
+GHashTable *frida_application_get_parameters(FridaApplication *self);
+
+// Spawns and children
+
+gint frida_spawn_list_size(FridaSpawnList *self);
+FridaSpawn *frida_spawn_list_get(FridaSpawnList *self, gint index);
+guint frida_spawn_get_pid(FridaSpawn *self);
+const gchar *frida_spawn_get_identifier(FridaSpawn *self);
+
+gint frida_child_list_size(FridaChildList *self);
+FridaChild *frida_child_list_get(FridaChildList *self, gint index);
+guint frida_child_get_pid(FridaChild *self);
+guint frida_child_get_parent_pid(FridaChild *self);
+
+FridaSpawnOptions *frida_spawn_options_new(void);
+GHashTable *frida_spawn_options_get_aux(FridaSpawnOptions *self);
+void frida_spawn_options_set_aux(FridaSpawnOptions *self, GHashTable *value);
+FridaSessionOptions *frida_session_options_new(void);
+guint frida_session_options_get_persist_timeout(FridaSessionOptions *self);
+void frida_session_options_set_persist_timeout(FridaSessionOptions *self, guint value);
+
+// Session
+
+guint frida_session_get_pid(FridaSession *self);
+gboolean frida_session_is_detached(FridaSession *self);
+guint frida_session_get_persist_timeout(FridaSession *self);
+void frida_session_detach_sync(FridaSession *self, GCancellable *cancellable, GError **error);
+void frida_session_resume_sync(FridaSession *self, GCancellable *cancellable, GError **error);
+void frida_session_enable_child_gating_sync(FridaSession *self, GCancellable *cancellable, GError **error);
+void frida_session_disable_child_gating_sync(FridaSession *self, GCancellable *cancellable, GError **error);
+FridaScript *frida_session_create_script_sync(FridaSession *self, const gchar *source, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error);
+FridaScript *frida_session_create_script_from_bytes_sync(FridaSession *self, GBytes *bytes, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error);
+GBytes *frida_session_compile_script_sync(FridaSession *self, const gchar *source, FridaScriptOptions *options,
+    GCancellable *cancellable, GError **error);
+GBytes *frida_session_snapshot_script_sync(FridaSession *self, const gchar *embed_script, FridaSnapshotOptions *options,
+    GCancellable *cancellable, GError **error);
+
+// Crash
+
+guint frida_crash_get_pid(FridaCrash *self);
+const gchar *frida_crash_get_process_name(FridaCrash *self);
+const gchar *frida_crash_get_summary(FridaCrash *self);
+const gchar *frida_crash_get_report(FridaCrash *self);
+
+// Script
+
+gboolean frida_script_is_destroyed(FridaScript *self);
+void frida_script_load_sync(FridaScript *self, GCancellable *cancellable, GError **error);
+void frida_script_unload_sync(FridaScript *self, GCancellable *cancellable, GError **error);
+void frida_script_post(FridaScript *self, const gchar *json, GBytes *data);
+
+FridaScriptOptions *frida_script_options_new(void);
+void frida_script_options_set_name(FridaScriptOptions *self, const gchar *value);
+void frida_script_options_set_runtime(FridaScriptOptions *self, FridaScriptRuntime value);
+void frida_script_options_set_snapshot(FridaScriptOptions *self, GBytes *value);
+
+FridaSnapshotOptions *frida_snapshot_options_new(void);
+void frida_snapshot_options_set_warmup_script(FridaSnapshotOptions *self, const gchar *value);
+void frida_snapshot_options_set_runtime(FridaSnapshotOptions *self, FridaScriptRuntime value);
+
+G_END_DECLS
+
+#endif
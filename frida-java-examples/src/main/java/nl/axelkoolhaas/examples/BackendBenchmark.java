@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.examples;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Process;
+import nl.axelkoolhaas.frida_java.ProcessList;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.Session;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing the native backends on a getter-heavy and a
+ * message-heavy workload. Run it once per backend in a fresh JVM:
+ *
+ *   -Dfrida.java.backend=jni   (default)
+ *   -Dfrida.java.backend=ffm   (Java 22+, add --enable-native-access=ALL-UNNAMED)
+ *
+ * Usage: BackendBenchmark [getter iterations] [messages]
+ */
+public class BackendBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        Frida.init();
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device device = deviceManager.getLocalDevice();
+            System.out.printf("Backend: %s%n", System.getProperty("frida.java.backend", "jni"));
+
+            try (ProcessList processes = device.enumerateProcesses()) {
+                Process process = processes.get(0);
+                // Warm up, then measure
+                getters(device, process, iterations / 10);
+                long start = System.nanoTime();
+                long checksum = getters(device, process, iterations);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("Getters:  %d ns/op (checksum %d)%n", elapsed / (iterations * 4L), checksum);
+            }
+
+            try (Session session = device.attach((int) ProcessHandle.current().pid());
+                 Script script = session.createScript(
+                     "recv('go', function (m) { for (var i = 0; i < m.count; i++) send(i); });")) {
+                CountDownLatch done = new CountDownLatch(messages);
+                script.setMessageHandler((message, data) -> done.countDown());
+                script.load();
+                long start = System.nanoTime();
+                script.post("{\"type\":\"go\",\"count\":" + messages + "}");
+                if (!done.await(120, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Only received " + (messages - done.getCount()) + " messages");
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("Messages: %d msg/s%n", messages * 1_000_000_000L / elapsed);
+            }
+        } finally {
+            Frida.deinit();
+        }
+    }
+
+    private static long getters(Device device, Process process, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += device.getId().length();
+            checksum += device.getName().length();
+            checksum += process.getPid();
+            checksum += process.getName().length();
+        }
+        return checksum;
+    }
+}
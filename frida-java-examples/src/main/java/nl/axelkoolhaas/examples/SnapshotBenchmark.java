@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.examples;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.Session;
+import nl.axelkoolhaas.frida_java.SnapshotCache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Benchmark comparing cold script load against load from a V8 snapshot.
+ * The agent builds a large lookup table during initialization; with a snapshot
+ * that work is done once and every later script starts from the prepared heap.
+ *
+ * Usage: SnapshotBenchmark [pid] [iterations]
+ */
+public class SnapshotBenchmark {
+
+    private static final String AGENT_INIT =
+        "const table = new Map();\n" +
+        "for (let i = 0; i < 200000; i++) { table.set('key' + i, i * 31 % 1009); }\n" +
+        "globalThis.lookup = (key) => table.get(key);\n";
+
+    private static final String AGENT_MAIN = "send({ value: lookup('key1234') });";
+
+    public static void main(String[] args) throws Exception {
+        int pid = args.length > 0 ? Integer.parseInt(args[0]) : (int) ProcessHandle.current().pid();
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Frida.init();
+        Path cacheDir = Files.createTempDirectory("frida-snapshots");
+        try (DeviceManager deviceManager = new DeviceManager()) {
+            Device device = deviceManager.getLocalDevice();
+            try (Session session = device.attach(pid)) {
+                SnapshotCache cache = new SnapshotCache(cacheDir);
+
+                long start = System.nanoTime();
+                cache.getSnapshot(session, AGENT_INIT, null);
+                System.out.printf("Snapshot created in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+                long[] cold = new long[iterations];
+                long[] warm = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    start = System.nanoTime();
+                    try (Script script = session.createScript(AGENT_INIT + AGENT_MAIN)) {
+                        script.load();
+                        cold[i] = System.nanoTime() - start;
+                    }
+
+                    start = System.nanoTime();
+                    try (Script script = cache.createScript(session, AGENT_MAIN, AGENT_INIT, null)) {
+                        script.load();
+                        warm[i] = System.nanoTime() - start;
+                    }
+                }
+
+                System.out.printf("Cold create + load:     median %.2f ms, p90 %.2f ms%n",
+                    percentile(cold, 50), percentile(cold, 90));
+                System.out.printf("Snapshot create + load: median %.2f ms, p90 %.2f ms%n",
+                    percentile(warm, 50), percentile(warm, 90));
+            }
+        } finally {
+            new SnapshotCache(cacheDir).clear();
+            Files.deleteIfExists(cacheDir);
+            Frida.deinit();
+        }
+    }
+
+    private static double percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (sorted.length * percentile) / 100);
+        return sorted[index] / 1e6;
+    }
+}
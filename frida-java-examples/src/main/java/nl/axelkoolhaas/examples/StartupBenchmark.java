@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2025 Axel Koolhaas
+ *
+ * This file is part of frida-java.
+ *
+ * frida-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * frida-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with frida-java.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package nl.axelkoolhaas.examples;
+
+import nl.axelkoolhaas.frida_java.Device;
+import nl.axelkoolhaas.frida_java.DeviceManager;
+import nl.axelkoolhaas.frida_java.Frida;
+import nl.axelkoolhaas.frida_java.Script;
+import nl.axelkoolhaas.frida_java.Session;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark measuring the time from JVM start to the first script message.
+ * With --prewarm the Frida runtime is warmed up on a background thread while
+ * the simulated application startup work runs; without it every cold-start
+ * cost is paid on first use. Run it once per mode in a fresh JVM.
+ *
+ * Usage: StartupBenchmark [--prewarm] [startup work ms]
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        boolean prewarm = args.length > 0 && args[0].equals("--prewarm");
+        int startupWorkMs = args.length > (prewarm ? 1 : 0) ? Integer.parseInt(args[prewarm ? 1 : 0]) : 200;
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long mainEntered = System.currentTimeMillis();
+
+        CompletableFuture<DeviceManager> warm = prewarm ? Frida.prewarm() : null;
+
+        // Stand-in for the rest of the application's startup
+        Thread.sleep(startupWorkMs);
+        long startupDone = System.currentTimeMillis();
+
+        DeviceManager deviceManager;
+        if (warm != null) {
+            deviceManager = warm.get();
+        } else {
+            Frida.init();
+            deviceManager = new DeviceManager();
+        }
+        long fridaReady = System.currentTimeMillis();
+
+        CountDownLatch firstMessage = new CountDownLatch(1);
+        try {
+            Device device = deviceManager.getLocalDevice();
+            try (Session session = device.attach((int) ProcessHandle.current().pid());
+                 Script script = session.createScript("send('ready');")) {
+                script.setMessageHandler((message, data) -> firstMessage.countDown());
+                script.load();
+                if (!firstMessage.await(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("No message from script");
+                }
+                long messaged = System.currentTimeMillis();
+
+                System.out.printf("Mode:                    %s%n", prewarm ? "prewarm" : "cold");
+                System.out.printf("JVM start to main:       %d ms%n", mainEntered - jvmStart);
+                System.out.printf("Startup work:            %d ms%n", startupDone - mainEntered);
+                System.out.printf("Waiting for Frida:       %d ms%n", fridaReady - startupDone);
+                System.out.printf("Attach to first message: %d ms%n", messaged - fridaReady);
+                System.out.printf("JVM start to message:    %d ms%n", messaged - jvmStart);
+            }
+        } finally {
+            deviceManager.close();
+            Frida.deinit();
+        }
+    }
+}